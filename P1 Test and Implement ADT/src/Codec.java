@@ -0,0 +1,126 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Converts keys or values to bytes and back, for data structures that store
+ * their contents outside the heap or in a file.
+ *
+ * A key codec must be canonical: two keys that are equal must be written as
+ * the same bytes, because stored keys are compared by their bytes.
+ *
+ * @author Rohan Mendiratta
+ * @version 1.0
+ * @param <T> type of the objects converted
+ */
+public interface Codec<T> {
+
+	// Returns the number of bytes write() will use for an object
+	int size(T object);
+
+	// Writes exactly size(object) bytes at the position of out, advancing it
+	void write(T object, ByteBuffer out);
+
+	// Reads an object from the length bytes at the position of in, advancing it
+	T read(ByteBuffer in, int length);
+
+	/**
+	 * Integers as 4 bytes
+	 */
+	Codec<Integer> INTEGER = new Codec<Integer>() {
+		@Override
+		public int size(Integer object) {
+			return Integer.BYTES;
+		}
+
+		@Override
+		public void write(Integer object, ByteBuffer out) {
+			out.putInt(object);
+		}
+
+		@Override
+		public Integer read(ByteBuffer in, int length) {
+			return in.getInt();
+		}
+	};
+
+	/**
+	 * Longs as 8 bytes
+	 */
+	Codec<Long> LONG = new Codec<Long>() {
+		@Override
+		public int size(Long object) {
+			return Long.BYTES;
+		}
+
+		@Override
+		public void write(Long object, ByteBuffer out) {
+			out.putLong(object);
+		}
+
+		@Override
+		public Long read(ByteBuffer in, int length) {
+			return in.getLong();
+		}
+	};
+
+	/**
+	 * Strings as UTF-8. A lone surrogate is written as '?', like
+	 * String.getBytes does.
+	 */
+	Codec<String> STRING = new Codec<String>() {
+		@Override
+		public int size(String object) {
+			int bytes = 0;
+			for (int i = 0; i < object.length(); i++) {
+				char c = object.charAt(i);
+				if (c < 0x80) {
+					bytes += 1;
+				} else if (c < 0x800) {
+					bytes += 2;
+				} else if (Character.isHighSurrogate(c) && i + 1 < object.length()
+					&& Character.isLowSurrogate(object.charAt(i + 1))) {
+					bytes += 4;
+					i++;
+				} else {
+					bytes += Character.isSurrogate(c) ? 1 : 3;
+				}
+			}
+			return bytes;
+		}
+
+		@Override
+		public void write(String object, ByteBuffer out) {
+			// encodes by hand so writing a key does not allocate a byte[]
+			for (int i = 0; i < object.length(); i++) {
+				char c = object.charAt(i);
+				if (c < 0x80) {
+					out.put((byte) c);
+				} else if (c < 0x800) {
+					out.put((byte) (0xC0 | c >> 6));
+					out.put((byte) (0x80 | c & 0x3F));
+				} else if (Character.isHighSurrogate(c) && i + 1 < object.length()
+					&& Character.isLowSurrogate(object.charAt(i + 1))) {
+					int cp = Character.toCodePoint(c, object.charAt(++i));
+					out.put((byte) (0xF0 | cp >> 18));
+					out.put((byte) (0x80 | cp >> 12 & 0x3F));
+					out.put((byte) (0x80 | cp >> 6 & 0x3F));
+					out.put((byte) (0x80 | cp & 0x3F));
+				} else if (Character.isSurrogate(c)) {
+					out.put((byte) '?');
+				} else {
+					out.put((byte) (0xE0 | c >> 12));
+					out.put((byte) (0x80 | c >> 6 & 0x3F));
+					out.put((byte) (0x80 | c & 0x3F));
+				}
+			}
+		}
+
+		@Override
+		public String read(ByteBuffer in, int length) {
+			byte[] bytes = new byte[length];
+			in.get(bytes);
+			return new String(bytes, StandardCharsets.UTF_8);
+		}
+	};
+
+}
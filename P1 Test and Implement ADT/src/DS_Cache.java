@@ -0,0 +1,325 @@
+/**
+ * This class is a Data Structure that holds at most a fixed number of
+ * pairs. Inserting into a full cache first evicts one pair chosen by the
+ * {@link Policy} given when the cache is created.
+ *
+ * Pairs live in parallel arrays as in DS_My, found through a SlotIndex, and
+ * every policy keeps its bookkeeping in int arrays beside them, so a hit and
+ * an eviction are O(1) and no node object is created per pair. Get counts
+ * hits and misses and updates the policy; contains only looks, so it can be
+ * used to check for a key without making it look recently used.
+ *
+ * @author Rohan Mendiratta
+ * @version 1.0
+ */
+public class DS_Cache implements DataStructureADT {
+
+	/**
+	 * How the cache picks the pair to evict
+	 */
+	public enum Policy {
+		/** evicts the pair read or inserted least recently */
+		LRU,
+		/** sweeps a hand over the pairs, evicting the first one not read since the last sweep */
+		CLOCK,
+		/**
+		 * like CLOCK, but each read adds to a count, up to MAX_FREQUENCY, and
+		 * the hand takes one off per sweep, so pairs read often survive
+		 * several sweeps
+		 */
+		FREQUENCY
+	}
+
+	static final int MAX_FREQUENCY = 3; // most sweeps a FREQUENCY pair can survive unread
+	private static final int NONE = -1; // end of the LRU list
+
+	private final Policy policy; // how the pair to evict is picked
+	private final int maxSize; // most pairs held at once
+	private final Comparable[] keys; // keys of the cache, in slots 0 to size - 1
+	private final Object[] values; // values[i] belongs to keys[i]
+	private final SlotIndex index; // key -> slot
+	private int size; // number of pairs
+
+	private final int[] prev; // LRU only: slot read or inserted just after this one, or NONE
+	private final int[] next; // LRU only: slot read or inserted just before this one, or NONE
+	private int head = NONE; // LRU only: most recently used slot
+	private int tail = NONE; // LRU only: least recently used slot
+
+	private final int[] counts; // CLOCK and FREQUENCY: reads not yet taken off by the hand
+	private int hand; // CLOCK and FREQUENCY: next slot the hand looks at
+
+	private long hits; // gets that found their key
+	private long misses; // gets that did not
+	private long evictions; // pairs evicted to make room
+
+	/**
+	 * Creates an empty cache
+	 * @param maxSize most pairs held at once, at least 1
+	 * @param policy how the pair to evict is picked
+	 */
+	public DS_Cache(int maxSize, Policy policy) {
+		if (maxSize < 1) {
+			throw new IllegalArgumentException("max size must be at least 1");
+		}
+		if (policy == null) {
+			throw new IllegalArgumentException("null policy");
+		}
+		this.policy = policy;
+		this.maxSize = maxSize;
+		keys = new Comparable[maxSize];
+		values = new Object[maxSize];
+		index = new SlotIndex(maxSize, slot -> keys[slot]);
+		boolean lru = policy == Policy.LRU;
+		prev = lru ? new int[maxSize] : null;
+		next = lru ? new int[maxSize] : null;
+		counts = lru ? null : new int[maxSize];
+	}
+
+	/**
+	 * Adds a (key,value) pair to the cache, evicting a pair first if the
+	 * cache is full
+	 * @param k key
+	 * @param v value
+	 */
+	@Override
+	public void insert(Comparable k, Object v) {
+		// checks for null key
+		if (k == null) {
+			throw new IllegalArgumentException("null key");
+		}
+		// checks for duplicate keys
+		if (index.find(k) >= 0) {
+			throw new RuntimeException("duplicate key");
+		}
+		int slot;
+		if (size == maxSize) {
+			// the new pair takes over the slot of the pair evicted
+			slot = victim();
+			index.remove(keys[slot]);
+			evictions++;
+			if (policy == Policy.LRU) {
+				unlink(slot);
+			}
+		} else {
+			slot = size++;
+		}
+		keys[slot] = k;
+		values[slot] = v;
+		index.add(k, slot);
+		if (policy == Policy.LRU) {
+			linkFirst(slot);
+		} else {
+			counts[slot] = 0; // has to be read before the hand comes round to survive it
+		}
+	}
+
+	/**
+	 * Removes a pair from the cache. The last pair is moved into its slot so
+	 * the slots in use stay at the front of the arrays.
+	 * @param k key
+	 * @return true if the pair is removed, else false
+	 */
+	@Override
+	public boolean remove(Comparable k) {
+		// checks for a null key
+		if (k == null) {
+			throw new IllegalArgumentException("null key");
+		}
+		int slot = index.remove(k);
+		if (slot < 0) {
+			return false;
+		}
+		if (policy == Policy.LRU) {
+			unlink(slot);
+		}
+		int last = --size;
+		if (slot != last) {
+			// the last pair is about to fill the hole
+			index.move(keys[last], last, slot);
+			keys[slot] = keys[last];
+			values[slot] = values[last];
+			if (policy == Policy.LRU) {
+				relink(last, slot);
+			} else {
+				counts[slot] = counts[last];
+			}
+		}
+		// lets the removed pair be collected
+		keys[last] = null;
+		values[last] = null;
+		if (hand >= size) {
+			hand = 0;
+		}
+		return true;
+	}
+
+	/**
+	 * Checks if the cache contains a specified key without counting it as a
+	 * read
+	 * @param k key
+	 * @return true if match found, else false
+	 */
+	@Override
+	public boolean contains(Comparable k) {
+		if (k == null) {
+			return false;
+		}
+		return index.find(k) >= 0;
+	}
+
+	/**
+	 * Gets the value stored with a specific key, counting a hit or a miss
+	 * and marking the pair as read
+	 * @param k key
+	 * @return value found, or null if the key is not in the cache
+	 */
+	@Override
+	public Object get(Comparable k) {
+		if (k == null) {
+			throw new IllegalArgumentException("null key");
+		}
+		int slot = index.find(k);
+		if (slot < 0) {
+			misses++;
+			return null;
+		}
+		hits++;
+		if (policy == Policy.LRU) {
+			if (slot != head) {
+				unlink(slot);
+				linkFirst(slot);
+			}
+		} else if (policy == Policy.CLOCK) {
+			counts[slot] = 1;
+		} else if (counts[slot] < MAX_FREQUENCY) {
+			counts[slot]++;
+		}
+		return values[slot];
+	}
+
+	/**
+	 * Gets the number of pairs in the cache
+	 * @return size
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Gets the most pairs the cache holds at once
+	 * @return max size
+	 */
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * Gets the policy used to pick the pair to evict
+	 * @return policy
+	 */
+	public Policy getPolicy() {
+		return policy;
+	}
+
+	/**
+	 * Gets the number of gets that found their key
+	 * @return hits
+	 */
+	public long getHits() {
+		return hits;
+	}
+
+	/**
+	 * Gets the number of gets that did not find their key
+	 * @return misses
+	 */
+	public long getMisses() {
+		return misses;
+	}
+
+	/**
+	 * Gets the number of pairs evicted to make room for an insert
+	 * @return evictions
+	 */
+	public long getEvictions() {
+		return evictions;
+	}
+
+	/**
+	 * Picks the slot of the pair to evict from a full cache
+	 * @return slot
+	 */
+	private int victim() {
+		if (policy == Policy.LRU) {
+			return tail;
+		}
+		// takes a read off each pair the hand passes until it finds one with
+		// none left; a whole sweep takes at most MAX_FREQUENCY rounds
+		while (counts[hand] > 0) {
+			counts[hand]--;
+			hand = hand + 1 == size ? 0 : hand + 1;
+		}
+		int slot = hand;
+		hand = hand + 1 == size ? 0 : hand + 1;
+		return slot;
+	}
+
+	/**
+	 * Makes a slot the most recently used
+	 * @param slot slot not in the LRU list
+	 */
+	private void linkFirst(int slot) {
+		prev[slot] = NONE;
+		next[slot] = head;
+		if (head != NONE) {
+			prev[head] = slot;
+		} else {
+			tail = slot;
+		}
+		head = slot;
+	}
+
+	/**
+	 * Takes a slot out of the LRU list
+	 * @param slot slot in the LRU list
+	 */
+	private void unlink(int slot) {
+		int before = prev[slot];
+		int after = next[slot];
+		if (before != NONE) {
+			next[before] = after;
+		} else {
+			head = after;
+		}
+		if (after != NONE) {
+			prev[after] = before;
+		} else {
+			tail = before;
+		}
+	}
+
+	/**
+	 * Puts a slot in the LRU list where another one was, after the pair
+	 * moved from one to the other
+	 * @param from slot the pair moved out of
+	 * @param to slot the pair moved into
+	 */
+	private void relink(int from, int to) {
+		int before = prev[from];
+		int after = next[from];
+		prev[to] = before;
+		next[to] = after;
+		if (before != NONE) {
+			next[before] = to;
+		} else {
+			head = to;
+		}
+		if (after != NONE) {
+			prev[after] = to;
+		} else {
+			tail = to;
+		}
+	}
+
+}
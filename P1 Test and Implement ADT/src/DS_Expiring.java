@@ -0,0 +1,420 @@
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * This class is a Data Structure whose pairs can expire. A pair inserted
+ * with a time to live reports absent from contains and get as soon as that
+ * time has passed, and is reclaimed by a hierarchical timer wheel instead
+ * of a scan over every pair.
+ *
+ * The wheel has LEVELS levels of 64 buckets. A bucket on level 0 holds the
+ * pairs that expire in one tick; a bucket on level i holds the pairs that
+ * expire in a span of 64^i ticks, and is cascaded down a level when the wheel
+ * reaches that span. Every operation first turns the wheel up to the current
+ * tick, reclaiming what expired on the way, so each pair is touched at most
+ * once per level and reclaiming it is O(1) amortized. Ticks where no bucket
+ * can be due are skipped in one step.
+ *
+ * Pairs live in parallel arrays found through a SlotIndex, as in DS_MyHashed,
+ * and each bucket is a doubly linked list threaded through int arrays over
+ * the slots, so scheduling a pair creates no object. Contains and get compare
+ * the pair's own deadline, so a pair is absent the moment it expires even if
+ * the wheel has not reached its bucket yet; size counts such a pair until the
+ * wheel reclaims it, at most one tick later.
+ *
+ * @author Rohan Mendiratta
+ * @version 1.0
+ */
+public class DS_Expiring implements DataStructureADT {
+
+	static final int LEVELS = 6; // 64^6 ticks of 1ms cover more than 2000 years
+	private static final int BITS = 6; // log2 of the buckets per level
+	private static final int BUCKETS = 1 << BITS; // buckets per level
+	private static final long DEFAULT_TICK = TimeUnit.MILLISECONDS.toNanos(1);
+	private static final long NEVER = Long.MAX_VALUE; // deadline of a pair that does not expire
+	private static final int NONE = -1; // end of a bucket list, or a pair in no bucket
+
+	private final LongSupplier clock; // nanoTime source
+	private final long origin; // clock reading when the structure was created
+	private final long tick; // nanoseconds per tick
+	private final long defaultTtl; // nanoseconds to live for insert(k, v), or NEVER
+
+	private Comparable[] keys; // keys, in slots 0 to size - 1
+	private Object[] values; // values[i] belongs to keys[i]
+	private long[] deadlines; // nanoseconds after origin at which a pair expires, or NEVER
+	private final SlotIndex index; // key -> slot
+	private int size; // number of pairs, expired ones not yet reclaimed included
+
+	private int[] bucketOf; // bucket a slot is scheduled in, or NONE
+	private int[] next; // next slot in the same bucket, or NONE
+	private int[] prev; // previous slot in the same bucket, or NONE
+	private final int[] heads = new int[LEVELS * BUCKETS]; // first slot of each bucket, or NONE
+	private final int[] scheduled = new int[LEVELS]; // number of pairs on each level
+	private long currentTick; // last tick the wheel has turned to
+
+	private long expirations; // expired pairs reclaimed
+
+	/**
+	 * Creates an empty structure whose pairs never expire unless inserted
+	 * with a time to live
+	 */
+	public DS_Expiring() {
+		this(NEVER, DEFAULT_TICK, System::nanoTime);
+	}
+
+	/**
+	 * Creates an empty structure whose pairs expire after a default time to
+	 * live unless inserted with their own
+	 * @param ttl time to live of pairs added by insert(k, v), greater than 0
+	 * @param unit unit of ttl
+	 */
+	public DS_Expiring(long ttl, TimeUnit unit) {
+		this(checkTtl(ttl, unit), DEFAULT_TICK, System::nanoTime);
+	}
+
+	/**
+	 * Creates an empty structure with its own clock and tick length
+	 * @param defaultTtl nanoseconds to live of pairs added by insert(k, v), or NEVER
+	 * @param tick nanoseconds per tick of the wheel
+	 * @param clock nanoTime source
+	 */
+	DS_Expiring(long defaultTtl, long tick, LongSupplier clock) {
+		if (tick <= 0) {
+			throw new IllegalArgumentException("tick must be greater than 0");
+		}
+		this.clock = clock;
+		this.origin = clock.getAsLong();
+		this.tick = tick;
+		this.defaultTtl = defaultTtl;
+		keys = new Comparable[DS_My.DEFAULT_CAPACITY];
+		values = new Object[DS_My.DEFAULT_CAPACITY];
+		deadlines = new long[DS_My.DEFAULT_CAPACITY];
+		bucketOf = new int[DS_My.DEFAULT_CAPACITY];
+		next = new int[DS_My.DEFAULT_CAPACITY];
+		prev = new int[DS_My.DEFAULT_CAPACITY];
+		index = new SlotIndex(DS_My.DEFAULT_CAPACITY, slot -> keys[slot]);
+		Arrays.fill(heads, NONE);
+	}
+
+	/**
+	 * Adds a (key,value) pair that expires after the default time to live
+	 * @param k key
+	 * @param v value
+	 */
+	@Override
+	public void insert(Comparable k, Object v) {
+		insert(k, v, now(), defaultTtl);
+	}
+
+	/**
+	 * Adds a (key,value) pair that expires after its own time to live
+	 * @param k key
+	 * @param v value
+	 * @param ttl time to live, greater than 0
+	 * @param unit unit of ttl
+	 */
+	public void insert(Comparable k, Object v, long ttl, TimeUnit unit) {
+		insert(k, v, now(), checkTtl(ttl, unit));
+	}
+
+	/**
+	 * Removes a pair. A pair that has expired is not removed again.
+	 * @param k key
+	 * @return true if a live pair is removed, else false
+	 */
+	@Override
+	public boolean remove(Comparable k) {
+		// checks for a null key
+		if (k == null) {
+			throw new IllegalArgumentException("null key");
+		}
+		long now = now();
+		int slot = index.find(k);
+		if (slot < 0) {
+			return false;
+		}
+		boolean live = deadlines[slot] > now;
+		if (!live) {
+			expirations++;
+		}
+		removeSlot(slot);
+		return live;
+	}
+
+	/**
+	 * Checks if the structure contains a specified key that has not expired
+	 * @param k key
+	 * @return true if match found, else false
+	 */
+	@Override
+	public boolean contains(Comparable k) {
+		if (k == null) {
+			return false;
+		}
+		long now = now();
+		int slot = index.find(k);
+		return slot >= 0 && deadlines[slot] > now;
+	}
+
+	/**
+	 * Gets the value stored with a specific key that has not expired
+	 * @param k key
+	 * @return value found, or null if the key is not present or has expired
+	 */
+	@Override
+	public Object get(Comparable k) {
+		if (k == null) {
+			throw new IllegalArgumentException("null key");
+		}
+		long now = now();
+		int slot = index.find(k);
+		return slot >= 0 && deadlines[slot] > now ? values[slot] : null;
+	}
+
+	/**
+	 * Gets the number of pairs, including any that expired within the
+	 * current tick
+	 * @return size
+	 */
+	@Override
+	public int size() {
+		now();
+		return size;
+	}
+
+	/**
+	 * Gets the number of pairs the wheel or a remove has reclaimed after they
+	 * expired
+	 * @return expirations
+	 */
+	public long getExpirations() {
+		return expirations;
+	}
+
+	/**
+	 * Adds a pair after checking its key
+	 * @param k key
+	 * @param v value
+	 * @param now nanoseconds after origin, as returned by now()
+	 * @param ttl nanoseconds to live, or NEVER
+	 */
+	private void insert(Comparable k, Object v, long now, long ttl) {
+		// checks for null key
+		if (k == null) {
+			throw new IllegalArgumentException("null key");
+		}
+		int slot = index.find(k);
+		if (slot >= 0) {
+			// checks for duplicate keys; an expired pair gives way to the new one
+			if (deadlines[slot] > now) {
+				throw new RuntimeException("duplicate key");
+			}
+			expirations++;
+			removeSlot(slot);
+		}
+		ensureCapacity(size + 1);
+		slot = size++;
+		keys[slot] = k;
+		values[slot] = v;
+		deadlines[slot] = ttl == NEVER || ttl > NEVER - now ? NEVER : now + ttl;
+		index.add(k, slot);
+		schedule(slot, currentTick + 1);
+	}
+
+	/**
+	 * Reads the clock and turns the wheel up to the current tick
+	 * @return nanoseconds after origin
+	 */
+	private long now() {
+		long now = clock.getAsLong() - origin;
+		long target = now / tick;
+		while (currentTick < target) {
+			int level = 0;
+			while (level < LEVELS && scheduled[level] == 0) {
+				level++;
+			}
+			if (level == LEVELS) {
+				currentTick = target; // nothing is scheduled
+				break;
+			}
+			if (level > 0) {
+				// nothing is due before the next tick that cascades this level
+				long span = (1L << (BITS * level)) - 1;
+				currentTick = Math.min(target - 1, currentTick | span);
+			}
+			currentTick++;
+			if ((currentTick & (BUCKETS - 1)) == 0) {
+				cascade(1);
+			}
+			expireBucket((int) (currentTick & (BUCKETS - 1)));
+		}
+		return now;
+	}
+
+	/**
+	 * Moves the pairs of the current bucket of a level down to lower levels,
+	 * cascading the level above first if it has also come round
+	 * @param level level to cascade, at least 1
+	 */
+	private void cascade(int level) {
+		if (level >= LEVELS) {
+			return;
+		}
+		int bucket = (int) ((currentTick >>> (BITS * level)) & (BUCKETS - 1));
+		if (bucket == 0) {
+			cascade(level + 1);
+		}
+		int head = level * BUCKETS + bucket;
+		int slot = heads[head];
+		heads[head] = NONE;
+		while (slot != NONE) {
+			int after = next[slot];
+			scheduled[level]--;
+			bucketOf[slot] = NONE;
+			// a pair due now goes in the level 0 bucket the wheel expires next
+			schedule(slot, currentTick);
+			slot = after;
+		}
+	}
+
+	/**
+	 * Reclaims every pair of a level 0 bucket, all of which have expired
+	 * @param bucket bucket on level 0
+	 */
+	private void expireBucket(int bucket) {
+		int slot = heads[bucket];
+		while (slot != NONE) {
+			expirations++;
+			// removing a slot moves the last pair into it, so take the head again
+			removeSlot(slot);
+			slot = heads[bucket];
+		}
+	}
+
+	/**
+	 * Puts a slot in the bucket of its deadline, relative to the current tick
+	 * @param slot slot not in any bucket
+	 * @param earliest earliest tick to schedule it for
+	 */
+	private void schedule(int slot, long earliest) {
+		long deadline = deadlines[slot];
+		if (deadline == NEVER) {
+			bucketOf[slot] = NONE;
+			return;
+		}
+		// the first tick at which the pair has expired
+		long due = Math.max(deadline / tick + (deadline % tick == 0 ? 0 : 1), earliest);
+		long delta = due - currentTick;
+		int level = 0;
+		while (level < LEVELS - 1 && delta >= 1L << (BITS * (level + 1))) {
+			level++;
+		}
+		if (delta >= 1L << (BITS * LEVELS)) {
+			due = currentTick + (1L << (BITS * LEVELS)) - 1; // rescheduled when it cascades
+		}
+		int head = level * BUCKETS + (int) ((due >>> (BITS * level)) & (BUCKETS - 1));
+		bucketOf[slot] = head;
+		prev[slot] = NONE;
+		next[slot] = heads[head];
+		if (heads[head] != NONE) {
+			prev[heads[head]] = slot;
+		}
+		heads[head] = slot;
+		scheduled[level]++;
+	}
+
+	/**
+	 * Takes a slot out of its bucket
+	 * @param slot slot, scheduled or not
+	 */
+	private void unschedule(int slot) {
+		int head = bucketOf[slot];
+		if (head == NONE) {
+			return;
+		}
+		if (prev[slot] != NONE) {
+			next[prev[slot]] = next[slot];
+		} else {
+			heads[head] = next[slot];
+		}
+		if (next[slot] != NONE) {
+			prev[next[slot]] = prev[slot];
+		}
+		scheduled[head / BUCKETS]--;
+		bucketOf[slot] = NONE;
+	}
+
+	/**
+	 * Removes the pair in a slot, moving the last pair into it
+	 * @param slot slot to empty
+	 */
+	private void removeSlot(int slot) {
+		index.remove(keys[slot]);
+		unschedule(slot);
+		int last = --size;
+		if (slot != last) {
+			// the last pair is about to fill the hole
+			index.move(keys[last], last, slot);
+			keys[slot] = keys[last];
+			values[slot] = values[last];
+			deadlines[slot] = deadlines[last];
+			int head = bucketOf[last];
+			bucketOf[slot] = head;
+			prev[slot] = prev[last];
+			next[slot] = next[last];
+			if (head != NONE) {
+				if (prev[slot] != NONE) {
+					next[prev[slot]] = slot;
+				} else {
+					heads[head] = slot;
+				}
+				if (next[slot] != NONE) {
+					prev[next[slot]] = slot;
+				}
+			}
+		}
+		// lets the removed pair be collected
+		keys[last] = null;
+		values[last] = null;
+	}
+
+	/**
+	 * Makes sure the arrays can hold at least minCapacity pairs, growing them
+	 * by half of their length at a time
+	 * @param minCapacity number of pairs to hold
+	 */
+	private void ensureCapacity(int minCapacity) {
+		if (minCapacity <= keys.length) {
+			return;
+		}
+		if (minCapacity > DS_My.MAX_CAPACITY) {
+			throw new OutOfMemoryError("structure too large");
+		}
+		int capacity = (int) Math.max(minCapacity,
+			Math.min(keys.length + (long) (keys.length >> 1), DS_My.MAX_CAPACITY));
+		keys = Arrays.copyOf(keys, capacity);
+		values = Arrays.copyOf(values, capacity);
+		deadlines = Arrays.copyOf(deadlines, capacity);
+		bucketOf = Arrays.copyOf(bucketOf, capacity);
+		next = Arrays.copyOf(next, capacity);
+		prev = Arrays.copyOf(prev, capacity);
+	}
+
+	/**
+	 * Checks a time to live and converts it to nanoseconds
+	 * @param ttl time to live
+	 * @param unit unit of ttl
+	 * @return nanoseconds, saturated at NEVER
+	 */
+	private static long checkTtl(long ttl, TimeUnit unit) {
+		if (ttl <= 0) {
+			throw new IllegalArgumentException("time to live must be greater than 0");
+		}
+		if (unit == null) {
+			throw new IllegalArgumentException("null time unit");
+		}
+		return unit.toNanos(ttl);
+	}
+
+}
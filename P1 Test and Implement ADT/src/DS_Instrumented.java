@@ -0,0 +1,551 @@
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class wraps any DataStructureADT and records what it does: for each of
+ * insert, remove, get and contains it keeps a call count, a latency histogram,
+ * and optionally the number of equals/compareTo calls, the pairs the
+ * structure moved around its arrays, and the bytes allocated.
+ *
+ * Latencies go into 64 buckets by the power of two of the nanoseconds, so a
+ * histogram takes constant memory however many calls are recorded. Timing a
+ * call reads the clock twice, which can cost several times a fast lookup, so
+ * the structure can be made to time only a random one in N calls. Every
+ * call is still counted; the histogram, average and percentiles then
+ * describe the timed sample. All counters can be updated from several
+ * threads at once. Call
+ * {@link #snapshot()} to read them and export the result as text or CSV.
+ *
+ * Counting comparisons wraps every key passed to the wrapped structure, so
+ * it must be turned on while the structure is still empty, and only for a
+ * structure that takes any Comparable as a key, that is one implementing the
+ * raw DataStructureADT such as DS_My. A structure with a key type of its
+ * own, such as DS_MyInt.asADT() or DS_OffHeap, would fail on the wrapper
+ * and is rejected when constructed. Moved pairs are
+ * known only for DS_My and its subclasses. Allocation tracking asks the JVM
+ * for the thread's allocated bytes twice per timed call, which costs more
+ * than the rest of the recording, so it is off unless asked for.
+ *
+ * @author Rohan Mendiratta
+ * @version 1.0
+ * @param <K> Key
+ * @param <V> Value
+ */
+public class DS_Instrumented<K extends Comparable<K>, V> implements DataStructureADT<K, V> {
+
+	/**
+	 * The operations that are recorded
+	 */
+	public enum Operation { INSERT, REMOVE, GET, CONTAINS }
+
+	private static final int BUCKETS = 64; // one per power of two of the nanoseconds
+	private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+	/**
+	 * Counters for one operation
+	 */
+	private static final class OpStats {
+		private final LongAdder calls = new LongAdder();
+		private final LongAdder nanos = new LongAdder();
+		private final LongAdder comparisons = new LongAdder();
+		private final LongAdder moved = new LongAdder();
+		private final LongAdder allocated = new LongAdder();
+		private final LongAdder[] latency = new LongAdder[BUCKETS]; // one per bucket, so threads do not contend on one array
+
+		private OpStats() {
+			for (int b = 0; b < BUCKETS; b++) {
+				latency[b] = new LongAdder();
+			}
+		}
+	}
+
+	/**
+	 * A key wrapper that counts the equals and compareTo calls made on behalf
+	 * of the call it was passed into. Only the wrapper passed by the current
+	 * call, the probe, counts; keys already stored do not.
+	 */
+	@SuppressWarnings("rawtypes")
+	private static final class CountingKey implements Comparable {
+		private final Comparable key;
+		private boolean probe = true; // true while the call it was passed into runs
+		private long comparisons; // calls counted while it was the probe
+
+		private CountingKey(Comparable key) {
+			this.key = key;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public int compareTo(Object o) {
+			CountingKey other = (CountingKey) o;
+			count(other);
+			return key.compareTo(other.key);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof CountingKey)) {
+				return false;
+			}
+			CountingKey other = (CountingKey) o;
+			count(other);
+			return key.equals(other.key);
+		}
+
+		@Override
+		public int hashCode() {
+			return key.hashCode();
+		}
+
+		private void count(CountingKey other) {
+			if (probe) {
+				comparisons++;
+			} else if (other.probe) {
+				other.comparisons++;
+			}
+		}
+	}
+
+	private final DataStructureADT<K, V> ds; // structure being recorded
+	private final DS_My list; // ds if it is a DS_My, whose moved pairs are recorded, else null
+	private final boolean countComparisons; // true if keys are wrapped in CountingKeys
+	private final boolean trackAllocations; // true if allocated bytes are read per timed call
+	private final int sampleEvery; // on average, one call in this many is timed
+	private final long allocationBias; // bytes the two reads of a call allocate themselves
+	private final OpStats[] stats = new OpStats[Operation.values().length];
+
+	/**
+	 * Records call counts, latencies and moved pairs of a structure
+	 * @param ds structure to record
+	 */
+	public DS_Instrumented(DataStructureADT<K, V> ds) {
+		this(ds, false, false);
+	}
+
+	/**
+	 * Records a structure, optionally also counting comparisons and bytes
+	 * allocated
+	 * @param ds structure to record, must be empty if comparisons are counted
+	 * @param countComparisons true to count equals/compareTo calls
+	 * @param trackAllocations true to record bytes allocated per call
+	 */
+	public DS_Instrumented(DataStructureADT<K, V> ds, boolean countComparisons,
+		boolean trackAllocations) {
+		this(ds, countComparisons, trackAllocations, 1);
+	}
+
+	/**
+	 * Records a structure, timing only a random one in sampleEvery calls
+	 * @param ds structure to record, must be empty if comparisons are counted
+	 * @param countComparisons true to count equals/compareTo calls
+	 * @param trackAllocations true to record bytes allocated per timed call
+	 * @param sampleEvery 1 to time every call, or N to time one call in N on average
+	 */
+	public DS_Instrumented(DataStructureADT<K, V> ds, boolean countComparisons,
+		boolean trackAllocations, int sampleEvery) {
+		if (ds == null) {
+			throw new IllegalArgumentException("null data structure");
+		}
+		if (sampleEvery < 1) {
+			throw new IllegalArgumentException("sampleEvery must be at least 1");
+		}
+		if (countComparisons && ds.size() != 0) {
+			throw new IllegalArgumentException("comparisons can only be counted from empty");
+		}
+		if (countComparisons && !takesAnyKey(ds.getClass())) {
+			throw new IllegalArgumentException("comparisons can only be counted for a structure "
+				+ "that takes any Comparable key, not " + ds.getClass().getName());
+		}
+		this.ds = ds;
+		this.list = ds instanceof DS_My ? (DS_My) ds : null;
+		this.countComparisons = countComparisons;
+		this.trackAllocations = trackAllocations && allocatedBytes() >= 0;
+		this.allocationBias = this.trackAllocations ? allocationBias() : 0;
+		this.sampleEvery = sampleEvery;
+		for (int i = 0; i < stats.length; i++) {
+			stats[i] = new OpStats();
+		}
+	}
+
+	@Override
+	public void insert(K key, V value) {
+		K k = wrap(key);
+		boolean timed = timed();
+		long moved = moved();
+		long allocated = timed ? allocated() : 0;
+		long start = timed ? System.nanoTime() : 0;
+		try {
+			ds.insert(k, value);
+		} finally {
+			record(Operation.INSERT, timed, start, moved, allocated, k);
+		}
+	}
+
+	@Override
+	public boolean remove(K key) {
+		K k = wrap(key);
+		boolean timed = timed();
+		long moved = moved();
+		long allocated = timed ? allocated() : 0;
+		long start = timed ? System.nanoTime() : 0;
+		try {
+			return ds.remove(k);
+		} finally {
+			record(Operation.REMOVE, timed, start, moved, allocated, k);
+		}
+	}
+
+	@Override
+	public V get(K key) {
+		K k = wrap(key);
+		boolean timed = timed();
+		long moved = moved();
+		long allocated = timed ? allocated() : 0;
+		long start = timed ? System.nanoTime() : 0;
+		try {
+			return ds.get(k);
+		} finally {
+			record(Operation.GET, timed, start, moved, allocated, k);
+		}
+	}
+
+	@Override
+	public boolean contains(K key) {
+		K k = wrap(key);
+		boolean timed = timed();
+		long moved = moved();
+		long allocated = timed ? allocated() : 0;
+		long start = timed ? System.nanoTime() : 0;
+		try {
+			return ds.contains(k);
+		} finally {
+			record(Operation.CONTAINS, timed, start, moved, allocated, k);
+		}
+	}
+
+	@Override
+	public int size() {
+		return ds.size();
+	}
+
+	/**
+	 * Passes a batch to the wrapped structure. Batches are not recorded.
+	 */
+	@Override
+	public void insertAll(K[] keys, V[] values) {
+		ds.insertAll(wrapAll(keys), values);
+	}
+
+	/**
+	 * Passes a batch to the wrapped structure. Batches are not recorded.
+	 */
+	@Override
+	public int removeAll(K[] keys) {
+		return ds.removeAll(wrapAll(keys));
+	}
+
+	/**
+	 * Copies the counters recorded so far
+	 * @return snapshot of every operation's counters
+	 */
+	public Snapshot snapshot() {
+		return new Snapshot(stats);
+	}
+
+	/**
+	 * Sets every counter back to zero
+	 */
+	public void reset() {
+		for (OpStats s : stats) {
+			s.calls.reset();
+			s.nanos.reset();
+			s.comparisons.reset();
+			s.moved.reset();
+			s.allocated.reset();
+			for (LongAdder bucket : s.latency) {
+				bucket.reset();
+			}
+		}
+	}
+
+	/**
+	 * An immutable copy of the counters of every operation
+	 */
+	public static final class Snapshot {
+		private final long[] calls = new long[Operation.values().length];
+		private final long[] timed = new long[calls.length];
+		private final long[] nanos = new long[calls.length];
+		private final long[] comparisons = new long[calls.length];
+		private final long[] moved = new long[calls.length];
+		private final long[] allocated = new long[calls.length];
+		private final long[][] latency = new long[calls.length][BUCKETS];
+
+		private Snapshot(OpStats[] stats) {
+			for (int op = 0; op < calls.length; op++) {
+				calls[op] = stats[op].calls.sum();
+				nanos[op] = stats[op].nanos.sum();
+				comparisons[op] = stats[op].comparisons.sum();
+				moved[op] = stats[op].moved.sum();
+				allocated[op] = stats[op].allocated.sum();
+				for (int b = 0; b < BUCKETS; b++) {
+					latency[op][b] = stats[op].latency[b].sum();
+					timed[op] += latency[op][b];
+				}
+			}
+		}
+
+		/**
+		 * Gets the number of calls recorded for an operation
+		 * @param op operation
+		 * @return calls
+		 */
+		public long calls(Operation op) {
+			return calls[op.ordinal()];
+		}
+
+		/**
+		 * Gets the number of calls of an operation that were timed, which the
+		 * histogram, averages and percentiles are taken over
+		 * @param op operation
+		 * @return timed calls, the same as calls unless sampling
+		 */
+		public long timed(Operation op) {
+			return timed[op.ordinal()];
+		}
+
+		/**
+		 * Gets the number of equals/compareTo calls recorded for an operation
+		 * @param op operation
+		 * @return comparisons, 0 unless comparisons are counted
+		 */
+		public long comparisons(Operation op) {
+			return comparisons[op.ordinal()];
+		}
+
+		/**
+		 * Gets the number of key,value pairs moved within the arrays
+		 * @param op operation
+		 * @return pairs moved, 0 unless the structure is a DS_My
+		 */
+		public long moved(Operation op) {
+			return moved[op.ordinal()];
+		}
+
+		/**
+		 * Gets the number of bytes allocated by the timed calls
+		 * @param op operation
+		 * @return bytes allocated, 0 unless allocations are tracked
+		 */
+		public long allocated(Operation op) {
+			return allocated[op.ordinal()];
+		}
+
+		/**
+		 * Estimates a latency percentile of the timed calls from the histogram
+		 * @param op operation
+		 * @param percentile between 0 and 100
+		 * @return upper bound in ns of the bucket holding the percentile
+		 */
+		public long percentileNanos(Operation op, double percentile) {
+			long[] buckets = latency[op.ordinal()];
+			long rank = (long) Math.ceil(timed[op.ordinal()] * percentile / 100.0);
+			long seen = 0;
+			for (int b = 0; b < BUCKETS; b++) {
+				seen += buckets[b];
+				if (seen >= rank && seen > 0) {
+					return b == 0 ? 0 : (1L << b) - 1; // bucket 63 gives Long.MAX_VALUE
+				}
+			}
+			return 0;
+		}
+
+		/**
+		 * Formats one line per operation with counts, averages and percentiles.
+		 * Times and bytes are per timed call, the rest per call.
+		 * @return readable table
+		 */
+		public String toText() {
+			StringBuilder out = new StringBuilder();
+			out.append(String.format("%-9s %10s %10s %10s %10s %10s %12s %12s %12s%n", "op",
+				"calls", "timed", "avg ns", "p50 ns", "p99 ns", "cmp/call", "moved/call",
+				"bytes/call"));
+			for (Operation op : Operation.values()) {
+				int i = op.ordinal();
+				long n = Math.max(calls[i], 1);
+				long t = Math.max(timed[i], 1);
+				out.append(String.format("%-9s %10d %10d %10d %10d %10d %12.1f %12.1f %12.1f%n",
+					op.name().toLowerCase(), calls[i], timed[i], nanos[i] / t,
+					percentileNanos(op, 50), percentileNanos(op, 99), (double) comparisons[i] / n,
+					(double) moved[i] / n, (double) allocated[i] / t));
+			}
+			return out.toString();
+		}
+
+		/**
+		 * Formats the totals and the latency histogram of every operation as
+		 * CSV, one row per operation. Nanos, allocated and the buckets cover
+		 * the timed calls only; bucket b counts timed calls that took between
+		 * 2^(b-1) and 2^b - 1 ns.
+		 * @return CSV with a header row
+		 */
+		public String toCsv() {
+			StringBuilder out = new StringBuilder("op,calls,timed,nanos,comparisons,moved,allocated");
+			for (int b = 0; b < BUCKETS; b++) {
+				out.append(",bucket").append(b);
+			}
+			out.append('\n');
+			for (Operation op : Operation.values()) {
+				int i = op.ordinal();
+				out.append(op.name().toLowerCase()).append(',').append(calls[i]).append(',')
+					.append(timed[i]).append(',').append(nanos[i]).append(',').append(comparisons[i]).append(',')
+					.append(moved[i]).append(',').append(allocated[i]);
+				for (int b = 0; b < BUCKETS; b++) {
+					out.append(',').append(latency[i][b]);
+				}
+				out.append('\n');
+			}
+			return out.toString();
+		}
+	}
+
+	/**
+	 * Records a finished call. Counters of options that are off are not
+	 * touched, so a call that is not timed costs one LongAdder add, and a
+	 * timed one two nanoTime reads and two more adds.
+	 * @param op operation that ran
+	 * @param timed true if the call was timed
+	 * @param start nanoTime when the call started, if timed
+	 * @param moved pairs moved by the list before the call
+	 * @param allocated bytes allocated by the thread before the call
+	 * @param key key passed to the structure, a CountingKey if comparisons are counted
+	 */
+	private void record(Operation op, boolean timed, long start, long moved, long allocated,
+		K key) {
+		OpStats s = stats[op.ordinal()];
+		if (timed) {
+			long nanos = System.nanoTime() - start;
+			s.nanos.add(nanos);
+			// bucket b holds 2^(b-1) to 2^b - 1 ns; bucket 0 holds 0 ns
+			s.latency[BUCKETS - Long.numberOfLeadingZeros(Math.max(nanos, 0))].increment();
+			if (trackAllocations) {
+				s.allocated.add(Math.max(allocatedBytes() - allocated - allocationBias, 0));
+			}
+		}
+		s.calls.increment();
+		if (list != null && list.moved != moved) {
+			s.moved.add(list.moved - moved);
+		}
+		if (key instanceof CountingKey) {
+			CountingKey probe = (CountingKey) key;
+			s.comparisons.add(probe.comparisons);
+			probe.probe = false; // an inserted key stays in the structure
+		}
+	}
+
+	/**
+	 * Decides whether to time the current call
+	 * @return true for every call, or for a random one in sampleEvery
+	 */
+	private boolean timed() {
+		return sampleEvery == 1 || ThreadLocalRandom.current().nextInt(sampleEvery) == 0;
+	}
+
+	/**
+	 * Reads the pairs the list has moved so far
+	 * @return moved pairs, or 0 if the structure is not a DS_My
+	 */
+	private long moved() {
+		return list != null ? list.moved : 0;
+	}
+
+	/**
+	 * Reads the bytes the thread has allocated so far, if they are tracked
+	 * @return allocated bytes, or 0 if allocations are not tracked
+	 */
+	private long allocated() {
+		return trackAllocations ? allocatedBytes() : 0;
+	}
+
+	/**
+	 * Wraps a key in a CountingKey if comparisons are counted
+	 * @param key key from the caller
+	 * @return key to pass to the structure
+	 */
+	@SuppressWarnings("unchecked")
+	private K wrap(K key) {
+		return countComparisons && key != null ? (K) new CountingKey(key) : key;
+	}
+
+	/**
+	 * Wraps every key of a batch if comparisons are counted
+	 * @param keys keys from the caller
+	 * @return keys to pass to the structure
+	 */
+	@SuppressWarnings("unchecked")
+	private K[] wrapAll(K[] keys) {
+		if (!countComparisons || keys == null) {
+			return keys;
+		}
+		K[] wrapped = (K[]) new Comparable[keys.length]; // the caller's array type may not hold a CountingKey
+		for (int i = 0; i < keys.length; i++) {
+			wrapped[i] = wrap(keys[i]);
+			if (wrapped[i] != null) {
+				((CountingKey) (Object) wrapped[i]).probe = false;
+			}
+		}
+		return wrapped;
+	}
+
+	/**
+	 * Checks that a structure accepts a CountingKey in place of its keys, that
+	 * is it implements DataStructureADT raw or with Comparable as its key type
+	 * @param type class of the structure
+	 * @return true if the keys can be wrapped, false if the key type is fixed
+	 */
+	private static boolean takesAnyKey(Class<?> type) {
+		for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+			for (Type i : c.getGenericInterfaces()) {
+				if (i == DataStructureADT.class) {
+					return true;
+				}
+				if (i instanceof ParameterizedType
+					&& ((ParameterizedType) i).getRawType() == DataStructureADT.class) {
+					Type key = ((ParameterizedType) i).getActualTypeArguments()[0];
+					return key == Comparable.class;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Gets the bytes allocated by the current thread so far
+	 * @return allocated bytes, or -1 if the VM does not track them
+	 */
+	private static long allocatedBytes() {
+		if (THREADS instanceof com.sun.management.ThreadMXBean) {
+			return ((com.sun.management.ThreadMXBean) THREADS)
+				.getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		return -1;
+	}
+
+	/**
+	 * Measures the bytes that reading the allocated bytes allocates, so it
+	 * can be taken out of what a call is charged
+	 * @return smallest difference seen between two back to back reads
+	 */
+	private static long allocationBias() {
+		long bias = Long.MAX_VALUE;
+		for (int i = 0; i < 16; i++) {
+			long before = allocatedBytes();
+			bias = Math.min(bias, allocatedBytes() - before);
+		}
+		return bias;
+	}
+
+}
@@ -1,42 +1,83 @@
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
 /**
  * This class is a List Data Structure implemented using arrays.
+ * Keys and values are kept in two parallel arrays, so a lookup scans a
+ * contiguous array of key references without loading a wrapper object per
+ * element. The arrays keep a capacity separate from the size of the list and
+ * grow geometrically, so appending an element is amortized O(1).
+ *
+ * Remove does not shift the list. It leaves a tombstone, a null key, in the
+ * removed slot, and lookups skip over it. Once tombstones make up more than a
+ * set fraction of the used slots, one compaction pass squeezes them all out,
+ * so a run of removes copies the list once instead of once per remove.
  * @author Rohan Mendiratta
  * @version 1.0
  */
 public class DS_My implements DataStructureADT {
 
-	/**
-	 * This is a helper class to hold data inserted into the List
-	 * @param <K> Key
-	 * @param <V> Value
-	 */
-    private class Element<K extends Comparable<K>, V>{
+	static final int DEFAULT_CAPACITY = 10; // capacity used by the no-arg constructor
+	static final int MAX_CAPACITY = Integer.MAX_VALUE - 8; // largest array the VM will allocate
+	static final double DEFAULT_COMPACTION_THRESHOLD = 0.25; // tombstone fraction that triggers compaction
+	private static final int SNAPSHOT_MAGIC = 0x44534D59; // "DSMY", first int of a snapshot file
+	private static final int SNAPSHOT_VERSION = 1;
+	private static final int NULL_VALUE = -1; // value length written for a null value
 
-        private K key;
-        private V value;
-
-        private Element(K key, V value){
-            this.key = key;
-            this.value = value;
-        }
-
-        private K getKey(){
-            return this.key;
-        }
-
-        private V getValue() {
-            return this.value;
-        }
+	Comparable[] keys; // keys of the list, null marks a tombstone
+	Object[] values; // values[i] belongs to keys[i]
+	int size; // slots in use at the front of the arrays, tombstones included
+	int tombstones; // removed slots not yet compacted
+	long moved; // pairs copied by shifts, growth and compaction, for benchmarks
+	private final double compactionThreshold; // tombstone fraction that triggers compaction
 
+    public DS_My() {
+        this(DEFAULT_CAPACITY);
     }
 
-	Element[] store; // data store
-	int size; // size of list
+	/**
+	 * Creates an empty list that can hold initialCapacity elements before
+	 * it has to grow.
+	 * @param initialCapacity number of elements to allocate room for
+	 */
+	public DS_My(int initialCapacity) {
+		this(initialCapacity, DEFAULT_COMPACTION_THRESHOLD);
+	}
 
-    public DS_My() {
-        store = new Element[0];
-        size = 0;
-    }
+	/**
+	 * Creates an empty list that can hold initialCapacity elements before
+	 * it has to grow, and compacts once tombstones make up more than
+	 * compactionThreshold of the used slots. A threshold of 0 compacts on
+	 * every remove, like shifting the list down.
+	 * @param initialCapacity number of elements to allocate room for
+	 * @param compactionThreshold tombstone fraction, from 0 up to but not including 1
+	 */
+	public DS_My(int initialCapacity, double compactionThreshold) {
+		if (initialCapacity < 0) {
+			throw new IllegalArgumentException("negative capacity");
+		}
+		if (!(compactionThreshold >= 0 && compactionThreshold < 1)) {
+			throw new IllegalArgumentException("compaction threshold must be in [0, 1)");
+		}
+		keys = new Comparable[initialCapacity];
+		values = new Object[initialCapacity];
+		size = 0;
+		this.compactionThreshold = compactionThreshold;
+	}
 
 	/**
 	 * Adds a (key,value) pair to the List
@@ -50,22 +91,15 @@ public class DS_My implements DataStructureADT {
     		throw new IllegalArgumentException("null key");
 		}
 		// checks for duplicate keys
-        if (contains(k)){
+        if (indexOf(k) >= 0){
             throw new RuntimeException("duplicate key");
         }
-        // copies old store into larger array
-        Element[] newStore = new Element[size + 1];
-        for(int i = 0; i < store.length; i++) {
-            newStore[i] = store[i];
-        }
-        size++;
         // adds the new element to the end of the list
-        newStore[size - 1] = new Element(k, v);
-        store = newStore;
+        insertAt(size, k, v);
     }
 
 	/**
-	 * Removes an element from the list.
+	 * Removes an element from the list by leaving a tombstone in its slot.
 	 * @param k key
 	 * @return true if element is removed, else false
 	 */
@@ -75,35 +109,21 @@ public class DS_My implements DataStructureADT {
         if (k == null) {
             throw new IllegalArgumentException("null key");
         }
-        boolean match = false;
-        int index = -1;
-        // checks the list for a matching element
-        for(int i = 0; i < store.length; i++) {
-            if(store[i].getKey().equals(k)) {
-                match = true;
-                index = i;
-                size --;
-            }
-        }
-
-        if(!match) {
+        int index = indexOf(k);
+        if(index < 0) {
             return false;
         }
-
-        Element[] newStore = new Element[size];
-        int newStoreIdx = -1;
-        // copies store into new store and skips element to be removed
-        for(int i = 0; i < store.length; i++) {
-            newStoreIdx++;
-            if(i == index) {
-                newStoreIdx--;
-                continue;
-            }
-            else {
-                newStore[newStoreIdx] = store[i];
+        // lets the removed pair be collected
+        keys[index] = null;
+        values[index] = null;
+        if (index == size - 1) {
+            size--; // the last slot can simply be dropped
+        } else {
+            tombstones++;
+            if (tombstones > compactionThreshold * size) {
+                compact();
             }
         }
-        store = newStore;
         return true;
     }
 
@@ -114,30 +134,27 @@ public class DS_My implements DataStructureADT {
 	 */
 	@Override
     public boolean contains(Comparable k) {
-        for (int i = 0; i < store.length; i++) {
-            if(store[i].getKey().equals(k)){
-                return true;
-            }
-        }
-        return false;
+		if (k == null) {
+			return false;
+		}
+		return indexOf(k) >= 0;
     }
 
 	/**
-	 * Gets an element based on a specific key
+	 * Gets the value stored with a specific key
 	 * @param k key
-	 * @return element found
+	 * @return value found, or null if the key is not in the list
 	 */
 	@Override
     public Object get(Comparable k) {
     	if(k == null) {
     		throw new IllegalArgumentException("null key");
 		}
-		for (int i =0; i < store.length; i++) {
-			if (store[i].getKey().equals(k)){
-				return store[i];
-			}
+		int index = indexOf(k);
+		if (index < 0) {
+			return null;
 		}
-		return null;
+		return values[index];
     }
 
 	/**
@@ -146,7 +163,487 @@ public class DS_My implements DataStructureADT {
 	 */
 	@Override
     public int size() {
-        return size;
+        return size - tombstones;
     }
 
+	/**
+	 * Adds every (key,value) pair of a batch to the end of the List.
+	 * The batch is sorted once, so all duplicate checks take a single pass
+	 * over the list, and the arrays grow at most once.
+	 * @param ks keys of the batch
+	 * @param vs values of the batch, vs[i] belongs to ks[i]
+	 */
+	@Override
+	public void insertAll(Comparable[] ks, Object[] vs) {
+		if (ks.length != vs.length) {
+			throw new IllegalArgumentException("keys and values differ in length");
+		}
+		Comparable[] batch = ks.clone();
+		sortBatch(batch, null);
+		// checks the list against the batch before anything is changed
+		for (int i = 0; i < size; i++) {
+			if (keys[i] != null && inBatch(batch, keys[i])) {
+				throw new RuntimeException("duplicate key");
+			}
+		}
+		ensureCapacity(size + ks.length);
+		System.arraycopy(ks, 0, keys, size, ks.length);
+		System.arraycopy(vs, 0, values, size, vs.length);
+		size += ks.length;
+	}
+
+	/**
+	 * Removes every key of a batch from the List in a single compaction
+	 * pass that keeps the order of the remaining elements. The pass also
+	 * squeezes out any tombstones.
+	 * @param ks keys to remove
+	 * @return number of keys removed
+	 */
+	@Override
+	public int removeAll(Comparable[] ks) {
+		Comparable[] batch = ks.clone();
+		sortBatch(batch, null);
+		int live = size();
+		int kept = 0;
+		for (int i = 0; i < size; i++) {
+			if (keys[i] != null && !inBatch(batch, keys[i])) {
+				if (kept != i) {
+					keys[kept] = keys[i];
+					values[kept] = values[i];
+					moved++;
+				}
+				kept++;
+			}
+		}
+		// lets the removed pairs be collected
+		Arrays.fill(keys, kept, size, null);
+		Arrays.fill(values, kept, size, null);
+		size = kept;
+		tombstones = 0;
+		return live - kept;
+	}
+
+	/**
+	 * Makes sure the list can hold at least minCapacity elements without
+	 * growing again. The arrays grow by half of their length at a time, or to
+	 * minCapacity if that is larger.
+	 * @param minCapacity number of elements the list should be able to hold
+	 */
+	public void ensureCapacity(int minCapacity) {
+		if (minCapacity <= keys.length) {
+			return;
+		}
+		if (minCapacity > MAX_CAPACITY) {
+			throw new OutOfMemoryError("list too large");
+		}
+		long grown = keys.length + (long) (keys.length >> 1);
+		resize((int) Math.max(minCapacity, Math.min(grown, MAX_CAPACITY)));
+	}
+
+	/**
+	 * Compacts away any tombstones and shrinks the arrays so their capacity
+	 * matches the size of the list.
+	 */
+	public void trimToSize() {
+		compact();
+		if (size < keys.length) {
+			resize(size);
+		}
+	}
+
+	/**
+	 * Gets the number of elements the list can hold before it has to grow
+	 * @return capacity
+	 */
+	public int capacity() {
+		return keys.length;
+	}
+
+	/**
+	 * Writes every pair of the list to a binary snapshot file, in list order.
+	 * The file holds a header of three ints (magic, version, number of
+	 * pairs) followed by each pair as
+	 *
+	 *     int key length, int value length, key bytes, value bytes
+	 *
+	 * with a value length of -1 for a null value. The snapshot is written
+	 * to a temporary file first and then moved over file, so a crash never
+	 * leaves a partial snapshot behind.
+	 * @param file file to write
+	 * @param keyCodec converts keys to bytes
+	 * @param valueCodec converts values to bytes
+	 * @throws IOException if the file cannot be written
+	 */
+	@SuppressWarnings("unchecked")
+	public void writeSnapshot(Path file, Codec keyCodec, Codec valueCodec) throws IOException {
+		Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+		try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+			StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+			buffer.putInt(SNAPSHOT_MAGIC).putInt(SNAPSHOT_VERSION).putInt(size());
+			for (int i = 0; i < size; i++) {
+				if (keys[i] == null) {
+					continue; // tombstone
+				}
+				int keyLength = keyCodec.size(keys[i]);
+				int valueLength = values[i] == null ? NULL_VALUE : valueCodec.size(values[i]);
+				int length = 2 * Integer.BYTES + keyLength + Math.max(valueLength, 0);
+				if (length > buffer.remaining()) {
+					drain(buffer, out);
+					if (length > buffer.capacity()) {
+						buffer = ByteBuffer.allocateDirect(length);
+					}
+				}
+				buffer.putInt(keyLength).putInt(valueLength);
+				keyCodec.write(keys[i], buffer);
+				if (values[i] != null) {
+					valueCodec.write(values[i], buffer);
+				}
+			}
+			drain(buffer, out);
+			out.force(false);
+		}
+		Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Creates a list from a snapshot written by writeSnapshot. The file is
+	 * memory-mapped and read in one pass straight into arrays sized for the
+	 * snapshot; keys are not checked for duplicates, since the snapshot was
+	 * written from a list that had none.
+	 * @param file snapshot file, at most 2GB
+	 * @param keyCodec converts bytes to keys, the codec the snapshot was written with
+	 * @param valueCodec converts bytes to values, the codec the snapshot was written with
+	 * @return list holding the pairs of the snapshot, in the same order
+	 * @throws IOException if the file cannot be read or is not a complete snapshot
+	 */
+	public static DS_My readSnapshot(Path file, Codec keyCodec, Codec valueCodec)
+		throws IOException {
+		try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+			if (in.size() > Integer.MAX_VALUE) {
+				throw new IOException("snapshot larger than 2GB");
+			}
+			MappedByteBuffer buffer = in.map(FileChannel.MapMode.READ_ONLY, 0, in.size());
+			if (buffer.remaining() < 3 * Integer.BYTES || buffer.getInt() != SNAPSHOT_MAGIC
+				|| buffer.getInt() != SNAPSHOT_VERSION) {
+				throw new IOException(file + " is not a DS_My snapshot");
+			}
+			int count = buffer.getInt();
+			// every pair takes at least its two lengths
+			if (count < 0 || count > buffer.remaining() / (2 * Integer.BYTES)) {
+				throw new IOException("bad pair count " + count);
+			}
+			DS_My list = new DS_My(count);
+			for (int i = 0; i < count; i++) {
+				int keyLength = buffer.getInt();
+				int valueLength = buffer.getInt();
+				// checks the lengths before a codec reads past the pair
+				if (keyLength < 0 || valueLength < NULL_VALUE) {
+					throw new IOException("bad lengths " + keyLength + ", " + valueLength
+						+ " of pair " + i);
+				}
+				if ((long) keyLength + Math.max(valueLength, 0) > buffer.remaining()) {
+					throw new IOException(file + " ends in the middle of pair " + i);
+				}
+				list.keys[i] = (Comparable) keyCodec.read(buffer, keyLength);
+				list.values[i] = valueLength == NULL_VALUE ? null
+					: valueCodec.read(buffer, valueLength);
+				if (list.keys[i] == null) {
+					throw new IOException("null key in snapshot");
+				}
+			}
+			list.size = count;
+			return list;
+		} catch (BufferUnderflowException e) {
+			throw new IOException(file + " ends in the middle of a pair", e);
+		}
+	}
+
+	/**
+	 * Writes out what a snapshot buffer holds and empties it
+	 * @param buffer buffer being filled
+	 * @param out file to write to
+	 * @throws IOException if the file cannot be written
+	 */
+	private static void drain(ByteBuffer buffer, FileChannel out) throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			out.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	/**
+	 * Streams the keys of the list in list order, skipping tombstones.
+	 * Call parallel() on the stream to split the work across cores. The list
+	 * must not be changed while the stream runs.
+	 * @return stream of keys
+	 */
+	public Stream<Comparable> keyStream() {
+		return StreamSupport.stream(spliterator((k, v) -> k, Spliterator.NONNULL), false);
+	}
+
+	/**
+	 * Streams the values of the list in list order, skipping tombstones.
+	 * Call parallel() on the stream to split the work across cores. The list
+	 * must not be changed while the stream runs.
+	 * @return stream of values, which may hold nulls
+	 */
+	public Stream<Object> valueStream() {
+		return StreamSupport.stream(spliterator((k, v) -> v, 0), false);
+	}
+
+	/**
+	 * Streams the (key,value) pairs of the list in list order, skipping
+	 * tombstones. Call parallel() on the stream to split the work across
+	 * cores. The list must not be changed while the stream runs.
+	 * @return stream of immutable entries
+	 */
+	public Stream<Map.Entry<Comparable, Object>> entryStream() {
+		return StreamSupport.stream(spliterator(AbstractMap.SimpleImmutableEntry::new,
+			Spliterator.NONNULL), false);
+	}
+
+	/**
+	 * Creates a spliterator over the used slots of the arrays, which is
+	 * SIZED if the list holds no tombstones
+	 * @param element makes the element reported for a key and its value
+	 * @param characteristics characteristics of the elements besides ORDERED and SIZED
+	 * @return spliterator
+	 */
+	<T> Spliterator<T> spliterator(BiFunction<Comparable, Object, T> element,
+		int characteristics) {
+		return new PairSpliterator<>(keys, values, element, 0, size, tombstones == 0,
+			characteristics);
+	}
+
+	/**
+	 * Copies the first size pairs into arrays of a new length
+	 * @param capacity new length of the arrays, at least size
+	 */
+	private void resize(int capacity) {
+		Comparable[] newKeys = new Comparable[capacity];
+		Object[] newValues = new Object[capacity];
+		System.arraycopy(keys, 0, newKeys, 0, size);
+		System.arraycopy(values, 0, newValues, 0, size);
+		keys = newKeys;
+		values = newValues;
+		moved += size;
+	}
+
+	/**
+	 * Squeezes every tombstone out of the list in one pass that keeps the
+	 * order of the remaining elements.
+	 */
+	void compact() {
+		if (tombstones == 0) {
+			return;
+		}
+		int kept = 0;
+		for (int i = 0; i < size; i++) {
+			if (keys[i] != null) {
+				if (kept != i) {
+					keys[kept] = keys[i];
+					values[kept] = values[i];
+					moved++;
+				}
+				kept++;
+			}
+		}
+		Arrays.fill(keys, kept, size, null);
+		Arrays.fill(values, kept, size, null);
+		size = kept;
+		tombstones = 0;
+	}
+
+	/**
+	 * Gets the key stored at a specific index
+	 * @param index position in the list
+	 * @return key at that index, or null for a tombstone
+	 */
+	Comparable keyAt(int index) {
+		return keys[index];
+	}
+
+	/**
+	 * Gets the value stored at a specific index
+	 * @param index position in the list
+	 * @return value at that index
+	 */
+	Object valueAt(int index) {
+		return values[index];
+	}
+
+	/**
+	 * Places a new element at a specific index, shifting the elements after
+	 * it up by one. The arrays grow only when they are full.
+	 * @param index position for the new element, between 0 and size
+	 * @param k key
+	 * @param v value
+	 */
+	void insertAt(int index, Comparable k, Object v) {
+		ensureCapacity(size + 1);
+		if (index < size) {
+			System.arraycopy(keys, index, keys, index + 1, size - index);
+			System.arraycopy(values, index, values, index + 1, size - index);
+			moved += size - index;
+		}
+		keys[index] = k;
+		values[index] = v;
+		size++;
+	}
+
+	/**
+	 * Removes the element at a specific index, shifting the elements after it
+	 * down by one in place so the order of the list is kept. Subclasses that
+	 * must not have tombstones remove through this.
+	 * @param index position of the element to remove
+	 */
+	void removeAt(int index) {
+		int moved = size - index - 1;
+		if (moved > 0) {
+			System.arraycopy(keys, index + 1, keys, index, moved);
+			System.arraycopy(values, index + 1, values, index, moved);
+			this.moved += moved;
+		}
+		size--;
+		// lets the removed pair be collected
+		keys[size] = null;
+		values[size] = null;
+	}
+
+	/**
+	 * Removes the element at a specific index by moving the last element into
+	 * its place. This is O(1) but does not keep the order of the list.
+	 * @param index position of the element to remove
+	 */
+	void swapRemove(int index) {
+		size--;
+		keys[index] = keys[size];
+		values[index] = values[size];
+		moved++;
+		// lets the removed pair be collected
+		keys[size] = null;
+		values[size] = null;
+	}
+
+	/**
+	 * Sorts a batch of keys in place, moving the matching values with them,
+	 * and checks it for null and repeated keys.
+	 * @param ks keys of the batch
+	 * @param vs values of the batch, or null to sort the keys alone
+	 */
+	@SuppressWarnings("unchecked")
+	static void sortBatch(Comparable[] ks, Object[] vs) {
+		for (Comparable k : ks) {
+			if (k == null) {
+				throw new IllegalArgumentException("null key");
+			}
+		}
+		if (vs == null) {
+			Arrays.sort(ks);
+		} else {
+			mergeSort(ks, vs, ks.clone(), vs.clone(), 0, ks.length);
+		}
+		// keys that compare equal sit in one run; only equal keys are repeats
+		int run = 0; // first key of the run holding ks[i]
+		for (int i = 1; i < ks.length; i++) {
+			if (ks[run].compareTo(ks[i]) != 0) {
+				run = i;
+				continue;
+			}
+			for (int j = run; j < i; j++) {
+				if (ks[j].equals(ks[i])) {
+					throw new RuntimeException("duplicate key");
+				}
+			}
+		}
+	}
+
+	/**
+	 * Checks whether a sorted batch holds a key of the list, matching keys
+	 * the same way indexOf does
+	 * @param batch keys sorted by sortBatch
+	 * @param k key of the list
+	 * @return true if the batch holds k
+	 */
+	boolean inBatch(Comparable[] batch, Comparable k) {
+		return batchHolds(batch, k);
+	}
+
+	/**
+	 * Checks whether a sorted batch holds a key, matching with equals. The
+	 * binary search finds the run of keys that compare equal to k, and the
+	 * run is scanned for one that is also equal.
+	 * @param batch keys sorted by sortBatch
+	 * @param k key to look for
+	 * @return true if some key of the batch equals k
+	 */
+	@SuppressWarnings("unchecked")
+	static boolean batchHolds(Comparable[] batch, Comparable k) {
+		int hit = Arrays.binarySearch(batch, k);
+		if (hit < 0) {
+			return false;
+		}
+		for (int i = hit; i >= 0 && batch[i].compareTo(k) == 0; i--) {
+			if (k.equals(batch[i])) {
+				return true;
+			}
+		}
+		for (int i = hit + 1; i < batch.length && batch[i].compareTo(k) == 0; i++) {
+			if (k.equals(batch[i])) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Sorts ks[from, to) and the matching values, using the scratch arrays
+	 * which start as copies of ks and vs.
+	 * @param ks keys to sort
+	 * @param vs values that move with their keys
+	 * @param ksCopy scratch copy of ks
+	 * @param vsCopy scratch copy of vs
+	 * @param from first index to sort
+	 * @param to one past the last index to sort
+	 */
+	@SuppressWarnings("unchecked")
+	private static void mergeSort(Comparable[] ks, Object[] vs, Comparable[] ksCopy,
+		Object[] vsCopy, int from, int to) {
+		if (to - from < 2) {
+			return;
+		}
+		int mid = (from + to) >>> 1;
+		// sorts each half of the copy, using ks and vs as the scratch space
+		mergeSort(ksCopy, vsCopy, ks, vs, from, mid);
+		mergeSort(ksCopy, vsCopy, ks, vs, mid, to);
+		// merges the sorted halves of the copy back into ks and vs
+		int left = from;
+		int right = mid;
+		for (int i = from; i < to; i++) {
+			if (right >= to || (left < mid && ksCopy[left].compareTo(ksCopy[right]) <= 0)) {
+				ks[i] = ksCopy[left];
+				vs[i] = vsCopy[left++];
+			} else {
+				ks[i] = ksCopy[right];
+				vs[i] = vsCopy[right++];
+			}
+		}
+	}
+
+	/**
+	 * Finds the index of the element with a specific key
+	 * @param k key, must not be null
+	 * @return index of the element, or -1 if no match is found
+	 */
+	int indexOf(Comparable k) {
+		for (int i = 0; i < size; i++) {
+			if (k.equals(keys[i])) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
 }
@@ -0,0 +1,199 @@
+import java.util.Arrays;
+
+/**
+ * This class is a List Data Structure that can be shared between threads.
+ * The pairs are kept in an immutable snapshot that is published through a
+ * volatile field. Readers take the current snapshot and scan it without any
+ * locking. Writers are serialized on this object and copy the snapshot, so a
+ * reader never sees a half-finished write.
+ *
+ * Every write copies the list, so this suits lists that are read far more
+ * often than they are written. The batch operations copy once per batch.
+ *
+ * @author Rohan Mendiratta
+ * @version 1.0
+ */
+public class DS_MyConcurrent implements DataStructureADT {
+
+	/**
+	 * An immutable copy of the list. The arrays are never written after the
+	 * snapshot is published.
+	 */
+	private static final class Snapshot {
+		private final Comparable[] keys;
+		private final Object[] values;
+
+		private Snapshot(Comparable[] keys, Object[] values) {
+			this.keys = keys;
+			this.values = values;
+		}
+
+		/**
+		 * Finds the index of a key in this snapshot
+		 * @param k key, must not be null
+		 * @return index of the key, or -1 if no match is found
+		 */
+		private int indexOf(Comparable k) {
+			for (int i = 0; i < keys.length; i++) {
+				if (k.equals(keys[i])) {
+					return i;
+				}
+			}
+			return -1;
+		}
+	}
+
+	private static final Snapshot EMPTY = new Snapshot(new Comparable[0], new Object[0]);
+
+	private volatile Snapshot snapshot = EMPTY; // current contents of the list
+
+	/**
+	 * Adds a (key,value) pair to the List
+	 * @param k key
+	 * @param v value
+	 */
+	@Override
+	public synchronized void insert(Comparable k, Object v) {
+		// checks for null key
+		if (k == null) {
+			throw new IllegalArgumentException("null key");
+		}
+		Snapshot s = snapshot;
+		// checks for duplicate keys
+		if (s.indexOf(k) >= 0) {
+			throw new RuntimeException("duplicate key");
+		}
+		int size = s.keys.length;
+		Comparable[] newKeys = new Comparable[size + 1];
+		Object[] newValues = new Object[size + 1];
+		System.arraycopy(s.keys, 0, newKeys, 0, size);
+		System.arraycopy(s.values, 0, newValues, 0, size);
+		newKeys[size] = k;
+		newValues[size] = v;
+		snapshot = new Snapshot(newKeys, newValues);
+	}
+
+	/**
+	 * Removes an element from the list.
+	 * @param k key
+	 * @return true if element is removed, else false
+	 */
+	@Override
+	public synchronized boolean remove(Comparable k) {
+		// checks for a null key
+		if (k == null) {
+			throw new IllegalArgumentException("null key");
+		}
+		Snapshot s = snapshot;
+		int index = s.indexOf(k);
+		if (index < 0) {
+			return false;
+		}
+		int size = s.keys.length - 1;
+		Comparable[] newKeys = new Comparable[size];
+		Object[] newValues = new Object[size];
+		// copies everything except the removed pair
+		System.arraycopy(s.keys, 0, newKeys, 0, index);
+		System.arraycopy(s.values, 0, newValues, 0, index);
+		System.arraycopy(s.keys, index + 1, newKeys, index, size - index);
+		System.arraycopy(s.values, index + 1, newValues, index, size - index);
+		snapshot = new Snapshot(newKeys, newValues);
+		return true;
+	}
+
+	/**
+	 * Checks if the list contains a specified key. Does not lock.
+	 * @param k key
+	 * @return true if match found, else false
+	 */
+	@Override
+	public boolean contains(Comparable k) {
+		if (k == null) {
+			return false;
+		}
+		return snapshot.indexOf(k) >= 0;
+	}
+
+	/**
+	 * Gets the value stored with a specific key. Does not lock.
+	 * @param k key
+	 * @return value found, or null if the key is not in the list
+	 */
+	@Override
+	public Object get(Comparable k) {
+		if (k == null) {
+			throw new IllegalArgumentException("null key");
+		}
+		Snapshot s = snapshot;
+		int index = s.indexOf(k);
+		return index < 0 ? null : s.values[index];
+	}
+
+	/**
+	 * Gets the size of the list. Does not lock.
+	 * @return size
+	 */
+	@Override
+	public int size() {
+		return snapshot.keys.length;
+	}
+
+	/**
+	 * Adds every (key,value) pair of a batch to the end of the List with a
+	 * single copy of the list. Readers see either none or all of the batch.
+	 * @param ks keys of the batch
+	 * @param vs values of the batch, vs[i] belongs to ks[i]
+	 */
+	@Override
+	public synchronized void insertAll(Comparable[] ks, Object[] vs) {
+		if (ks.length != vs.length) {
+			throw new IllegalArgumentException("keys and values differ in length");
+		}
+		Comparable[] batch = ks.clone();
+		DS_My.sortBatch(batch, null);
+		Snapshot s = snapshot;
+		int size = s.keys.length;
+		for (int i = 0; i < size; i++) {
+			if (DS_My.batchHolds(batch, s.keys[i])) {
+				throw new RuntimeException("duplicate key");
+			}
+		}
+		Comparable[] newKeys = new Comparable[size + ks.length];
+		Object[] newValues = new Object[size + ks.length];
+		System.arraycopy(s.keys, 0, newKeys, 0, size);
+		System.arraycopy(s.values, 0, newValues, 0, size);
+		System.arraycopy(ks, 0, newKeys, size, ks.length);
+		System.arraycopy(vs, 0, newValues, size, vs.length);
+		snapshot = new Snapshot(newKeys, newValues);
+	}
+
+	/**
+	 * Removes every key of a batch from the List with a single copy of the
+	 * list. Readers see either none or all of the batch removed.
+	 * @param ks keys to remove
+	 * @return number of keys removed
+	 */
+	@Override
+	public synchronized int removeAll(Comparable[] ks) {
+		Comparable[] batch = ks.clone();
+		DS_My.sortBatch(batch, null);
+		Snapshot s = snapshot;
+		Comparable[] newKeys = new Comparable[s.keys.length];
+		Object[] newValues = new Object[s.keys.length];
+		int kept = 0;
+		for (int i = 0; i < s.keys.length; i++) {
+			if (!DS_My.batchHolds(batch, s.keys[i])) {
+				newKeys[kept] = s.keys[i];
+				newValues[kept] = s.values[i];
+				kept++;
+			}
+		}
+		int removed = s.keys.length - kept;
+		if (removed > 0) {
+			snapshot = new Snapshot(Arrays.copyOf(newKeys, kept),
+				Arrays.copyOf(newValues, kept));
+		}
+		return removed;
+	}
+
+}
@@ -0,0 +1,136 @@
+/**
+ * This class is a List Data Structure that keeps a hash index next to its
+ * array of elements. The index maps each key to its position in the array,
+ * so the duplicate check in insert, contains, get and remove are all
+ * expected O(1). Removing an element moves the last element into its place,
+ * so the list does not keep insertion order after a remove.
+ * @author Rohan Mendiratta
+ * @version 1.0
+ */
+public class DS_MyHashed extends DS_My {
+
+	private final SlotIndex index; // key -> position in keys/values
+
+	public DS_MyHashed() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates an empty list with room for initialCapacity elements in both
+	 * the arrays and the index before either has to grow.
+	 * @param initialCapacity number of elements to allocate room for
+	 */
+	public DS_MyHashed(int initialCapacity) {
+		super(initialCapacity);
+		index = new SlotIndex(initialCapacity, this::keyAt);
+	}
+
+	/**
+	 * Adds a (key,value) pair to the end of the List
+	 * @param k key
+	 * @param v value
+	 */
+	@Override
+	public void insert(Comparable k, Object v) {
+		// checks for null key
+		if (k == null) {
+			throw new IllegalArgumentException("null key");
+		}
+		// checks for duplicate keys
+		if (index.find(k) >= 0) {
+			throw new RuntimeException("duplicate key");
+		}
+		insertAt(size, k, v);
+		index.add(k, size - 1);
+	}
+
+	/**
+	 * Removes an element from the list.
+	 * @param k key
+	 * @return true if element is removed, else false
+	 */
+	@Override
+	public boolean remove(Comparable k) {
+		// checks for a null key
+		if (k == null) {
+			throw new IllegalArgumentException("null key");
+		}
+		int slot = index.remove(k);
+		if (slot < 0) {
+			return false;
+		}
+		int last = size - 1;
+		if (slot != last) {
+			// the last element is about to fill the hole
+			index.move(keyAt(last), last, slot);
+		}
+		swapRemove(slot);
+		return true;
+	}
+
+	/**
+	 * Adds every (key,value) pair of a batch to the end of the List. Each key
+	 * is checked against the hash index as it is appended; if a duplicate is
+	 * found the appended pairs are taken back out before the exception is
+	 * thrown.
+	 * @param ks keys of the batch
+	 * @param vs values of the batch, vs[i] belongs to ks[i]
+	 */
+	@Override
+	public void insertAll(Comparable[] ks, Object[] vs) {
+		if (ks.length != vs.length) {
+			throw new IllegalArgumentException("keys and values differ in length");
+		}
+		for (Comparable k : ks) {
+			if (k == null) {
+				throw new IllegalArgumentException("null key");
+			}
+		}
+		int start = size;
+		ensureCapacity(size + ks.length);
+		for (int i = 0; i < ks.length; i++) {
+			if (index.find(ks[i]) >= 0) {
+				// undoes the part of the batch already added
+				for (int j = size - 1; j >= start; j--) {
+					index.remove(keys[j]);
+					removeAt(j);
+				}
+				throw new RuntimeException("duplicate key");
+			}
+			keys[size] = ks[i];
+			values[size] = vs[i];
+			index.add(ks[i], size);
+			size++;
+		}
+	}
+
+	/**
+	 * Removes every key of a batch from the List. Each remove is O(1), so
+	 * the batch costs one sort of the batch for the duplicate check plus
+	 * O(1) per key.
+	 * @param ks keys to remove
+	 * @return number of keys removed
+	 */
+	@Override
+	public int removeAll(Comparable[] ks) {
+		sortBatch(ks.clone(), null);
+		int removed = 0;
+		for (Comparable k : ks) {
+			if (remove(k)) {
+				removed++;
+			}
+		}
+		return removed;
+	}
+
+	/**
+	 * Finds the index of the element with a specific key using the hash index
+	 * @param k key, must not be null
+	 * @return index of the element, or -1 if no match is found
+	 */
+	@Override
+	int indexOf(Comparable k) {
+		return index.find(k);
+	}
+
+}
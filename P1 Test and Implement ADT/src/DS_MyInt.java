@@ -0,0 +1,218 @@
+/**
+ * This class is a Data Structure specialized for int keys. Keys are kept
+ * unboxed in an open-addressing hash table, so insert, remove, get and
+ * contains are expected O(1) and do no allocation once the table is large
+ * enough.
+ *
+ * {@link #asADT()} wraps the table as a DataStructureADT with Integer keys for
+ * callers that need the common interface.
+ *
+ * @author Rohan Mendiratta
+ * @version 1.0
+ * @param <V> Value
+ */
+public class DS_MyInt<V> {
+
+	private static final int MIN_TABLE = 16; // smallest table length, power of two
+
+	private int[] keys; // key in each bucket
+	private Object[] values; // value in each bucket
+	private boolean[] used; // true if a bucket holds a key
+	private int mask; // keys.length - 1
+	private int size; // number of keys
+
+	public DS_MyInt() {
+		this(0);
+	}
+
+	/**
+	 * Creates an empty table that can hold expected keys before it has to grow
+	 * @param expected number of keys to allocate room for
+	 */
+	public DS_MyInt(int expected) {
+		if (expected < 0) {
+			throw new IllegalArgumentException("negative capacity");
+		}
+		int length = MIN_TABLE;
+		while (length < (1 << 30) && (length >> 1) < expected) {
+			length <<= 1;
+		}
+		allocate(length);
+	}
+
+	/**
+	 * Adds a (key,value) pair to the table
+	 * @param k key
+	 * @param v value
+	 */
+	public void insert(int k, V v) {
+		int i = bucket(k);
+		while (used[i]) {
+			if (keys[i] == k) {
+				throw new RuntimeException("duplicate key");
+			}
+			i = (i + 1) & mask;
+		}
+		keys[i] = k;
+		values[i] = v;
+		used[i] = true;
+		size++;
+		if (size > (keys.length >> 1)) {
+			rehash(keys.length << 1);
+		}
+	}
+
+	/**
+	 * Removes a key from the table
+	 * @param k key
+	 * @return true if the key is removed, else false
+	 */
+	public boolean remove(int k) {
+		int i = find(k);
+		if (i < 0) {
+			return false;
+		}
+		// shifts later keys of the probe run back over the hole
+		int hole = i;
+		for (int j = (i + 1) & mask; used[j]; j = (j + 1) & mask) {
+			int home = bucket(keys[j]);
+			if (((j - home) & mask) >= ((j - hole) & mask)) {
+				keys[hole] = keys[j];
+				values[hole] = values[j];
+				hole = j;
+			}
+		}
+		used[hole] = false;
+		values[hole] = null; // lets the removed value be collected
+		size--;
+		return true;
+	}
+
+	/**
+	 * Gets the value stored with a specific key
+	 * @param k key
+	 * @return value found, or null if the key is not in the table
+	 */
+	@SuppressWarnings("unchecked")
+	public V get(int k) {
+		int i = find(k);
+		return i < 0 ? null : (V) values[i];
+	}
+
+	/**
+	 * Checks if the table contains a specified key
+	 * @param k key
+	 * @return true if match found, else false
+	 */
+	public boolean contains(int k) {
+		return find(k) >= 0;
+	}
+
+	/**
+	 * Gets the number of keys in the table
+	 * @return size
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Wraps this table as a DataStructureADT with Integer keys. The view
+	 * shares the table, so changes through either are seen by both.
+	 * @return DataStructureADT view of this table
+	 */
+	public DataStructureADT<Integer, V> asADT() {
+		return new DataStructureADT<Integer, V>() {
+			@Override
+			public void insert(Integer key, V value) {
+				if (key == null) {
+					throw new IllegalArgumentException("null key");
+				}
+				DS_MyInt.this.insert(key, value);
+			}
+
+			@Override
+			public boolean remove(Integer key) {
+				if (key == null) {
+					throw new IllegalArgumentException("null key");
+				}
+				return DS_MyInt.this.remove(key);
+			}
+
+			@Override
+			public V get(Integer key) {
+				if (key == null) {
+					throw new IllegalArgumentException("null key");
+				}
+				return DS_MyInt.this.get(key);
+			}
+
+			@Override
+			public boolean contains(Integer key) {
+				return key != null && DS_MyInt.this.contains(key);
+			}
+
+			@Override
+			public int size() {
+				return size;
+			}
+		};
+	}
+
+	/**
+	 * Finds the bucket holding a key
+	 * @param k key
+	 * @return bucket of the key, or -1 if not present
+	 */
+	private int find(int k) {
+		for (int i = bucket(k); used[i]; i = (i + 1) & mask) {
+			if (keys[i] == k) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Gets the home bucket of a key
+	 * @param k key
+	 * @return home bucket
+	 */
+	private int bucket(int k) {
+		return SlotIndex.spread(k) & mask;
+	}
+
+	/**
+	 * Moves every key into a table of a new length
+	 * @param length new table length, power of two
+	 */
+	private void rehash(int length) {
+		int[] oldKeys = keys;
+		Object[] oldValues = values;
+		boolean[] oldUsed = used;
+		allocate(length);
+		for (int b = 0; b < oldKeys.length; b++) {
+			if (oldUsed[b]) {
+				int i = bucket(oldKeys[b]);
+				while (used[i]) {
+					i = (i + 1) & mask;
+				}
+				keys[i] = oldKeys[b];
+				values[i] = oldValues[b];
+				used[i] = true;
+			}
+		}
+	}
+
+	/**
+	 * Replaces the table with an empty one, keeping size
+	 * @param length table length, power of two
+	 */
+	private void allocate(int length) {
+		keys = new int[length];
+		values = new Object[length];
+		used = new boolean[length];
+		mask = length - 1;
+	}
+
+}
@@ -0,0 +1,124 @@
+/**
+ * This class is a List Data Structure that reorders itself as keys are
+ * looked up, so keys that are read often end up near the front of the list
+ * where the linear scan finds them first. This pays off when a small set of
+ * keys gets most of the lookups.
+ *
+ * Every successful contains or get reorganizes the list according to the
+ * {@link Policy} chosen when the list is created.
+ *
+ * @author Rohan Mendiratta
+ * @version 1.0
+ */
+public class DS_MySelfOrganizing extends DS_My {
+
+	/**
+	 * How the list is reordered after a key is found
+	 */
+	public enum Policy {
+		/** moves the key found to the front of the list */
+		MOVE_TO_FRONT,
+		/** swaps the key found with the key in front of it */
+		TRANSPOSE
+	}
+
+	private final Policy policy; // how lookups reorder the list
+
+	public DS_MySelfOrganizing() {
+		this(Policy.MOVE_TO_FRONT);
+	}
+
+	/**
+	 * Creates an empty list that reorders itself with a specific policy
+	 * @param policy how lookups reorder the list
+	 */
+	public DS_MySelfOrganizing(Policy policy) {
+		this(policy, DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates an empty list that reorders itself with a specific policy and
+	 * can hold initialCapacity elements before it has to grow
+	 * @param policy how lookups reorder the list
+	 * @param initialCapacity number of elements to allocate room for
+	 */
+	public DS_MySelfOrganizing(Policy policy, int initialCapacity) {
+		super(initialCapacity);
+		if (policy == null) {
+			throw new IllegalArgumentException("null policy");
+		}
+		this.policy = policy;
+	}
+
+	/**
+	 * Checks if the list contains a specified key, moving it forward if found
+	 * @param k key
+	 * @return true if match found, else false
+	 */
+	@Override
+	public boolean contains(Comparable k) {
+		if (k == null) {
+			return false;
+		}
+		int index = indexOf(k);
+		if (index < 0) {
+			return false;
+		}
+		reorganize(index);
+		return true;
+	}
+
+	/**
+	 * Gets the value stored with a specific key, moving the key forward if found
+	 * @param k key
+	 * @return value found, or null if the key is not in the list
+	 */
+	@Override
+	public Object get(Comparable k) {
+		if (k == null) {
+			throw new IllegalArgumentException("null key");
+		}
+		int index = indexOf(k);
+		if (index < 0) {
+			return null;
+		}
+		Object value = values[index];
+		reorganize(index);
+		return value;
+	}
+
+	/**
+	 * Gets the policy used to reorder the list
+	 * @return policy
+	 */
+	public Policy getPolicy() {
+		return policy;
+	}
+
+	/**
+	 * Moves the element at index forward according to the policy
+	 * @param index position of the element that was found
+	 */
+	private void reorganize(int index) {
+		if (index == 0) {
+			return;
+		}
+		Comparable key = keys[index];
+		Object value = values[index];
+		if (policy == Policy.MOVE_TO_FRONT) {
+			// shifts the elements in front of index back by one
+			System.arraycopy(keys, 0, keys, 1, index);
+			System.arraycopy(values, 0, values, 1, index);
+			keys[0] = key;
+			values[0] = value;
+			moved += index;
+		} else {
+			keys[index] = keys[index - 1];
+			values[index] = values[index - 1];
+			keys[index - 1] = key;
+			values[index - 1] = value;
+			moved++;
+		}
+	}
+
+}
@@ -0,0 +1,218 @@
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * This class is a List Data Structure that keeps its elements ordered by key.
+ * Lookups and the insert/remove position are found with a binary search, so
+ * contains and get are O(log n). Insert and remove still shift the elements
+ * after the position, which is a good trade when reads outnumber writes.
+ * Unlike DS_My, remove never leaves tombstones.
+ * @author Rohan Mendiratta
+ * @version 1.0
+ */
+public class DS_MySorted extends DS_My implements Iterable<Comparable> {
+
+	public DS_MySorted() {
+		super();
+	}
+
+	/**
+	 * Creates an empty sorted list that can hold initialCapacity elements
+	 * before it has to grow.
+	 * @param initialCapacity number of elements to allocate room for
+	 */
+	public DS_MySorted(int initialCapacity) {
+		super(initialCapacity);
+	}
+
+	/**
+	 * Adds a (key,value) pair to the List at its sorted position
+	 * @param k key
+	 * @param v value
+	 */
+	@Override
+	public void insert(Comparable k, Object v) {
+		// checks for null key
+		if (k == null) {
+			throw new IllegalArgumentException("null key");
+		}
+		int index = search(k);
+		// checks for duplicate keys
+		if (index >= 0) {
+			throw new RuntimeException("duplicate key");
+		}
+		insertAt(-(index + 1), k, v);
+	}
+
+	/**
+	 * Removes an element from the list, shifting the elements after it down
+	 * so the list stays sorted with no tombstones for the binary search to
+	 * step over.
+	 * @param k key
+	 * @return true if element is removed, else false
+	 */
+	@Override
+	public boolean remove(Comparable k) {
+		// checks for a null key
+		if (k == null) {
+			throw new IllegalArgumentException("null key");
+		}
+		int index = search(k);
+		if (index < 0) {
+			return false;
+		}
+		removeAt(index);
+		return true;
+	}
+
+	/**
+	 * Adds every (key,value) pair of a batch to the List. The batch is sorted
+	 * and then merged with the list into new arrays in one pass, so a
+	 * duplicate is found before the list is changed.
+	 * @param ks keys of the batch
+	 * @param vs values of the batch, vs[i] belongs to ks[i]
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public void insertAll(Comparable[] ks, Object[] vs) {
+		if (ks.length != vs.length) {
+			throw new IllegalArgumentException("keys and values differ in length");
+		}
+		Comparable[] batchKeys = ks.clone();
+		Object[] batchValues = vs.clone();
+		sortBatch(batchKeys, batchValues);
+		// the list orders by compareTo, so keys that compare equal are repeats
+		for (int j = 1; j < batchKeys.length; j++) {
+			if (batchKeys[j - 1].compareTo(batchKeys[j]) == 0) {
+				throw new RuntimeException("duplicate key");
+			}
+		}
+
+		int total = size + batchKeys.length;
+		Comparable[] newKeys = new Comparable[Math.max(total, keys.length)];
+		Object[] newValues = new Object[newKeys.length];
+		int i = 0; // next element of the list
+		int j = 0; // next element of the batch
+		for (int out = 0; out < total; out++) {
+			int cmp = i >= size ? 1 : j >= batchKeys.length ? -1 : keys[i].compareTo(batchKeys[j]);
+			if (cmp == 0) {
+				throw new RuntimeException("duplicate key");
+			} else if (cmp < 0) {
+				newKeys[out] = keys[i];
+				newValues[out] = values[i++];
+			} else {
+				newKeys[out] = batchKeys[j];
+				newValues[out] = batchValues[j++];
+			}
+		}
+		keys = newKeys;
+		values = newValues;
+		moved += size;
+		size = total;
+	}
+
+	/**
+	 * Gets the key at a specific position in sorted order
+	 * @param index position in the list, between 0 and size - 1
+	 * @return key at that position
+	 */
+	@Override
+	public Comparable keyAt(int index) {
+		checkIndex(index);
+		return super.keyAt(index);
+	}
+
+	/**
+	 * Gets the value at a specific position in sorted order
+	 * @param index position in the list, between 0 and size - 1
+	 * @return value at that position
+	 */
+	@Override
+	public Object valueAt(int index) {
+		checkIndex(index);
+		return super.valueAt(index);
+	}
+
+	/**
+	 * Returns an iterator over the keys in ascending order
+	 * @return key iterator
+	 */
+	@Override
+	public Iterator<Comparable> iterator() {
+		return new Iterator<Comparable>() {
+			private int next = 0;
+
+			@Override
+			public boolean hasNext() {
+				return next < size;
+			}
+
+			@Override
+			public Comparable next() {
+				if (next >= size) {
+					throw new NoSuchElementException();
+				}
+				return DS_MySorted.super.keyAt(next++);
+			}
+		};
+	}
+
+	/**
+	 * Finds the index of the element with a specific key using binary search
+	 * @param k key, must not be null
+	 * @return index of the element, or -1 if no match is found
+	 */
+	@Override
+	int indexOf(Comparable k) {
+		int index = search(k);
+		return index >= 0 ? index : -1;
+	}
+
+	/**
+	 * Checks whether a sorted batch holds a key of the list, matching with
+	 * compareTo like search does
+	 * @param batch keys sorted by sortBatch
+	 * @param k key of the list
+	 * @return true if the batch holds k
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	boolean inBatch(Comparable[] batch, Comparable k) {
+		return Arrays.binarySearch(batch, k) >= 0;
+	}
+
+	/**
+	 * Binary searches the list for a key
+	 * @param k key, must not be null
+	 * @return index of the key if found, else (-(insertion point) - 1)
+	 */
+	@SuppressWarnings("unchecked")
+	int search(Comparable k) {
+		int low = 0;
+		int high = size - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			int cmp = super.keyAt(mid).compareTo(k);
+			if (cmp < 0) {
+				low = mid + 1;
+			} else if (cmp > 0) {
+				high = mid - 1;
+			} else {
+				return mid;
+			}
+		}
+		return -(low + 1);
+	}
+
+	/**
+	 * Checks that an index is inside the list
+	 * @param index index to check
+	 */
+	private void checkIndex(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("index " + index + ", size " + size);
+		}
+	}
+
+}
@@ -0,0 +1,443 @@
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * This class is a Data Structure that keeps its keys and values outside the
+ * Java heap, in direct ByteBuffers, so the garbage collector never has to
+ * trace them. Keys and values are turned into bytes by the {@link Codec}s
+ * given to the constructor, and the heap holds only a few buffer objects
+ * however many pairs are stored.
+ *
+ * Each pair is appended to a data buffer as a record:
+ *
+ *     int hash, int key length, int value length, key bytes, value bytes
+ *
+ * and found through an index in a second direct buffer. The index is an
+ * open-addressing table laid out like SlotIndex, but each bucket is one long
+ * holding the key's hash and the record's offset, so a lookup reads no heap
+ * object at all. Keys are hashed and compared by their encoded bytes, which
+ * is why the key codec must be canonical.
+ *
+ * Remove marks the record dead and leaves its bytes in place; once dead
+ * records take up more than half of the data buffer, the live ones are
+ * copied into a new buffer and the index is rebuilt from their headers. A
+ * buffer that is replaced is freed when the collector finds its ByteBuffer
+ * unreachable.
+ *
+ * Insert, get, contains and remove are expected O(1). The data buffer is
+ * limited to 2GB and the index to 2^27 buckets, so at most 2^26 pairs. Values
+ * are read and written through views of the data buffer, so its position
+ * never moves; keys are encoded into one scratch buffer, so a store is not
+ * safe to read from several threads at once.
+ *
+ * @author Rohan Mendiratta
+ * @version 1.0
+ * @param <K> Key
+ * @param <V> Value
+ */
+public class DS_OffHeap<K extends Comparable<K>, V> implements DataStructureADT<K, V> {
+
+	private static final int HEADER = 3 * Integer.BYTES; // hash, key length, value length
+	private static final int NULL_VALUE = -1; // value length stored for a null value
+	private static final int MIN_TABLE = 16; // smallest index length, power of two
+	private static final int MAX_DATA = Integer.MAX_VALUE - 8; // largest buffer the VM will allocate
+	private static final int MAX_TABLE = 1 << 27; // most buckets, whose 8 bytes each still fit in a buffer
+
+	private final Codec<K> keyCodec; // converts keys to bytes
+	private final Codec<V> valueCodec; // converts values to bytes
+	private ByteBuffer data; // records, appended at the end
+	int end; // bytes of data in use, dead records included
+	private int garbage; // bytes of dead records
+	private ByteBuffer table; // index, one long per bucket: hash << 32 | offset + 1, 0 if empty
+	private int mask; // buckets - 1
+	private int size; // number of live pairs
+	private ByteBuffer scratch; // the key of the current call, encoded
+
+	/**
+	 * Creates an empty store
+	 * @param keyCodec converts keys to bytes, must be canonical
+	 * @param valueCodec converts values to bytes
+	 */
+	public DS_OffHeap(Codec<K> keyCodec, Codec<V> valueCodec) {
+		this(keyCodec, valueCodec, MIN_TABLE);
+	}
+
+	/**
+	 * Creates an empty store with room for expected pairs in its index
+	 * @param keyCodec converts keys to bytes, must be canonical
+	 * @param valueCodec converts values to bytes
+	 * @param expected number of pairs to allocate index room for
+	 */
+	public DS_OffHeap(Codec<K> keyCodec, Codec<V> valueCodec, int expected) {
+		if (keyCodec == null || valueCodec == null) {
+			throw new IllegalArgumentException("null codec");
+		}
+		if (expected < 0) {
+			throw new IllegalArgumentException("negative capacity");
+		}
+		this.keyCodec = keyCodec;
+		this.valueCodec = valueCodec;
+		// guesses records of two ints until the codecs say otherwise
+		data = allocate((int) Math.min(MAX_DATA, (long) Math.max(expected, MIN_TABLE)
+			* (HEADER + 2 * Integer.BYTES)));
+		scratch = allocate(64);
+		int buckets = MIN_TABLE;
+		while (buckets < MAX_TABLE && (buckets >> 1) < expected) {
+			buckets <<= 1;
+		}
+		allocateTable(buckets);
+	}
+
+	/**
+	 * Adds a (key,value) pair to the store
+	 * @param k key
+	 * @param v value, may be null
+	 */
+	@Override
+	public void insert(K k, V v) {
+		// checks for null key
+		if (k == null) {
+			throw new IllegalArgumentException("null key");
+		}
+		if (size + 1 > (mask + 1) >> 1) {
+			if (mask + 1 == MAX_TABLE) {
+				throw new IllegalStateException("off-heap store is full: its index holds at most "
+					+ (MAX_TABLE >> 1) + " pairs");
+			}
+			rehash((mask + 1) << 1);
+		}
+		int keyLength = encode(k);
+		int hash = hash(scratch, 0, keyLength);
+		int bucket = locate(hash, keyLength);
+		// checks for duplicate keys
+		if (bucket >= 0) {
+			throw new RuntimeException("duplicate key");
+		}
+		int valueLength = v == null ? NULL_VALUE : valueCodec.size(v);
+		int offset = reserve(HEADER + keyLength + Math.max(valueLength, 0));
+		data.putInt(offset, hash);
+		data.putInt(offset + Integer.BYTES, keyLength);
+		data.putInt(offset + 2 * Integer.BYTES, valueLength);
+		copy(scratch, 0, data, offset + HEADER, keyLength);
+		if (v != null) {
+			try {
+				valueCodec.write(v, at(offset + HEADER + keyLength));
+			} catch (RuntimeException | Error e) {
+				// gives back the record so a failed insert leaves the store unchanged
+				end = offset;
+				throw e;
+			}
+		}
+		table.putLong(-(bucket + 1) << 3, entry(hash, offset));
+		size++;
+	}
+
+	/**
+	 * Removes a pair from the store
+	 * @param k key
+	 * @return true if the pair is removed, else false
+	 */
+	@Override
+	public boolean remove(K k) {
+		// checks for a null key
+		if (k == null) {
+			throw new IllegalArgumentException("null key");
+		}
+		int keyLength = encode(k);
+		int bucket = locate(hash(scratch, 0, keyLength), keyLength);
+		if (bucket < 0) {
+			return false;
+		}
+		int offset = offsetAt(bucket);
+		// a negative key length marks the record dead
+		data.putInt(offset + Integer.BYTES, -keyLength - 1);
+		garbage += recordLength(offset, keyLength);
+		deleteBucket(bucket);
+		size--;
+		if (garbage > end >> 1) {
+			compact();
+		}
+		return true;
+	}
+
+	/**
+	 * Checks if the store contains a specified key
+	 * @param k key
+	 * @return true if match found, else false
+	 */
+	@Override
+	public boolean contains(K k) {
+		if (k == null) {
+			return false;
+		}
+		int keyLength = encode(k);
+		return locate(hash(scratch, 0, keyLength), keyLength) >= 0;
+	}
+
+	/**
+	 * Gets the value stored with a specific key, decoded into a new object
+	 * @param k key
+	 * @return value found, or null if the key is not in the store
+	 */
+	@Override
+	public V get(K k) {
+		if (k == null) {
+			throw new IllegalArgumentException("null key");
+		}
+		int keyLength = encode(k);
+		int bucket = locate(hash(scratch, 0, keyLength), keyLength);
+		if (bucket < 0) {
+			return null;
+		}
+		int offset = offsetAt(bucket);
+		int valueLength = data.getInt(offset + 2 * Integer.BYTES);
+		if (valueLength == NULL_VALUE) {
+			return null;
+		}
+		return valueCodec.read(at(offset + HEADER + keyLength), valueLength);
+	}
+
+	/**
+	 * Gets the number of pairs in the store
+	 * @return size
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Gets the bytes of direct memory the store currently holds
+	 * @return capacity of the data, index and scratch buffers
+	 */
+	public long offHeapBytes() {
+		return (long) data.capacity() + table.capacity() + scratch.capacity();
+	}
+
+	/**
+	 * Encodes a key into the scratch buffer, growing it if needed
+	 * @param k key
+	 * @return length of the encoded key
+	 */
+	private int encode(K k) {
+		int length = keyCodec.size(k);
+		if (length > scratch.capacity()) {
+			scratch = allocate(Math.max(length, scratch.capacity() << 1));
+		}
+		scratch.clear();
+		keyCodec.write(k, scratch);
+		return length;
+	}
+
+	/**
+	 * Searches the index for the encoded key in the scratch buffer
+	 * @param hash hash of the key
+	 * @param keyLength length of the key
+	 * @return bucket of the key, or -(empty bucket) - 1 if not present
+	 */
+	private int locate(int hash, int keyLength) {
+		int i = hash & mask;
+		for (long e = table.getLong(i << 3); e != 0; e = table.getLong(i << 3)) {
+			if ((int) (e >>> 32) == hash && keyMatches((int) e - 1, keyLength)) {
+				return i;
+			}
+			i = (i + 1) & mask;
+		}
+		return -i - 1;
+	}
+
+	/**
+	 * Compares the key of a record with the encoded key in the scratch buffer
+	 * @param offset offset of the record
+	 * @param keyLength length of the encoded key
+	 * @return true if the bytes are the same
+	 */
+	private boolean keyMatches(int offset, int keyLength) {
+		if (data.getInt(offset + Integer.BYTES) != keyLength) {
+			return false;
+		}
+		int from = offset + HEADER;
+		int i = 0;
+		for (; i + Long.BYTES <= keyLength; i += Long.BYTES) {
+			if (data.getLong(from + i) != scratch.getLong(i)) {
+				return false;
+			}
+		}
+		for (; i < keyLength; i++) {
+			if (data.get(from + i) != scratch.get(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Empties a bucket and shifts later entries of the same probe run back,
+	 * as SlotIndex does
+	 * @param i bucket to empty
+	 */
+	private void deleteBucket(int i) {
+		int hole = i;
+		for (int j = (i + 1) & mask; table.getLong(j << 3) != 0; j = (j + 1) & mask) {
+			long e = table.getLong(j << 3);
+			int home = (int) (e >>> 32) & mask;
+			// the entry at j may fill the hole only if its home bucket is not
+			// inside the cyclic range (hole, j]
+			if (((j - home) & mask) >= ((j - hole) & mask)) {
+				table.putLong(hole << 3, e);
+				hole = j;
+			}
+		}
+		table.putLong(hole << 3, 0);
+	}
+
+	/**
+	 * Moves every entry into an index of a new length
+	 * @param buckets new number of buckets, power of two
+	 */
+	private void rehash(int buckets) {
+		ByteBuffer old = table;
+		allocateTable(buckets);
+		for (int b = 0; b < old.capacity(); b += Long.BYTES) {
+			long e = old.getLong(b);
+			if (e != 0) {
+				add(e);
+			}
+		}
+	}
+
+	/**
+	 * Copies the live records to a new data buffer and rebuilds the index
+	 * from their headers
+	 */
+	private void compact() {
+		ByteBuffer old = data;
+		int oldEnd = end;
+		data = allocate(Math.max(oldEnd - garbage, MIN_TABLE) + (oldEnd - garbage >> 1));
+		end = 0;
+		garbage = 0;
+		allocateTable(mask + 1);
+		for (int offset = 0; offset < oldEnd; ) {
+			int keyLength = old.getInt(offset + Integer.BYTES);
+			int length = recordLength(old, offset, keyLength < 0 ? -keyLength - 1 : keyLength);
+			if (keyLength >= 0) {
+				copy(old, offset, data, end, length);
+				add(entry(old.getInt(offset), end));
+				end += length;
+			}
+			offset += length;
+		}
+	}
+
+	/**
+	 * Puts an entry in the first empty bucket of its probe run
+	 * @param e entry, hash << 32 | offset + 1
+	 */
+	private void add(long e) {
+		int i = (int) (e >>> 32) & mask;
+		while (table.getLong(i << 3) != 0) {
+			i = (i + 1) & mask;
+		}
+		table.putLong(i << 3, e);
+	}
+
+	/**
+	 * Makes room for a record at the end of the data buffer
+	 * @param length bytes of the record
+	 * @return offset of the record
+	 */
+	private int reserve(int length) {
+		if (length > MAX_DATA - end) {
+			throw new IllegalStateException("off-heap store is full");
+		}
+		if (end + length > data.capacity()) {
+			int capacity = (int) Math.min(MAX_DATA, Math.max(
+				(long) data.capacity() + (data.capacity() >> 1), (long) end + length));
+			ByteBuffer bigger = allocate(capacity);
+			copy(data, 0, bigger, 0, end);
+			data = bigger;
+		}
+		int offset = end;
+		end += length;
+		return offset;
+	}
+
+	/**
+	 * Gets a view of the data buffer positioned at an offset, so a codec can
+	 * read or write there without moving the position of the data buffer
+	 * @param offset offset in the data buffer
+	 * @return view sharing the data buffer's bytes
+	 */
+	private ByteBuffer at(int offset) {
+		ByteBuffer view = data.duplicate().order(data.order());
+		view.position(offset);
+		return view;
+	}
+
+	private void allocateTable(int buckets) {
+		table = allocate(buckets << 3);
+		mask = buckets - 1;
+	}
+
+	private int offsetAt(int bucket) {
+		return (int) table.getLong(bucket << 3) - 1;
+	}
+
+	private int recordLength(int offset, int keyLength) {
+		return recordLength(data, offset, keyLength);
+	}
+
+	/**
+	 * Gets the bytes taken by a record
+	 * @param buffer buffer holding the record
+	 * @param offset offset of the record
+	 * @param keyLength length of its key
+	 * @return header, key and value bytes
+	 */
+	private static int recordLength(ByteBuffer buffer, int offset, int keyLength) {
+		int valueLength = buffer.getInt(offset + 2 * Integer.BYTES);
+		return HEADER + keyLength + Math.max(valueLength, 0);
+	}
+
+	private static long entry(int hash, int offset) {
+		return (long) hash << 32 | (offset + 1L);
+	}
+
+	/**
+	 * Hashes bytes four at a time
+	 * @param buffer buffer holding the bytes
+	 * @param from offset of the first byte
+	 * @param length number of bytes
+	 * @return spread hash
+	 */
+	private static int hash(ByteBuffer buffer, int from, int length) {
+		int h = length;
+		int i = 0;
+		for (; i + Integer.BYTES <= length; i += Integer.BYTES) {
+			h = 31 * h + buffer.getInt(from + i);
+		}
+		for (; i < length; i++) {
+			h = 31 * h + buffer.get(from + i);
+		}
+		return SlotIndex.spread(h);
+	}
+
+	/**
+	 * Copies bytes between buffers without moving their positions
+	 */
+	private static void copy(ByteBuffer from, int fromOffset, ByteBuffer to, int toOffset,
+		int length) {
+		int i = 0;
+		for (; i + Long.BYTES <= length; i += Long.BYTES) {
+			to.putLong(toOffset + i, from.getLong(fromOffset + i));
+		}
+		for (; i < length; i++) {
+			to.put(toOffset + i, from.get(fromOffset + i));
+		}
+	}
+
+	private static ByteBuffer allocate(int capacity) {
+		return ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
+	}
+
+}
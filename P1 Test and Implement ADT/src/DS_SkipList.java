@@ -0,0 +1,270 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * This class is an ordered Data Structure implemented as a skip list that can
+ * be shared between threads. Insert, get, contains and remove are O(log n)
+ * expected.
+ *
+ * Readers never lock: they follow next links that writers publish with
+ * release stores and readers load with acquire loads, so a reader always sees
+ * a fully built node. Writers are serialized on one lock. A node is linked in
+ * from the bottom level up and unlinked from the top level down, and an
+ * unlinked node keeps its own links, so a reader standing on it can still
+ * finish its search.
+ *
+ * @author Rohan Mendiratta
+ * @version 1.0
+ */
+public class DS_SkipList implements DataStructureADT, Iterable<Comparable> {
+
+	/**
+	 * A key,value pair with its links to the next node on each level
+	 */
+	private static final class Node {
+		private final Comparable key;
+		private final Object value;
+		private final Node[] next; // next[i] is the next node on level i
+
+		private Node(Comparable key, Object value, int levels) {
+			this.key = key;
+			this.value = value;
+			this.next = new Node[levels];
+		}
+	}
+
+	private static final VarHandle NEXT = MethodHandles.arrayElementVarHandle(Node[].class);
+	private static final int MAX_LEVEL = 32; // enough levels for any int size
+
+	private final Node head = new Node(null, null, MAX_LEVEL); // sentinel before the first key
+	private final Object writeLock = new Object(); // held by every writer
+	private volatile int levels = 1; // number of levels in use
+	private volatile int size; // number of keys
+
+	/**
+	 * Adds a (key,value) pair to the skip list
+	 * @param k key
+	 * @param v value
+	 */
+	@Override
+	public void insert(Comparable k, Object v) {
+		// checks for null key
+		if (k == null) {
+			throw new IllegalArgumentException("null key");
+		}
+		synchronized (writeLock) {
+			Node[] preds = new Node[MAX_LEVEL];
+			Node found = findPredecessors(k, preds);
+			// checks for duplicate keys
+			if (found != null) {
+				throw new RuntimeException("duplicate key");
+			}
+			int nodeLevels = randomLevels();
+			for (int i = levels; i < nodeLevels; i++) {
+				preds[i] = head;
+			}
+			Node node = new Node(k, v, nodeLevels);
+			// links the node in from the bottom level up
+			for (int i = 0; i < nodeLevels; i++) {
+				node.next[i] = next(preds[i], i);
+				NEXT.setRelease(preds[i].next, i, node);
+			}
+			if (nodeLevels > levels) {
+				levels = nodeLevels;
+			}
+			size++;
+		}
+	}
+
+	/**
+	 * Removes an element from the skip list.
+	 * @param k key
+	 * @return true if element is removed, else false
+	 */
+	@Override
+	public boolean remove(Comparable k) {
+		// checks for a null key
+		if (k == null) {
+			throw new IllegalArgumentException("null key");
+		}
+		synchronized (writeLock) {
+			Node[] preds = new Node[MAX_LEVEL];
+			Node node = findPredecessors(k, preds);
+			if (node == null) {
+				return false;
+			}
+			// unlinks the node from the top level down
+			for (int i = node.next.length - 1; i >= 0; i--) {
+				NEXT.setRelease(preds[i].next, i, node.next[i]);
+			}
+			while (levels > 1 && next(head, levels - 1) == null) {
+				levels--;
+			}
+			size--;
+			return true;
+		}
+	}
+
+	/**
+	 * Checks if the skip list contains a specified key. Does not lock.
+	 * @param k key
+	 * @return true if match found, else false
+	 */
+	@Override
+	public boolean contains(Comparable k) {
+		if (k == null) {
+			return false;
+		}
+		return find(k) != null;
+	}
+
+	/**
+	 * Gets the value stored with a specific key. Does not lock.
+	 * @param k key
+	 * @return value found, or null if the key is not in the skip list
+	 */
+	@Override
+	public Object get(Comparable k) {
+		if (k == null) {
+			throw new IllegalArgumentException("null key");
+		}
+		Node node = find(k);
+		return node == null ? null : node.value;
+	}
+
+	/**
+	 * Gets the number of keys in the skip list. Does not lock.
+	 * @return size
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Adds a batch while holding the write lock, so no other writer can make
+	 * the batch fail halfway. Readers may see part of the batch before it is
+	 * done.
+	 * @param ks keys of the batch
+	 * @param vs values of the batch, vs[i] belongs to ks[i]
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public void insertAll(Comparable[] ks, Object[] vs) {
+		synchronized (writeLock) {
+			DataStructureADT.super.insertAll(ks, vs);
+		}
+	}
+
+	/**
+	 * Removes a batch while holding the write lock. Readers may see part of
+	 * the batch removed before it is done.
+	 * @param ks keys to remove
+	 * @return number of keys removed
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public int removeAll(Comparable[] ks) {
+		synchronized (writeLock) {
+			return DataStructureADT.super.removeAll(ks);
+		}
+	}
+
+	/**
+	 * Returns an iterator over the keys in ascending order. The iterator
+	 * does not lock; it sees keys inserted or removed while it runs if it
+	 * has not passed their position yet.
+	 * @return key iterator
+	 */
+	@Override
+	public Iterator<Comparable> iterator() {
+		return new Iterator<Comparable>() {
+			private Node next = DS_SkipList.next(head, 0);
+
+			@Override
+			public boolean hasNext() {
+				return next != null;
+			}
+
+			@Override
+			public Comparable next() {
+				if (next == null) {
+					throw new NoSuchElementException();
+				}
+				Comparable key = next.key;
+				next = DS_SkipList.next(next, 0);
+				return key;
+			}
+		};
+	}
+
+	/**
+	 * Searches for a key without locking
+	 * @param k key, must not be null
+	 * @return node holding the key, or null if not found
+	 */
+	@SuppressWarnings("unchecked")
+	private Node find(Comparable k) {
+		Node x = head;
+		for (int i = levels - 1; i >= 0; i--) {
+			Node n = next(x, i);
+			while (n != null) {
+				int cmp = n.key.compareTo(k);
+				if (cmp == 0) {
+					return n;
+				} else if (cmp > 0) {
+					break;
+				}
+				x = n;
+				n = next(x, i);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Finds the last node before a key on every level. Writers only.
+	 * @param k key, must not be null
+	 * @param preds receives the predecessor on each level in use
+	 * @return node holding the key, or null if not found
+	 */
+	@SuppressWarnings("unchecked")
+	private Node findPredecessors(Comparable k, Node[] preds) {
+		Node x = head;
+		for (int i = levels - 1; i >= 0; i--) {
+			Node n = x.next[i];
+			while (n != null && n.key.compareTo(k) < 0) {
+				x = n;
+				n = x.next[i];
+			}
+			preds[i] = x;
+		}
+		Node n = x.next[0];
+		return n != null && n.key.compareTo(k) == 0 ? n : null;
+	}
+
+	/**
+	 * Loads the next link of a node with acquire ordering
+	 * @param node node to read
+	 * @param level level of the link
+	 * @return next node on that level, or null
+	 */
+	private static Node next(Node node, int level) {
+		return (Node) NEXT.getAcquire(node.next, level);
+	}
+
+	/**
+	 * Picks the number of levels for a new node; each extra level has
+	 * probability one half
+	 * @return levels, between 1 and MAX_LEVEL
+	 */
+	private static int randomLevels() {
+		int bits = ThreadLocalRandom.current().nextInt();
+		// counts trailing one bits, so level l has probability 2^-l
+		return Math.min(Integer.numberOfTrailingZeros(~bits) + 1, MAX_LEVEL);
+	}
+
+}
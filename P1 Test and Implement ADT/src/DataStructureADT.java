@@ -1,10 +1,14 @@
+import java.util.Arrays;
+
 /**
  * A data structure that can store at least 500 key,value pairs.
  *
  * May not use any of Java's built-in Java collection types:
  * such as: List, ArrayList, LinkedList, etc...
  * 
- * May not add any public members (fields, methods, inner classes)
+ * May not add any public members (fields, methods, inner classes) to this
+ * interface beyond the batch methods insertAll and removeAll, which have
+ * default implementations so every data structure supports them.
  * 
  * @author deppeler
  *
@@ -36,4 +40,69 @@ public interface DataStructureADT<K extends Comparable<K>, V> {
     // Returns the number of elements in the data structure
     int size();
 
+    // Adds every keys[i],values[i] pair to the data structure as one batch.
+    // If keys and values differ in length, throws IllegalArgumentException
+    // If any key is null, throws IllegalArgumentException("null key")
+    // If any key repeats in the batch or is already in the data structure,
+    //    throws RuntimeException("duplicate key")
+    // A batch that throws leaves the data structure unchanged.
+    // This default checks the batch with one contains call per key before
+    // inserting one key at a time; implementations are expected to override
+    // it with a single pass over their own storage.
+    default void insertAll(K[] keys, V[] values) {
+        if (keys.length != values.length) {
+            throw new IllegalArgumentException("keys and values differ in length");
+        }
+        checkBatch(keys);
+        for (K key : keys) {
+            if (contains(key)) {
+                throw new RuntimeException("duplicate key");
+            }
+        }
+        for (int i = 0; i < keys.length; i++) {
+            insert(keys[i], values[i]);
+        }
+    }
+
+    // Removes every key of the batch that is in the data structure and
+    // returns the number of keys removed. Keys that are not found are skipped.
+    // If any key is null, throws IllegalArgumentException("null key")
+    // If any key repeats in the batch, throws RuntimeException("duplicate key")
+    // A batch that throws leaves the data structure unchanged.
+    // This default removes one key at a time; implementations may override it.
+    default int removeAll(K[] keys) {
+        checkBatch(keys);
+        int removed = 0;
+        for (K key : keys) {
+            if (remove(key)) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    // Throws if a batch of keys holds a null key or the same key twice
+    private static <K extends Comparable<K>> void checkBatch(K[] keys) {
+        for (K key : keys) {
+            if (key == null) {
+                throw new IllegalArgumentException("null key");
+            }
+        }
+        K[] sorted = keys.clone();
+        Arrays.sort(sorted);
+        // keys that compare equal sit in one run; only equal keys are repeats
+        int run = 0;
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[run].compareTo(sorted[i]) != 0) {
+                run = i;
+                continue;
+            }
+            for (int j = run; j < i; j++) {
+                if (sorted[j].equals(sorted[i])) {
+                    throw new RuntimeException("duplicate key");
+                }
+            }
+        }
+    }
+
 }
@@ -0,0 +1,327 @@
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+/**
+ * This runs a set of scaling tests against a list ADT. It times insert, get,
+ * contains and remove on instances holding 10^3 up to 10^6 keys, divides
+ * ns/op by the growth the test class declares for the operation, and fails
+ * when what is left still grows with the size by more than a small power.
+ *
+ * The instance holds the even keys below 2n. Inserts use odd keys drawn
+ * from the whole range and removes take random present keys, so neither
+ * can hit a fast path at either end of the structure.
+ *
+ * Even an O(1) lookup slows down as the keys outgrow the caches, so the
+ * same gets are also timed on a java.util.HashMap, and the ns a HashMap
+ * get has gained since the smallest size is taken off every ns/op before
+ * it is fitted.
+ *
+ * The ns/op at every size, and the HashMap baseline, is written to
+ * scaling_&lt;class&gt;.csv in the directory named by the scaling.csvDir
+ * system property, or the temp directory if it is not set. The largest
+ * size can be lowered with the scaling.maxSize system property.
+ *
+ * The tests are tagged scaling, so a correctness run can leave them out
+ * with --exclude-tag scaling.
+ *
+ * @author Rohan Mendiratta
+ * @param <T> Data Structure to test
+ */
+@Tag("scaling")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+abstract class DataStructureADTScalingTest<T extends DataStructureADT<Integer,Integer>> {
+
+	/**
+	 * The operations that are timed
+	 */
+	enum Operation { INSERT, GET, CONTAINS, REMOVE }
+
+	/**
+	 * Complexity classes an operation can declare. Each has the growth its
+	 * ns/op is divided by, and how large a power of the size may be left
+	 * over once the HashMap baseline is taken off: enough for timer noise
+	 * and a layout that misses the caches more often than HashMap, but not
+	 * for a further factor of n^0.5, such as an O(sqrt n) lookup declared
+	 * LOGARITHMIC.
+	 */
+	enum Complexity {
+		CONSTANT(0.35) {
+			@Override
+			double growth(int n) {
+				return 1;
+			}
+		},
+		LOGARITHMIC(0.35) {
+			@Override
+			double growth(int n) {
+				return Math.log(n);
+			}
+		},
+		LINEAR(0.35) {
+			@Override
+			double growth(int n) {
+				return n;
+			}
+		};
+
+		final double tolerance;
+
+		Complexity(double tolerance) {
+			this.tolerance = tolerance;
+		}
+
+		/**
+		 * Gets how much an operation of this complexity may cost at a size
+		 * @param n size
+		 * @return growth, up to a constant factor
+		 */
+		abstract double growth(int n);
+	}
+
+	private static final int[] SIZES = {1_000, 3_000, 10_000, 30_000, 100_000, 300_000, 1_000_000};
+	private static final int OPS = 256; // operations timed per size and round
+	private static final int ROUNDS = 7; // rounds per size, the median is used
+
+	private int[] sizes; // sizes measured
+	private double[][] nsPerOp; // nsPerOp[operation][size index]
+	private double[] baselineNs; // ns/get of a HashMap at each size
+
+	protected abstract T createInstance();
+
+	// Returns the complexity the data structure promises for an operation
+	protected abstract Complexity expectedComplexity(Operation operation);
+
+	@BeforeAll
+	void measure() throws Exception {
+		int maxSize = Integer.getInteger("scaling.maxSize", SIZES[SIZES.length - 1]);
+		sizes = Arrays.stream(SIZES).filter(n -> n <= maxSize).toArray();
+		nsPerOp = new double[Operation.values().length][sizes.length];
+		baselineNs = new double[sizes.length];
+
+		// warm-up so the first size is not timed in the interpreter
+		measureSize(sizes[0], new double[Operation.values().length]);
+		measureBaseline(sizes[0]);
+		for (int s = 0; s < sizes.length; s++) {
+			double[] ns = new double[Operation.values().length];
+			measureSize(sizes[s], ns);
+			for (int op = 0; op < ns.length; op++) {
+				nsPerOp[op][s] = ns[op];
+			}
+			baselineNs[s] = measureBaseline(sizes[s]);
+		}
+		writeCsv();
+	}
+
+	@Test
+	void test00_insert_scales_within_declared_complexity() {
+		checkGrowth(Operation.INSERT);
+	}
+
+	@Test
+	void test01_get_scales_within_declared_complexity() {
+		checkGrowth(Operation.GET);
+	}
+
+	@Test
+	void test02_contains_scales_within_declared_complexity() {
+		checkGrowth(Operation.CONTAINS);
+	}
+
+	@Test
+	void test03_remove_scales_within_declared_complexity() {
+		checkGrowth(Operation.REMOVE);
+	}
+
+	/**
+	 * Fails if an operation grows faster than its declared complexity, that
+	 * is if ns/op divided by the declared growth still grows with the size
+	 * @param operation operation to check
+	 */
+	private void checkGrowth(Operation operation) {
+		if (sizes.length < 2) {
+			return; // nothing to fit
+		}
+		Complexity expected = expectedComplexity(operation);
+		double[] ns = nsPerOp[operation.ordinal()];
+		double[] excess = new double[sizes.length];
+		for (int s = 0; s < sizes.length; s++) {
+			// takes off what the memory hierarchy added to a HashMap get
+			double cached = ns[s] - (baselineNs[s] - baselineNs[0]);
+			excess[s] = Math.max(cached, 1) / expected.growth(sizes[s]);
+		}
+		double exponent = fitExponent(excess);
+		if (exponent > expected.tolerance) {
+			fail(operation + " should be " + expected + " but ns/op grows like "
+				+ expected.name().toLowerCase() + " times n^" + String.format("%.2f", exponent)
+				+ ": " + Arrays.toString(ns) + ", HashMap get: " + Arrays.toString(baselineNs));
+		}
+	}
+
+	/**
+	 * Fits log(y) = a + b log(n) by least squares
+	 * @param ys value at each size
+	 * @return b, the exponent of the size
+	 */
+	private double fitExponent(double[] ys) {
+		double sumX = 0, sumY = 0, sumXX = 0, sumXY = 0;
+		int count = sizes.length;
+		for (int s = 0; s < count; s++) {
+			double x = Math.log(sizes[s]);
+			double y = Math.log(ys[s]);
+			sumX += x;
+			sumY += y;
+			sumXX += x * x;
+			sumXY += x * y;
+		}
+		return (count * sumXY - sumX * sumY) / (count * sumXX - sumX * sumX);
+	}
+
+	/**
+	 * Fills a new instance with n keys and times each operation on it
+	 * @param n number of keys
+	 * @param ns receives the median ns/op of each operation
+	 */
+	private void measureSize(int n, double[] ns) {
+		T ds = createInstance();
+		Integer[] keys = new Integer[n];
+		for (int i = 0; i < n; i++) {
+			keys[i] = 2 * i; // leaves the odd keys between them free
+		}
+		ds.insertAll(keys, keys);
+
+		Random random = new Random(n);
+		double[][] rounds = new double[ns.length][ROUNDS];
+		for (int r = 0; r < ROUNDS; r++) {
+			Integer[] probes = new Integer[OPS];
+			Integer[] fresh = new Integer[OPS];
+			Integer[] gone = new Integer[OPS];
+			// distinct odd keys to insert and distinct present keys to remove
+			int[] picks = pick(random, n, 2 * OPS);
+			for (int i = 0; i < OPS; i++) {
+				probes[i] = keys[random.nextInt(n)];
+				fresh[i] = 2 * picks[i] + 1;
+				gone[i] = keys[picks[OPS + i]];
+			}
+
+			long start = System.nanoTime();
+			for (Integer k : fresh) {
+				ds.insert(k, k);
+			}
+			rounds[Operation.INSERT.ordinal()][r] = (double) (System.nanoTime() - start) / OPS;
+
+			start = System.nanoTime();
+			for (Integer k : probes) {
+				assertNotNull(ds.get(k));
+			}
+			rounds[Operation.GET.ordinal()][r] = (double) (System.nanoTime() - start) / OPS;
+
+			start = System.nanoTime();
+			for (Integer k : probes) {
+				assertTrue(ds.contains(k));
+			}
+			rounds[Operation.CONTAINS.ordinal()][r] = (double) (System.nanoTime() - start) / OPS;
+
+			start = System.nanoTime();
+			for (Integer k : gone) {
+				assertTrue(ds.remove(k));
+			}
+			rounds[Operation.REMOVE.ordinal()][r] = (double) (System.nanoTime() - start) / OPS;
+
+			// puts the instance back to the even keys, untimed
+			for (int i = 0; i < OPS; i++) {
+				assertTrue(ds.remove(fresh[i]));
+				ds.insert(gone[i], gone[i]);
+			}
+		}
+		assertEquals(n, ds.size());
+		for (int op = 0; op < ns.length; op++) {
+			Arrays.sort(rounds[op]);
+			ns[op] = rounds[op][ROUNDS / 2];
+		}
+	}
+
+	/**
+	 * Times gets on a HashMap holding the same keys as measureSize
+	 * @param n number of keys
+	 * @return median ns/get
+	 */
+	private static double measureBaseline(int n) {
+		HashMap<Integer, Integer> map = new HashMap<>();
+		Integer[] keys = new Integer[n];
+		for (int i = 0; i < n; i++) {
+			keys[i] = 2 * i;
+			map.put(keys[i], keys[i]);
+		}
+		Random random = new Random(n);
+		double[] rounds = new double[ROUNDS];
+		for (int r = 0; r < ROUNDS; r++) {
+			Integer[] probes = new Integer[OPS];
+			for (int i = 0; i < OPS; i++) {
+				probes[i] = keys[random.nextInt(n)];
+			}
+			long start = System.nanoTime();
+			for (Integer k : probes) {
+				assertNotNull(map.get(k));
+			}
+			rounds[r] = (double) (System.nanoTime() - start) / OPS;
+		}
+		Arrays.sort(rounds);
+		return rounds[ROUNDS / 2];
+	}
+
+	/**
+	 * Picks distinct indexes below n
+	 * @param random source of the picks
+	 * @param n bound of the indexes, at least count
+	 * @param count number of indexes wanted
+	 * @return indexes in random order
+	 */
+	private static int[] pick(Random random, int n, int count) {
+		int[] picks = new int[count];
+		Set<Integer> seen = new HashSet<>();
+		for (int i = 0; i < count; i++) {
+			int p = random.nextInt(n);
+			while (!seen.add(p)) {
+				p = random.nextInt(n);
+			}
+			picks[i] = p;
+		}
+		return picks;
+	}
+
+	/**
+	 * Writes the ns/op of every operation at every size to a CSV file
+	 */
+	private void writeCsv() throws IOException {
+		String dir = System.getProperty("scaling.csvDir", System.getProperty("java.io.tmpdir"));
+		String file = dir + File.separator + "scaling_" + getClass().getSimpleName() + ".csv";
+		try (PrintWriter out = new PrintWriter(new FileWriter(file))) {
+			out.print("size");
+			for (Operation op : Operation.values()) {
+				out.print("," + op.name().toLowerCase() + "_ns");
+			}
+			out.println(",hashmap_get_ns");
+			for (int s = 0; s < sizes.length; s++) {
+				out.print(sizes[s]);
+				for (Operation op : Operation.values()) {
+					out.printf(",%.1f", nsPerOp[op.ordinal()][s]);
+				}
+				out.printf(",%.1f%n", baselineNs[s]);
+			}
+		}
+	}
+}
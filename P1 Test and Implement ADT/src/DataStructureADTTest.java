@@ -226,4 +226,93 @@ abstract class DataStructureADTTest<T extends DataStructureADT<String,String>> {
 			fail("encounterd an exception, when adding non duplicate key");
 		}
 	}
+
+	@Test
+	void test13_insert_all_then_get_each_key(){
+		// inserts a batch of 1000 elements
+		String[] keys = new String[1000];
+		String[] values = new String[1000];
+		for(int i = 0; i < 1000; i++) {
+			keys[i] = "Key" + (999 - i);
+			values[i] = "Value" + (999 - i);
+		}
+		dataStructureInstance.insert("Key1000", "Value1000");
+		dataStructureInstance.insertAll(keys, values);
+
+		if(dataStructureInstance.size() != 1001) {
+			fail("inserted a batch of 1000 items after one item, but size=" +
+				dataStructureInstance.size());
+		}
+		// checks that every key of the batch has its value
+		for(int i = 0; i <= 1000; i++) {
+			if(!("Value" + i).equals(dataStructureInstance.get("Key" + i))) {
+				fail("expected Value" + i + " for Key" + i + ", but got " +
+					dataStructureInstance.get("Key" + i));
+			}
+		}
+	}
+
+	@Test
+	void test14_insert_all_with_duplicate_or_null_key_changes_nothing(){
+		dataStructureInstance.insert("Key1", "Value1");
+
+		// a key repeated inside the batch
+		try {
+			dataStructureInstance.insertAll(new String[]{"Key2", "Key3", "Key2"},
+				new String[]{"Value2", "Value3", "Value4"});
+			fail("expected a runtime exception for a repeated key, but was not thrown");
+		}
+		catch (RuntimeException e) {}
+
+		// a key that is already in the DS
+		try {
+			dataStructureInstance.insertAll(new String[]{"Key2", "Key1"},
+				new String[]{"Value2", "Value1"});
+			fail("expected a runtime exception for an existing key, but was not thrown");
+		}
+		catch (RuntimeException e) {}
+
+		// a null key
+		try {
+			dataStructureInstance.insertAll(new String[]{"Key2", null},
+				new String[]{"Value2", "Value3"});
+			fail("expected an exception for a null key, but none were thrown");
+		}
+		catch (IllegalArgumentException e) {}
+
+		// checks that none of the failed batches were partly added
+		if(dataStructureInstance.size() != 1 || dataStructureInstance.contains("Key2")) {
+			fail("expected failed batches to leave size=1, but size=" +
+				dataStructureInstance.size());
+		}
+	}
+
+	@Test
+	void test15_remove_all_removes_only_present_keys(){
+		// inserts first few elements
+		dataStructureInstance.insert("Key1", "Value1");
+		dataStructureInstance.insert("Key2", "Value2");
+		dataStructureInstance.insert("Key3", "Value3");
+		dataStructureInstance.insert("Key4", "Value4");
+		dataStructureInstance.insert("Key5", "Value5");
+
+		int removed = dataStructureInstance.removeAll(new String[]{"Key4", "Key9", "Key1"});
+		if(removed != 2) {
+			fail("expected 2 keys removed, but removeAll returned " + removed);
+		}
+		if(dataStructureInstance.size() != 3 || dataStructureInstance.contains("Key1")
+			|| dataStructureInstance.contains("Key4") || !dataStructureInstance.contains("Key5")) {
+			fail("removeAll removed the wrong keys, size=" + dataStructureInstance.size());
+		}
+
+		// a null key fails the whole batch
+		try {
+			dataStructureInstance.removeAll(new String[]{"Key2", null});
+			fail("expected exception when removing a null key, but none were thrown");
+		}
+		catch (IllegalArgumentException e) {}
+		if(dataStructureInstance.size() != 3) {
+			fail("expected failed batch to leave size=3, but size=" + dataStructureInstance.size());
+		}
+	}
 }
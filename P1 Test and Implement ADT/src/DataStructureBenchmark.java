@@ -0,0 +1,959 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Benchmarks for the DataStructureADT implementations in this project.
+ *
+ * Run one section with its name as the first argument, or every section with
+ * no argument:
+ *
+ *     java DataStructureBenchmark footprint
+ *
+ * The numbers are wall-clock measurements from a single JVM run, after a
+ * warm-up round, so treat them as relative comparisons and not absolutes.
+ *
+ * @author Rohan Mendiratta
+ * @version 1.0
+ */
+public class DataStructureBenchmark {
+
+	private static final int[] SIZES = {100_000, 300_000, 1_000_000};
+	private static final int LOOKUPS = 2_000; // lookups timed per size in the scan section
+
+	public static void main(String[] args) {
+		String section = args.length > 0 ? args[0] : "all";
+		boolean all = section.equals("all");
+		boolean ran = false;
+		if (all || section.equals("footprint")) {
+			footprint();
+			ran = true;
+		}
+		if (all || section.equals("scan")) {
+			scan();
+			ran = true;
+		}
+		if (all || section.equals("intkeys")) {
+			intKeys();
+			ran = true;
+		}
+		if (all || section.equals("concurrent")) {
+			int maxThreads = args.length > 1 ? Integer.parseInt(args[1])
+				: Runtime.getRuntime().availableProcessors();
+			concurrent(maxThreads);
+			ran = true;
+		}
+		if (all || section.equals("zipf")) {
+			zipf();
+			ran = true;
+		}
+		if (all || section.equals("skiplist")) {
+			skipList();
+			ran = true;
+		}
+		if (all || section.equals("churn")) {
+			churn();
+			ran = true;
+		}
+		if (all || section.equals("instrumented")) {
+			instrumented();
+			ran = true;
+		}
+		if (all || section.equals("offheap")) {
+			offHeap(args.length > 1 ? Integer.parseInt(args[1]) : 5_000_000);
+			ran = true;
+		}
+		if (all || section.equals("snapshot")) {
+			snapshot(args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000);
+			ran = true;
+		}
+		if (all || section.equals("stream")) {
+			stream(args.length > 1 ? Integer.parseInt(args[1]) : 10_000_000);
+			ran = true;
+		}
+		if (all || section.equals("cache")) {
+			cache();
+			ran = true;
+		}
+		if (all || section.equals("expiring")) {
+			expiring();
+			ran = true;
+		}
+		if (!ran) {
+			System.out.println("unknown section: " + section);
+		}
+	}
+
+	/**
+	 * Reports the heap bytes used per entry by DS_My's parallel arrays next to
+	 * the array of Element objects DS_My used to keep. The keys and values are
+	 * created before measuring, so only the structure itself is counted.
+	 */
+	static void footprint() {
+		System.out.println("== footprint: heap bytes per entry ==");
+		System.out.printf("%10s %14s %14s%n", "entries", "DS_My", "Element[]");
+		for (int n : SIZES) {
+			Integer[] keys = keys(n);
+			long before = usedHeap();
+			DS_My parallel = fill(new DS_My(n), keys);
+			long parallelBytes = usedHeap() - before;
+
+			before = usedHeap();
+			ElementList elements = fill(new ElementList(n), keys);
+			long elementBytes = usedHeap() - before;
+
+			System.out.printf("%10d %14.1f %14.1f%n", n,
+				(double) parallelBytes / n, (double) elementBytes / n);
+			// keeps both structures reachable until they are measured
+			if (parallel.size() + elements.size != 2 * n) {
+				throw new IllegalStateException();
+			}
+		}
+	}
+
+	/**
+	 * Times contains() for keys spread over the whole list, comparing the
+	 * parallel key array against the array of Element objects.
+	 */
+	static void scan() {
+		System.out.println("== scan: ns per contains() over n entries ==");
+		System.out.printf("%10s %14s %14s %8s%n", "entries", "DS_My", "Element[]", "speedup");
+		for (int n : SIZES) {
+			Integer[] keys = keys(n);
+			Integer[] probes = probes(keys, LOOKUPS, n);
+			DS_My parallel = fill(new DS_My(n), keys);
+			ElementList elements = fill(new ElementList(n), keys);
+
+			// warm-up round so both loops are compiled before timing
+			scanParallel(parallel, probes);
+			scanElements(elements, probes);
+
+			double parallelNs = scanParallel(parallel, probes);
+			double elementNs = scanElements(elements, probes);
+			System.out.printf("%10d %14.0f %14.0f %7.2fx%n", n, parallelNs, elementNs,
+				elementNs / parallelNs);
+		}
+	}
+
+	/**
+	 * Compares DS_MyInt's unboxed keys against DS_MyHashed and DS_My fed the
+	 * same keys as Integers. Reports the time per operation and the bytes
+	 * allocated per operation while loading n keys and looking each one up.
+	 * DS_My scans linearly, so it is measured at a smaller size.
+	 */
+	static void intKeys() {
+		System.out.println("== intkeys: int keys, ns/op and bytes allocated/op ==");
+		System.out.printf("%12s %8s %12s %12s %12s %12s%n", "structure", "keys",
+			"insert ns", "insert B", "get ns", "get B");
+		for (int round = 0; round < 2; round++) {
+			// the first round is a warm-up and is not printed
+			boolean print = round == 1;
+			intKeysRun("DS_MyInt", 1_000_000, print, new IntOps() {
+				DS_MyInt<Object> ds = new DS_MyInt<>();
+				public void insert(int k) { ds.insert(k, VALUE); }
+				public boolean get(int k) { return ds.get(k) != null; }
+			});
+			intKeysRun("DS_MyHashed", 1_000_000, print, new IntOps() {
+				DS_MyHashed ds = new DS_MyHashed();
+				public void insert(int k) { ds.insert(k, VALUE); }
+				public boolean get(int k) { return ds.get(k) != null; }
+			});
+			intKeysRun("DS_My", 20_000, print, new IntOps() {
+				DS_My ds = new DS_My();
+				public void insert(int k) { ds.insert(k, VALUE); }
+				public boolean get(int k) { return ds.get(k) != null; }
+			});
+		}
+	}
+
+	private static final Object VALUE = new Object(); // value stored with every key
+
+	/**
+	 * The int-keyed operations timed by the intkeys section
+	 */
+	private interface IntOps {
+		void insert(int k);
+		boolean get(int k);
+	}
+
+	private static void intKeysRun(String name, int n, boolean print, IntOps ops) {
+		long bytes = allocatedBytes();
+		long start = System.nanoTime();
+		// spreads the keys out so they are not all in the Integer cache
+		for (int i = 0; i < n; i++) {
+			ops.insert(i * 7919);
+		}
+		double insertNs = (double) (System.nanoTime() - start) / n;
+		double insertBytes = (double) (allocatedBytes() - bytes) / n;
+
+		bytes = allocatedBytes();
+		start = System.nanoTime();
+		int found = 0;
+		for (int i = 0; i < n; i++) {
+			if (ops.get(i * 7919)) {
+				found++;
+			}
+		}
+		double getNs = check(found, n, start);
+		double getBytes = (double) (allocatedBytes() - bytes) / n;
+		if (print) {
+			System.out.printf("%12s %8d %12.1f %12.1f %12.1f %12.1f%n", name, n,
+				insertNs, insertBytes, getNs, getBytes);
+		}
+	}
+
+	/**
+	 * Measures read-mostly throughput with 1 to maxThreads threads sharing one
+	 * list of 1000 keys. One operation in 50 is a write. DS_MyConcurrent is
+	 * compared against a DS_My behind a single lock.
+	 * @param maxThreads largest number of threads to run
+	 */
+	static void concurrent(int maxThreads) {
+		System.out.println("== concurrent: million ops/sec, 1 write per 50 ops ==");
+		System.out.printf("%8s %16s %16s%n", "threads", "DS_MyConcurrent", "synchronized");
+		// doubles the thread count each step, ending at exactly maxThreads
+		for (int threads = 1; ; threads = Math.min(threads * 2, maxThreads)) {
+			double cow = throughput(new DS_MyConcurrent(), threads, 1000);
+			double locked = throughput(new SynchronizedADT(new DS_My()), threads, 1000);
+			System.out.printf("%8d %16.2f %16.2f%n", threads, cow, locked);
+			if (threads >= maxThreads) {
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Measures read-mostly throughput at 1, 4 and 16 threads sharing one
+	 * structure of 10^4 keys, with one write per 50 ops. DS_SkipList is
+	 * compared against a DS_My behind a single lock.
+	 */
+	static void skipList() {
+		System.out.println("== skiplist: million ops/sec, 1 write per 50 ops ==");
+		System.out.printf("%8s %16s %16s%n", "threads", "DS_SkipList", "synchronized");
+		for (int threads : new int[] {1, 4, 16}) {
+			double skip = throughput(new DS_SkipList(), threads, 10_000);
+			double locked = throughput(new SynchronizedADT(new DS_My()), threads, 10_000);
+			System.out.printf("%8d %16.2f %16.2f%n", threads, skip, locked);
+		}
+	}
+
+	/**
+	 * Runs the read-mostly workload on a shared structure for a fixed time
+	 * @param ds structure to share, filled here with n keys
+	 * @param threads number of threads
+	 * @param n number of keys
+	 * @return million operations per second over all threads
+	 */
+	@SuppressWarnings("unchecked")
+	static double throughput(DataStructureADT ds, int threads, int n) {
+		Integer[] keys = keys(n);
+		ds.insertAll(keys, keys);
+		long millis = 1000;
+		long[] ops = new long[threads];
+		Thread[] workers = new Thread[threads];
+		long stopAt = System.currentTimeMillis() + 200 + millis;
+		long startAt = stopAt - millis;
+		for (int t = 0; t < threads; t++) {
+			final int id = t;
+			workers[t] = new Thread(() -> {
+				Random random = new Random(id);
+				Integer own = -1 - id; // key only this thread writes
+				long count = 0;
+				boolean counting = false;
+				while (true) {
+					for (int i = 0; i < 50; i++) {
+						if (i == 0) {
+							// toggles this thread's own key in and out
+							if (!ds.remove(own)) {
+								ds.insert(own, own);
+							}
+						} else if (!ds.contains(keys[random.nextInt(n)])) {
+							throw new IllegalStateException("key lost");
+						}
+					}
+					long now = System.currentTimeMillis();
+					if (now >= stopAt) {
+						break;
+					}
+					if (counting) {
+						count += 50;
+					} else {
+						// the first 200 ms are a warm-up
+						counting = now >= startAt;
+					}
+				}
+				ops[id] = count;
+			});
+			workers[t].start();
+		}
+		long total = 0;
+		for (int t = 0; t < threads; t++) {
+			try {
+				workers[t].join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException(e);
+			}
+			total += ops[t];
+		}
+		return total / (millis * 1000.0);
+	}
+
+	/**
+	 * A DataStructureADT that serializes every call on one lock
+	 */
+	@SuppressWarnings({"rawtypes", "unchecked"})
+	private static final class SynchronizedADT implements DataStructureADT {
+		private final DataStructureADT ds;
+
+		private SynchronizedADT(DataStructureADT ds) {
+			this.ds = ds;
+		}
+
+		public synchronized void insert(Comparable k, Object v) { ds.insert(k, v); }
+		public synchronized boolean remove(Comparable k) { return ds.remove(k); }
+		public synchronized Object get(Comparable k) { return ds.get(k); }
+		public synchronized boolean contains(Comparable k) { return ds.contains(k); }
+		public synchronized int size() { return ds.size(); }
+		public synchronized void insertAll(Comparable[] ks, Object[] vs) { ds.insertAll(ks, vs); }
+		public synchronized int removeAll(Comparable[] ks) { return ds.removeAll(ks); }
+	}
+
+	/**
+	 * Looks keys up with a Zipf distribution and reports the average number
+	 * of elements scanned per lookup and the time per lookup, for DS_My and
+	 * for each DS_MySelfOrganizing policy. Keys are inserted in random order
+	 * so the hot keys do not start at the front.
+	 */
+	static void zipf() {
+		int n = 10_000;
+		int lookups = 1_000_000;
+		double exponent = 1.2;
+		int[] ranks = zipfRanks(n, exponent, lookups, 7);
+		int hot = 0;
+		for (int rank : ranks) {
+			if (rank < n / 100) {
+				hot++;
+			}
+		}
+		System.out.println("== zipf: " + n + " keys, exponent " + exponent + ", "
+			+ Math.round(100.0 * hot / lookups) + "% of lookups hit the top 1% of keys ==");
+		System.out.printf("%16s %16s %12s%n", "structure", "scanned/lookup", "ns/lookup");
+
+		Integer[] keys = keys(n);
+		Integer[] shuffled = keys.clone();
+		Collections.shuffle(Arrays.asList(shuffled), new Random(3));
+		DS_My[] lists = {new DS_My(n),
+			new DS_MySelfOrganizing(DS_MySelfOrganizing.Policy.MOVE_TO_FRONT, n),
+			new DS_MySelfOrganizing(DS_MySelfOrganizing.Policy.TRANSPOSE, n)};
+		String[] names = {"DS_My", "MOVE_TO_FRONT", "TRANSPOSE"};
+		for (int l = 0; l < lists.length; l++) {
+			DS_My ds = fill(lists[l], shuffled);
+			// counts the scan length of each lookup, then times the same lookups
+			long scanned = 0;
+			for (int rank : ranks) {
+				scanned += ds.indexOf(keys[rank]) + 1;
+				ds.get(keys[rank]);
+			}
+			DS_My timed = fill(l == 0 ? new DS_My(n) : new DS_MySelfOrganizing(
+				((DS_MySelfOrganizing) ds).getPolicy(), n), shuffled);
+			long start = System.nanoTime();
+			int found = 0;
+			for (int rank : ranks) {
+				if (timed.get(keys[rank]) != null) {
+					found++;
+				}
+			}
+			double ns = check(found, lookups, start);
+			System.out.printf("%16s %16.1f %12.1f%n", names[l], (double) scanned / lookups, ns);
+		}
+	}
+
+	/**
+	 * Runs a churn of removes and inserts on a DS_My of 2*10^4 keys and
+	 * reports how many bytes of the arrays were copied per operation. A
+	 * compaction threshold of 0 compacts on every remove, which is what
+	 * shifting the list down on each remove costs.
+	 */
+	static void churn() {
+		int n = 20_000;
+		int steps = 20_000;
+		System.out.println("== churn: " + n + " keys, " + steps
+			+ " remove+insert steps, bytes copied assume 4-byte references ==");
+		System.out.printf("%10s %14s %14s %12s%n", "threshold", "pairs/op", "bytes/op", "ns/op");
+		for (double threshold : new double[] {0, 0.1, 0.25, 0.5}) {
+			DS_My ds = new DS_My(n, threshold);
+			int[] live = new int[n]; // keys currently in the list
+			for (int i = 0; i < n; i++) {
+				ds.insert(i, VALUE);
+				live[i] = i;
+			}
+			Random random = new Random(11);
+			int next = n;
+			long movedBefore = ds.moved;
+			long start = System.nanoTime();
+			for (int step = 0; step < steps; step++) {
+				int slot = random.nextInt(n);
+				if (!ds.remove(live[slot])) {
+					throw new IllegalStateException("key lost");
+				}
+				ds.insert(next, VALUE);
+				live[slot] = next++;
+			}
+			int ops = 2 * steps;
+			double ns = (double) (System.nanoTime() - start) / ops;
+			double pairs = (double) (ds.moved - movedBefore) / ops;
+			// each pair is a key reference and a value reference
+			System.out.printf("%10.2f %14.1f %14.1f %12.0f%n", threshold, pairs, pairs * 8, ns);
+		}
+	}
+
+	/**
+	 * Times get on a DS_MyHashed of 10^5 keys bare and behind DS_Instrumented
+	 * with each option turned on, timing every call or one in 64, then prints what the instrumentation saw of
+	 * DS_My, DS_MySorted and DS_MyHashed running the same workload.
+	 */
+	@SuppressWarnings("unchecked")
+	static void instrumented() {
+		int n = 100_000;
+		int lookups = 1_000_000;
+		Integer[] keys = keys(n);
+		Integer[] probes = probes(keys, lookups, n);
+		System.out.println("== instrumented: get ns/op on DS_MyHashed, " + n + " keys ==");
+		String[] names = {"bare", "latency", "+comparisons", "+allocations", "latency 1/64",
+			"+comparisons 1/64", "+allocations 1/64"};
+		for (int round = 0; round < 2; round++) { // the first round is warm-up
+			for (int option = 0; option < names.length; option++) {
+				DataStructureADT<Integer, Integer> ds = new DS_MyHashed(n);
+				if (option > 0) {
+					int level = (option - 1) % 3; // 0 latency, 1 comparisons, 2 allocations
+					ds = new DS_Instrumented<>(ds, level >= 1, level >= 2, option > 3 ? 64 : 1);
+				}
+				ds.insertAll(keys, keys);
+				long start = System.nanoTime();
+				int found = 0;
+				for (Integer k : probes) {
+					if (ds.get(k) != null) {
+						found++;
+					}
+				}
+				double ns = check(found, lookups, start);
+				if (round == 1) {
+					System.out.printf("%18s %10.1f%n", names[option], ns);
+				}
+			}
+		}
+
+		int small = 2_000;
+		Integer[] smallKeys = keys(small);
+		Integer[] smallProbes = probes(smallKeys, 10 * small, small);
+		DataStructureADT[] structures = {new DS_My(), new DS_MySorted(), new DS_MyHashed()};
+		for (DataStructureADT structure : structures) {
+			DS_Instrumented<Integer, Integer> ds = new DS_Instrumented<>(structure, true, true);
+			for (Integer k : smallKeys) {
+				ds.insert(k, k);
+			}
+			for (Integer k : smallProbes) {
+				ds.get(k);
+				ds.contains(k);
+			}
+			for (int i = 0; i < small; i += 2) {
+				ds.remove(smallKeys[i]);
+			}
+			System.out.println("-- " + structure.getClass().getSimpleName() + ", " + small
+				+ " inserts, " + smallProbes.length + " gets and contains, " + small / 2
+				+ " removes --");
+			System.out.print(ds.snapshot().toText());
+		}
+	}
+
+	/**
+	 * Fills a DS_My and a DS_OffHeap with n Integer pairs and compares the
+	 * heap they keep live and the garbage collection pauses a run of short
+	 * lived allocations causes while each is held, along with the time of
+	 * a full collection. DS_My is filled with appends, since its duplicate
+	 * check would make building it quadratic.
+	 * @param n number of pairs
+	 */
+	static void offHeap(int n) {
+		StringBuilder collectors = new StringBuilder();
+		for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+			collectors.append(collectors.length() == 0 ? "" : ", ").append(gc.getName());
+		}
+		System.out.println("== offheap: " + n + " Integer pairs, collectors: " + collectors + " ==");
+		System.out.printf("%12s %10s %12s %10s %12s %14s%n", "structure", "heap MB",
+			"off-heap MB", "GCs", "GC ms", "full GC ms");
+		long empty = usedHeap();
+		for (int s = 0; s < 2; s++) {
+			DataStructureADT<Integer, Integer> ds;
+			long offHeap = 0;
+			if (s == 0) {
+				ds = fill(new DS_My(n), keys(n));
+			} else {
+				DS_OffHeap<Integer, Integer> store = new DS_OffHeap<>(Codec.INTEGER, Codec.INTEGER, n);
+				for (int i = 0; i < n; i++) {
+					store.insert(i, i);
+				}
+				offHeap = store.offHeapBytes();
+				ds = store;
+			}
+			double heapMb = (usedHeap() - empty) / 1e6;
+
+			long collections = 0;
+			long collectionMs = 0;
+			for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+				collections -= gc.getCollectionCount();
+				collectionMs -= gc.getCollectionTime();
+			}
+			// allocates about 2GB, keeping the last 4096 arrays alive so
+			// young collections have survivors to copy
+			Object[] survivors = new Object[4096];
+			for (int i = 0; i < 20_000_000; i++) {
+				survivors[i & 4095] = new long[10];
+			}
+			for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+				collections += gc.getCollectionCount();
+				collectionMs += gc.getCollectionTime();
+			}
+
+			long start = System.nanoTime();
+			for (int i = 0; i < 3; i++) {
+				System.gc();
+			}
+			double fullMs = (System.nanoTime() - start) / 3e6;
+			if (ds.size() != n || !ds.contains(n - 1)) {
+				throw new IllegalStateException("pairs lost");
+			}
+			System.out.printf("%12s %10.1f %12.1f %10d %12d %14.1f%n", ds.getClass().getSimpleName(),
+				heapMb, offHeap / 1e6, collections, collectionMs, fullMs);
+		}
+	}
+
+	/**
+	 * Writes a DS_My of n Integer pairs to a snapshot file and times
+	 * restoring it against rebuilding the list by reinserting the pairs.
+	 * insertAll gets the pairs already in memory, so it is timed without
+	 * any reading at all. Insert checks every key against the whole list,
+	 * so it is timed on the first 2*10^4 pairs only; its cost per pair
+	 * keeps growing with the size of the list. A collection is run before
+	 * each timed method.
+	 * @param n number of pairs
+	 */
+	static void snapshot(int n) {
+		System.out.println("== snapshot: " + n + " Integer pairs, best of 5 ==");
+		Integer[] keys = keys(n);
+		DS_My list = fill(new DS_My(n), keys);
+		Path file;
+		double writeMs;
+		try {
+			file = Files.createTempFile("DS_My", ".snapshot");
+			long start = System.nanoTime();
+			list.writeSnapshot(file, Codec.INTEGER, Codec.INTEGER);
+			writeMs = (System.nanoTime() - start) / 1e6;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		System.out.printf("%-24s %10s %12s%n", "", "ms", "ns/pair");
+		System.out.printf("%-24s %10.1f %12.1f%n", "writeSnapshot", writeMs, writeMs * 1e6 / n);
+
+		double restoreMs = Double.MAX_VALUE;
+		double insertAllMs = Double.MAX_VALUE;
+		double insertMs = Double.MAX_VALUE;
+		int inserted = Math.min(n, 20_000);
+		for (int round = 0; round < 5; round++) {
+			// every method boxes or keeps n pairs, so each starts from a
+			// collected heap rather than paying for the one before it
+			System.gc();
+			long start = System.nanoTime();
+			DS_My restored;
+			try {
+				restored = DS_My.readSnapshot(file, Codec.INTEGER, Codec.INTEGER);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			restoreMs = Math.min(restoreMs, (System.nanoTime() - start) / 1e6);
+			if (restored.size() != n || !restored.get(n - 1).equals(n - 1)) {
+				throw new IllegalStateException("snapshot lost pairs");
+			}
+
+			restored = null;
+			System.gc();
+			start = System.nanoTime();
+			new DS_My(n).insertAll(keys, keys);
+			insertAllMs = Math.min(insertAllMs, (System.nanoTime() - start) / 1e6);
+
+			start = System.nanoTime();
+			DS_My slow = new DS_My(inserted);
+			for (int i = 0; i < inserted; i++) {
+				slow.insert(keys[i], keys[i]);
+			}
+			insertMs = Math.min(insertMs, (System.nanoTime() - start) / 1e6);
+		}
+		System.out.printf("%-24s %10.1f %12.1f%n", "readSnapshot", restoreMs, restoreMs * 1e6 / n);
+		System.out.printf("%-24s %10.1f %12.1f%n", "insertAll", insertAllMs, insertAllMs * 1e6 / n);
+		System.out.printf("%-24s %10.1f %12.1f%n", "insert, first " + inserted, insertMs,
+			insertMs * 1e6 / inserted);
+		try {
+			Files.delete(file);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Sums the even values of a DS_My of n Integer pairs, filled with
+	 * insertAll, with a loop over the arrays and with sequential and
+	 * parallel value streams. It is run again after removing keys near the
+	 * front, so the streams also run over tombstones and are not SIZED.
+	 * @param n number of pairs
+	 */
+	static void stream(int n) {
+		System.out.println("== stream: sum of even values of " + n + " pairs, best of 5, "
+			+ Runtime.getRuntime().availableProcessors() + " cores ==");
+		Integer[] keys = keys(n);
+		DS_My ds = new DS_My(n);
+		ds.insertAll(keys, keys);
+		long expected = 0;
+		for (int i = 0; i < n; i += 2) {
+			expected += i;
+		}
+		System.out.printf("%12s %10s %12s %12s%n", "tombstones", "loop ms", "stream ms", "parallel ms");
+		for (int pass = 0; pass < 2; pass++) {
+			if (pass == 1) {
+				// removes odd keys near the front, where the scan for each key
+				// is short, so the sum does not change
+				for (int i = 1; i < 4_000; i += 4) {
+					ds.remove(keys[i]);
+				}
+			}
+			double[] best = {Double.MAX_VALUE, Double.MAX_VALUE, Double.MAX_VALUE};
+			for (int round = 0; round < 5; round++) {
+				for (int way = 0; way < 3; way++) {
+					long start = System.nanoTime();
+					long sum;
+					if (way == 0) {
+						sum = 0;
+						for (int i = 0; i < ds.size; i++) {
+							if (ds.keys[i] != null && ((Integer) ds.values[i] & 1) == 0) {
+								sum += (Integer) ds.values[i];
+							}
+						}
+					} else {
+						Stream<Object> values = way == 1 ? ds.valueStream() : ds.valueStream().parallel();
+						sum = values.mapToLong(v -> (Integer) v).filter(v -> (v & 1) == 0).sum();
+					}
+					best[way] = Math.min(best[way], (System.nanoTime() - start) / 1e6);
+					if (sum != expected) {
+						throw new IllegalStateException("sum " + sum + " instead of " + expected);
+					}
+				}
+			}
+			System.out.printf("%12d %10.1f %12.1f %12.1f%n", ds.tombstones, best[0], best[1], best[2]);
+		}
+	}
+
+	/**
+	 * Replays a Zipf trace of reads over 10^6 keys against DS_Cache with
+	 * each policy and two sizes, inserting every key that misses, and
+	 * reports the hit ratio and the throughput of the whole replay.
+	 */
+	static void cache() {
+		int universe = 1_000_000;
+		int requests = 5_000_000;
+		double exponent = 0.9;
+		Integer[] keys = keys(universe);
+		int[] trace = zipfRanks(universe, exponent, requests, 16);
+		System.out.println("== cache: " + requests + " Zipf(" + exponent + ") reads over "
+			+ universe + " keys, insert on miss ==");
+		System.out.printf("%10s %10s %10s %12s %12s%n", "max size", "policy", "hit ratio",
+			"evictions", "Mops/sec");
+		for (int maxSize : new int[] {universe / 100, universe / 10}) {
+			for (DS_Cache.Policy policy : DS_Cache.Policy.values()) {
+				double best = 0;
+				DS_Cache cache = null;
+				for (int round = 0; round < 2; round++) { // the first round is warm-up
+					cache = new DS_Cache(maxSize, policy);
+					long start = System.nanoTime();
+					for (int rank : trace) {
+						if (cache.get(keys[rank]) == null) {
+							cache.insert(keys[rank], VALUE);
+						}
+					}
+					best = Math.max(best, requests * 1e3 / (System.nanoTime() - start));
+				}
+				System.out.printf("%10d %10s %10.3f %12d %12.2f%n", maxSize, policy,
+					(double) cache.getHits() / requests, cache.getEvictions(), best);
+			}
+		}
+	}
+
+	/**
+	 * Runs 10^6 session inserts on a simulated clock, one every 100us, each
+	 * living 1 to 60 seconds. DS_Expiring reclaims them with its timer wheel.
+	 * The baseline keeps each deadline as the value in a DS_MyHashed and at
+	 * a fixed interval scans every pair and removes the expired ones one key
+	 * at a time; it is run with three intervals. Reports the wall time of
+	 * the whole run and the most expired pairs each was still holding,
+	 * checked every 10ms of simulated time.
+	 */
+	static void expiring() {
+		int sessions = 1_000_000;
+		long step = TimeUnit.MICROSECONDS.toNanos(100);
+		long check = TimeUnit.MILLISECONDS.toNanos(10);
+		Integer[] keys = keys(sessions);
+		long[] ttls = new long[sessions];
+		Random random = new Random(17);
+		for (int i = 0; i < sessions; i++) {
+			ttls[i] = TimeUnit.MILLISECONDS.toNanos(1_000 + random.nextInt(59_000));
+		}
+		// live sessions at each check, counted before anything is timed
+		int[] live = new int[(int) (sessions * step / check) + 1];
+		for (int i = 0; i < sessions; i++) {
+			long inserted = (i + 1) * step;
+			long deadline = inserted + ttls[i];
+			live[(int) ((inserted + check - 1) / check)]++;
+			int gone = (int) ((deadline + check - 1) / check);
+			if (gone < live.length) {
+				live[gone]--;
+			}
+		}
+		for (int c = 1; c < live.length; c++) {
+			live[c] += live[c - 1];
+		}
+
+		System.out.println("== expiring: " + sessions + " sessions, one per 100us, living 1-60s ==");
+		System.out.printf("%28s %10s %12s %14s%n", "", "ms", "ns/session", "stale pairs");
+		long[] purgeEvery = {0, TimeUnit.SECONDS.toNanos(1), TimeUnit.MILLISECONDS.toNanos(100), check};
+		for (int round = 0; round < 2; round++) { // the first round is warm-up
+			for (long purge : purgeEvery) {
+				long[] clock = {0};
+				DataStructureADT ds;
+				String name;
+				if (purge == 0) {
+					ds = new DS_Expiring(Long.MAX_VALUE, TimeUnit.MILLISECONDS.toNanos(1), () -> clock[0]);
+					name = "DS_Expiring wheel";
+				} else {
+					ds = new DS_MyHashed();
+					name = "DS_MyHashed scan per " + TimeUnit.NANOSECONDS.toMillis(purge) + "ms";
+				}
+				Comparable[] expired = new Comparable[sessions];
+				int stale = 0;
+				long start = System.nanoTime();
+				for (int i = 0; i < sessions; i++) {
+					clock[0] += step;
+					if (purge == 0) {
+						((DS_Expiring) ds).insert(keys[i], VALUE, ttls[i], TimeUnit.NANOSECONDS);
+					} else {
+						ds.insert(keys[i], clock[0] + ttls[i]);
+					}
+					if (clock[0] % check == 0) {
+						stale = Math.max(stale, ds.size() - live[(int) (clock[0] / check)]);
+					}
+					if (purge != 0 && clock[0] % purge == 0) {
+						DS_MyHashed scanned = (DS_MyHashed) ds;
+						int count = 0;
+						for (int slot = 0; slot < scanned.size; slot++) {
+							if ((Long) scanned.values[slot] <= clock[0]) {
+								expired[count++] = scanned.keys[slot];
+							}
+						}
+						for (int e = 0; e < count; e++) {
+							scanned.remove(expired[e]);
+						}
+					}
+				}
+				double ms = (System.nanoTime() - start) / 1e6;
+				if (round == 1) {
+					System.out.printf("%28s %10.1f %12.1f %14d%n", name, ms, ms * 1e6 / sessions, stale);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Draws ranks from a Zipf distribution, where rank r is drawn with
+	 * probability proportional to 1 / (r + 1)^exponent
+	 * @param n number of ranks
+	 * @param exponent skew of the distribution
+	 * @param count number of ranks to draw
+	 * @param seed random seed
+	 * @return ranks between 0 and n - 1
+	 */
+	static int[] zipfRanks(int n, double exponent, int count, long seed) {
+		double[] cumulative = new double[n];
+		double total = 0;
+		for (int r = 0; r < n; r++) {
+			total += 1 / Math.pow(r + 1, exponent);
+			cumulative[r] = total;
+		}
+		Random random = new Random(seed);
+		int[] ranks = new int[count];
+		for (int i = 0; i < count; i++) {
+			int r = Arrays.binarySearch(cumulative, random.nextDouble() * total);
+			ranks[i] = r >= 0 ? r : -(r + 1);
+		}
+		return ranks;
+	}
+
+	private static double scanParallel(DS_My ds, Integer[] probes) {
+		long start = System.nanoTime();
+		int found = 0;
+		for (Integer k : probes) {
+			if (ds.contains(k)) {
+				found++;
+			}
+		}
+		return check(found, probes.length, start);
+	}
+
+	private static double scanElements(ElementList ds, Integer[] probes) {
+		long start = System.nanoTime();
+		int found = 0;
+		for (Integer k : probes) {
+			if (ds.contains(k)) {
+				found++;
+			}
+		}
+		return check(found, probes.length, start);
+	}
+
+	/**
+	 * Checks that every probe was found and returns the ns per operation
+	 * @param found probes found
+	 * @param ops probes looked up
+	 * @param start nanoTime when the loop started
+	 * @return ns per operation
+	 */
+	static double check(int found, int ops, long start) {
+		double ns = (double) (System.nanoTime() - start) / ops;
+		if (found != ops) {
+			throw new IllegalStateException("found " + found + " of " + ops);
+		}
+		return ns;
+	}
+
+	/**
+	 * Creates n distinct keys
+	 * @param n number of keys
+	 * @return keys 0 to n - 1, boxed once
+	 */
+	static Integer[] keys(int n) {
+		Integer[] keys = new Integer[n];
+		for (int i = 0; i < n; i++) {
+			keys[i] = i;
+		}
+		return keys;
+	}
+
+	/**
+	 * Picks count keys uniformly at random from the first n keys
+	 * @param keys keys to pick from
+	 * @param count number of probes
+	 * @param n number of keys to pick from
+	 * @return probes, boxed apart from the keys so lookups go through equals;
+	 *         only the cached values -128 to 127 share the key's instance
+	 */
+	static Integer[] probes(Integer[] keys, int count, int n) {
+		Random random = new Random(42);
+		Integer[] probes = new Integer[count];
+		for (int i = 0; i < count; i++) {
+			probes[i] = Integer.valueOf(keys[random.nextInt(n)].intValue());
+		}
+		return probes;
+	}
+
+	/**
+	 * Appends every key to a DS_My without the duplicate check, which would
+	 * make building a large list quadratic
+	 * @param ds list to fill
+	 * @param keys distinct keys
+	 * @return ds
+	 */
+	static <T extends DS_My> T fill(T ds, Integer[] keys) {
+		for (Integer k : keys) {
+			ds.insertAt(ds.size, k, k);
+		}
+		return ds;
+	}
+
+	private static ElementList fill(ElementList ds, Integer[] keys) {
+		for (Integer k : keys) {
+			ds.add(k, k);
+		}
+		return ds;
+	}
+
+	/**
+	 * Gets the bytes allocated by the current thread so far
+	 * @return allocated bytes, or 0 if the VM does not track them
+	 */
+	static long allocatedBytes() {
+		java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		if (threads instanceof com.sun.management.ThreadMXBean) {
+			return ((com.sun.management.ThreadMXBean) threads)
+				.getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		return 0;
+	}
+
+	/**
+	 * Gets the bytes of heap in use after asking for a few full collections
+	 * @return used heap bytes
+	 */
+	static long usedHeap() {
+		Runtime runtime = Runtime.getRuntime();
+		long used = Long.MAX_VALUE;
+		for (int i = 0; i < 5; i++) {
+			System.gc();
+			used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+		}
+		return used;
+	}
+
+	/**
+	 * The array-of-objects layout DS_My used before its parallel arrays, kept
+	 * here as the baseline. Element is an inner class, so like the original
+	 * it carries a hidden reference to its list.
+	 */
+	private static final class ElementList {
+
+		private class Element {
+			private final Comparable key;
+			private final Object value;
+
+			private Element(Comparable key, Object value) {
+				this.key = key;
+				this.value = value;
+			}
+		}
+
+		private Element[] store;
+		private int size;
+
+		private ElementList(int capacity) {
+			store = new Element[capacity];
+		}
+
+		private void add(Comparable k, Object v) {
+			store[size++] = new Element(k, v);
+		}
+
+		private boolean contains(Comparable k) {
+			for (int i = 0; i < size; i++) {
+				if (k.equals(store[i].key)) {
+					return true;
+				}
+			}
+			return false;
+		}
+	}
+
+}
@@ -0,0 +1,99 @@
+import java.util.Spliterator;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+/**
+ * A spliterator over the parallel key and value arrays of a DS_My that
+ * skips tombstones. Each pair is turned into the element it reports by a
+ * function given by the owner, so one class serves the key, value and entry
+ * streams.
+ *
+ * The spliterator is SIZED only when the range it was created over has no
+ * tombstones; otherwise its size is an estimate that counts the tombstones
+ * too. It splits in half by index, so splitting is O(1) and the halves of a
+ * range without tombstones are SIZED as well.
+ *
+ * The list must not be changed while a spliterator over it is in use.
+ *
+ * @author Rohan Mendiratta
+ * @version 1.0
+ * @param <T> type of the elements reported
+ */
+final class PairSpliterator<T> implements Spliterator<T> {
+
+	private final Comparable[] keys; // keys of the list, null marks a tombstone
+	private final Object[] values; // values[i] belongs to keys[i]
+	private final BiFunction<Comparable, Object, T> element; // makes the element of a pair
+	private final int characteristics; // of this spliterator and every split
+	private int index; // next slot to visit
+	private final int fence; // one past the last slot to visit
+
+	/**
+	 * Creates a spliterator over slots [index, fence) of a list
+	 * @param keys keys of the list
+	 * @param values values of the list
+	 * @param element makes the element reported for a key and its value
+	 * @param index first slot
+	 * @param fence one past the last slot
+	 * @param sized true if the slots hold no tombstones
+	 * @param characteristics characteristics of the elements besides SIZED
+	 */
+	PairSpliterator(Comparable[] keys, Object[] values, BiFunction<Comparable, Object, T> element,
+		int index, int fence, boolean sized, int characteristics) {
+		this.keys = keys;
+		this.values = values;
+		this.element = element;
+		this.index = index;
+		this.fence = fence;
+		this.characteristics = characteristics | Spliterator.ORDERED
+			| (sized ? Spliterator.SIZED | Spliterator.SUBSIZED : 0);
+	}
+
+	@Override
+	public boolean tryAdvance(Consumer<? super T> action) {
+		while (index < fence) {
+			int i = index++;
+			if (keys[i] != null) {
+				action.accept(element.apply(keys[i], values[i]));
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public void forEachRemaining(Consumer<? super T> action) {
+		Comparable[] ks = keys;
+		Object[] vs = values;
+		int end = fence;
+		for (int i = index; i < end; i++) {
+			if (ks[i] != null) {
+				action.accept(element.apply(ks[i], vs[i]));
+			}
+		}
+		index = end;
+	}
+
+	@Override
+	public Spliterator<T> trySplit() {
+		int lo = index;
+		int mid = (lo + fence) >>> 1;
+		if (lo >= mid) {
+			return null;
+		}
+		index = mid;
+		return new PairSpliterator<>(keys, values, element, lo, mid,
+			(characteristics & Spliterator.SIZED) != 0, characteristics);
+	}
+
+	@Override
+	public long estimateSize() {
+		return fence - index;
+	}
+
+	@Override
+	public int characteristics() {
+		return characteristics;
+	}
+
+}
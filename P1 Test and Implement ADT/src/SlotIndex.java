@@ -0,0 +1,186 @@
+/**
+ * An open-addressing hash index that maps keys to int slots of an array kept
+ * by its owner. The index only stores slot numbers and key hashes; the owner
+ * looks keys up by slot through a {@link Keys} callback when probing.
+ *
+ * Linear probing is used with a load factor of at most one half, and removal
+ * shifts later entries back instead of leaving tombstones, so lookups stay
+ * expected O(1) after any number of removes.
+ *
+ * @author Rohan Mendiratta
+ * @version 1.0
+ */
+final class SlotIndex {
+
+	/**
+	 * Gives the index access to the key stored at a slot
+	 */
+	interface Keys {
+		Object keyAt(int slot);
+	}
+
+	private static final int MIN_TABLE = 16; // smallest table length, power of two
+
+	private final Keys keys; // owner's keys by slot
+	private int[] slots; // slot + 1 of each entry, 0 marks an empty bucket
+	private int[] hashes; // spread hash of the key in each bucket
+	private int mask; // slots.length - 1
+	private int count; // number of entries
+
+	/**
+	 * Creates an index sized for expected entries
+	 * @param expected number of entries to allocate room for
+	 * @param keys callback used to read the owner's keys
+	 */
+	SlotIndex(int expected, Keys keys) {
+		this.keys = keys;
+		allocate(tableLengthFor(expected));
+	}
+
+	/**
+	 * Finds the slot of a key
+	 * @param key key to search for, must not be null
+	 * @return slot of the key, or -1 if not present
+	 */
+	int find(Object key) {
+		int h = spread(key.hashCode());
+		for (int i = h & mask; slots[i] != 0; i = (i + 1) & mask) {
+			if (hashes[i] == h && key.equals(keys.keyAt(slots[i] - 1))) {
+				return slots[i] - 1;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Adds a key that is known not to be in the index
+	 * @param key key stored at slot, must not be null
+	 * @param slot slot of the key in the owner's array
+	 */
+	void add(Object key, int slot) {
+		if (count + 1 > (slots.length >> 1)) {
+			rehash(slots.length << 1);
+		}
+		int h = spread(key.hashCode());
+		int i = h & mask;
+		while (slots[i] != 0) {
+			i = (i + 1) & mask;
+		}
+		slots[i] = slot + 1;
+		hashes[i] = h;
+		count++;
+	}
+
+	/**
+	 * Removes a key from the index
+	 * @param key key to remove, must not be null
+	 * @return slot the key was stored at, or -1 if not present
+	 */
+	int remove(Object key) {
+		int h = spread(key.hashCode());
+		for (int i = h & mask; slots[i] != 0; i = (i + 1) & mask) {
+			if (hashes[i] == h && key.equals(keys.keyAt(slots[i] - 1))) {
+				int slot = slots[i] - 1;
+				deleteBucket(i);
+				return slot;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Points the entry of a key at a new slot after the owner moved it.
+	 * Only slot numbers are compared, so the key's equals is not called.
+	 * @param key key that moved, must not be null
+	 * @param from slot the key used to be stored at
+	 * @param to slot the key is stored at now
+	 */
+	void move(Object key, int from, int to) {
+		int h = spread(key.hashCode());
+		for (int i = h & mask; slots[i] != 0; i = (i + 1) & mask) {
+			if (slots[i] == from + 1) {
+				slots[i] = to + 1;
+				return;
+			}
+		}
+		throw new IllegalStateException("slot " + from + " is not indexed");
+	}
+
+	/**
+	 * Empties bucket i and shifts later entries of the same probe run back
+	 * so that no lookup stops early at the hole.
+	 * @param i bucket to empty
+	 */
+	private void deleteBucket(int i) {
+		int hole = i;
+		for (int j = (i + 1) & mask; slots[j] != 0; j = (j + 1) & mask) {
+			int home = hashes[j] & mask;
+			// the entry at j may fill the hole only if its home bucket is not
+			// inside the cyclic range (hole, j]
+			if (((j - home) & mask) >= ((j - hole) & mask)) {
+				slots[hole] = slots[j];
+				hashes[hole] = hashes[j];
+				hole = j;
+			}
+		}
+		slots[hole] = 0;
+		count--;
+	}
+
+	/**
+	 * Moves every entry into a table of a new length
+	 * @param length new table length, power of two
+	 */
+	private void rehash(int length) {
+		int[] oldSlots = slots;
+		int[] oldHashes = hashes;
+		allocate(length);
+		for (int b = 0; b < oldSlots.length; b++) {
+			if (oldSlots[b] != 0) {
+				int i = oldHashes[b] & mask;
+				while (slots[i] != 0) {
+					i = (i + 1) & mask;
+				}
+				slots[i] = oldSlots[b];
+				hashes[i] = oldHashes[b];
+				count++;
+			}
+		}
+	}
+
+	/**
+	 * Replaces the table with an empty one
+	 * @param length table length, power of two
+	 */
+	private void allocate(int length) {
+		slots = new int[length];
+		hashes = new int[length];
+		mask = length - 1;
+		count = 0;
+	}
+
+	/**
+	 * Gets the smallest table length that holds expected entries at a load
+	 * factor of one half
+	 * @param expected number of entries
+	 * @return table length, power of two
+	 */
+	private static int tableLengthFor(int expected) {
+		int length = MIN_TABLE;
+		while (length < (1 << 30) && (length >> 1) < expected) {
+			length <<= 1;
+		}
+		return length;
+	}
+
+	/**
+	 * Mixes the high bits of a hash code into the low bits used for the bucket
+	 * @param h hash code
+	 * @return spread hash
+	 */
+	static int spread(int h) {
+		h *= 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+}
@@ -0,0 +1,157 @@
+// TO TEST A DATA STRUCTURE CLASS:
+//
+// for each data structure class file you wish to test:
+//     1. create a test class (like this one) 
+//     2. edit the actual type being created (line 16)
+//     3. run this test class 
+//     4. OR, configure Eclipse project to run all tests
+//        Eclipse: Run->Run Configurations->"Run All Tests..."
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("rawtypes")
+public class TestDS_Cache extends DataStructureADTTest {
+
+	// the return type must be the name of the data structure class you are testing
+	@Override
+	protected DataStructureADT createInstance() {
+		// large enough that the shared tests never cause an eviction
+		return new DS_Cache(2000, DS_Cache.Policy.LRU);
+	}
+
+	/**
+	 * Makes a cache holding a, b and c, inserted in that order
+	 */
+	private static DS_Cache abc(DS_Cache.Policy policy) {
+		DS_Cache cache = new DS_Cache(3, policy);
+		cache.insert("a", "1");
+		cache.insert("b", "2");
+		cache.insert("c", "3");
+		return cache;
+	}
+
+	/**
+	 * Checks which of the keys are in the cache
+	 */
+	private static void assertHeld(DS_Cache cache, String held, String evicted) {
+		for (char key : held.toCharArray()) {
+			assertTrue(cache.contains("" + key), key + " should be held");
+		}
+		for (char key : evicted.toCharArray()) {
+			assertFalse(cache.contains("" + key), key + " should be evicted");
+		}
+	}
+
+	@Test
+	void test100_lru_evicts_least_recently_used_after_a_get() {
+		DS_Cache cache = abc(DS_Cache.Policy.LRU);
+		// a becomes the most recently used, so b is now the oldest
+		assertEquals("1", cache.get("a"));
+		cache.insert("d", "4");
+		assertHeld(cache, "acd", "b");
+		cache.insert("e", "5");
+		assertHeld(cache, "ade", "bc");
+		// contains is not a read, so a is still the least recently used
+		assertTrue(cache.contains("a"));
+		cache.insert("f", "6");
+		assertHeld(cache, "def", "abc");
+	}
+
+	@Test
+	void test101_clock_gives_a_read_pair_one_second_chance() {
+		DS_Cache cache = abc(DS_Cache.Policy.CLOCK);
+		cache.get("a");
+		cache.get("a"); // CLOCK only remembers that a was read, not how often
+		// the hand clears a's bit and passes on to b
+		cache.insert("d", "4");
+		assertHeld(cache, "acd", "b");
+		cache.insert("e", "5");
+		assertHeld(cache, "ade", "bc");
+		// a was not read again, so the hand takes it next time round
+		cache.insert("f", "6");
+		assertHeld(cache, "def", "abc");
+	}
+
+	@Test
+	void test102_frequency_evicts_the_pair_with_the_lowest_count() {
+		DS_Cache cache = abc(DS_Cache.Policy.FREQUENCY);
+		cache.get("a");
+		cache.get("a");
+		cache.get("a");
+		cache.get("b");
+		// c was never read
+		cache.insert("d", "4");
+		assertHeld(cache, "abd", "c");
+		// b had one read, taken off on the last sweep, while a still has two
+		cache.insert("e", "5");
+		assertHeld(cache, "ade", "bc");
+		assertEquals(2, cache.getEvictions());
+	}
+
+	@Test
+	void test103_frequency_keeps_a_pair_clock_would_evict() {
+		DS_Cache clock = abc(DS_Cache.Policy.CLOCK);
+		DS_Cache frequency = abc(DS_Cache.Policy.FREQUENCY);
+		for (DS_Cache cache : new DS_Cache[] {clock, frequency}) {
+			cache.get("a");
+			cache.get("a");
+			cache.get("b");
+			cache.insert("d", "4");
+			cache.insert("e", "5");
+		}
+		// both evict c and then take a read off a and b; only FREQUENCY has one left for a
+		assertHeld(clock, "bde", "ac");
+		assertHeld(frequency, "ade", "bc");
+	}
+
+	@Test
+	void test104_counts_hits_misses_and_evictions() {
+		for (DS_Cache.Policy policy : DS_Cache.Policy.values()) {
+			DS_Cache cache = abc(policy);
+			assertEquals("2", cache.get("b"));
+			assertNull(cache.get("z"));
+			assertNull(cache.get("y"));
+			cache.contains("a"); // not counted
+			cache.insert("d", "4");
+			cache.insert("e", "5");
+			assertTrue(cache.remove("e"));
+			assertEquals(1, cache.getHits(), policy + " hits");
+			assertEquals(2, cache.getMisses(), policy + " misses");
+			// a remove is not an eviction
+			assertEquals(2, cache.getEvictions(), policy + " evictions");
+			assertEquals(2, cache.size(), policy + " size");
+		}
+	}
+
+	@Test
+	void test105_size_never_exceeds_max_size() {
+		Random random = new Random(11);
+		for (DS_Cache.Policy policy : DS_Cache.Policy.values()) {
+			DS_Cache cache = new DS_Cache(4, policy);
+			int inserts = 0;
+			int removes = 0;
+			for (int i = 0; i < 500; i++) {
+				String key = "" + random.nextInt(20);
+				int operation = random.nextInt(4);
+				if (operation == 0) {
+					if (cache.remove(key)) {
+						removes++;
+					}
+				} else if (operation == 1 || cache.contains(key)) {
+					cache.get(key);
+				} else {
+					cache.insert(key, key);
+					inserts++;
+				}
+				assertTrue(cache.size() <= cache.getMaxSize(), policy + " size " + cache.size());
+				assertEquals(inserts - removes - cache.getEvictions(), cache.size(), policy + " size");
+			}
+			assertTrue(cache.getEvictions() > 0, policy + " never evicted");
+		}
+	}
+
+}
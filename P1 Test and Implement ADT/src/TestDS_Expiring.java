@@ -0,0 +1,204 @@
+// TO TEST A DATA STRUCTURE CLASS:
+//
+// for each data structure class file you wish to test:
+//     1. create a test class (like this one) 
+//     2. edit the actual type being created (line 16)
+//     3. run this test class 
+//     4. OR, configure Eclipse project to run all tests
+//        Eclipse: Run->Run Configurations->"Run All Tests..."
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("rawtypes")
+public class TestDS_Expiring extends DataStructureADTTest {
+
+	private static final long TICK = 1_000; // nanoseconds per tick of the wheels made below
+
+	private long time; // reading of the fake clock, in nanoseconds
+
+	// the return type must be the name of the data structure class you are testing
+	@Override
+	protected DataStructureADT createInstance() {
+		// a TTL no test outlives, so every pair is scheduled on the wheel
+		return new DS_Expiring(1, TimeUnit.HOURS);
+	}
+
+	/**
+	 * Makes a structure on the fake clock, starting at time 0
+	 * @return empty structure whose pairs live forever unless given a TTL
+	 */
+	private DS_Expiring onFakeClock() {
+		time = 0;
+		return new DS_Expiring(Long.MAX_VALUE, TICK, () -> time);
+	}
+
+	/**
+	 * Inserts a pair that lives for a number of ticks
+	 */
+	private void insert(DS_Expiring ds, String key, long ticks) {
+		ds.insert(key, key, ticks * TICK, TimeUnit.NANOSECONDS);
+	}
+
+	@Test
+	void test100_pairs_expire_exactly_at_their_ttl_in_the_same_tick() {
+		DS_Expiring ds = onFakeClock();
+		insert(ds, "a", 5);
+		insert(ds, "b", 5);
+		insert(ds, "c", 6);
+
+		// one nanosecond before the TTL every pair is still there
+		time = 5 * TICK - 1;
+		assertTrue(ds.contains("a"));
+		assertEquals("b", ds.get("b"));
+		assertEquals(3, ds.size());
+
+		// a and b share a bucket and are reclaimed together
+		time = 5 * TICK;
+		assertFalse(ds.contains("a"));
+		assertNull(ds.get("b"));
+		assertTrue(ds.contains("c"));
+		assertEquals(1, ds.size());
+		assertEquals(2, ds.getExpirations());
+
+		time = 6 * TICK;
+		assertEquals(0, ds.size());
+		assertEquals(3, ds.getExpirations());
+	}
+
+	@Test
+	void test101_pairs_expire_exactly_across_level_boundaries() {
+		// level 1 starts at 64 ticks, level 2 at 4096 and level 3 at 262144
+		long[] ttls = {63, 64, 65, 127, 128, 4095, 4096, 4097, 5000, 262143, 262144, 300000};
+		DS_Expiring ds = onFakeClock();
+		for (long ttl : ttls) {
+			insert(ds, "k" + ttl, ttl);
+		}
+		for (int i = 0; i < ttls.length; i++) {
+			time = ttls[i] * TICK - 1;
+			assertTrue(ds.contains("k" + ttls[i]), "k" + ttls[i] + " expired early");
+			assertEquals(ttls.length - i, ds.size(), "size just before tick " + ttls[i]);
+			time = ttls[i] * TICK;
+			assertFalse(ds.contains("k" + ttls[i]), "k" + ttls[i] + " did not expire");
+			// the wheel must have reclaimed it by now, after cascading it down
+			assertEquals(ttls.length - i - 1, ds.size(), "size at tick " + ttls[i]);
+		}
+		assertEquals(ttls.length, ds.getExpirations());
+	}
+
+	@Test
+	void test102_size_matches_deadlines_while_the_clock_moves_in_steps() {
+		DS_Expiring ds = onFakeClock();
+		Random random = new Random(7);
+		long[] deadlines = new long[300];
+		int inserted = 0;
+		while (time < 20_000 * TICK) {
+			// inserts a few pairs at the current time, with TTLs on every level up to 2
+			for (int i = 0; i < 3 && inserted < deadlines.length; i++) {
+				long ttl = 1 + random.nextInt(random.nextBoolean() ? 100 : 10_000);
+				insert(ds, "k" + inserted, ttl);
+				deadlines[inserted++] = time + ttl * TICK;
+			}
+			time += (1 + random.nextInt(40)) * TICK + random.nextInt((int) TICK);
+			int live = 0;
+			for (int i = 0; i < inserted; i++) {
+				if (deadlines[i] > time) {
+					live++;
+				}
+			}
+			// a pair due within the current tick may still be counted
+			int dueThisTick = 0;
+			for (int i = 0; i < inserted; i++) {
+				if (deadlines[i] <= time && deadlines[i] > time / TICK * TICK) {
+					dueThisTick++;
+				}
+			}
+			int size = ds.size();
+			assertTrue(size >= live && size <= live + dueThisTick,
+				"size " + size + " with " + live + " live at " + time);
+		}
+		assertEquals(0, ds.size());
+		assertEquals(inserted, ds.getExpirations());
+	}
+
+	@Test
+	void test103_removed_then_reinserted_key_is_not_expired_by_its_old_timer() {
+		DS_Expiring ds = onFakeClock();
+		insert(ds, "k", 10);
+		time = 2 * TICK;
+		assertTrue(ds.remove("k"));
+		assertEquals(0, ds.size());
+
+		time = 3 * TICK;
+		insert(ds, "k", 100);
+		// the tick the first insert was due at passes without touching the new pair
+		time = 10 * TICK;
+		assertTrue(ds.contains("k"));
+		time = 12 * TICK;
+		assertEquals(1, ds.size());
+		assertEquals(0, ds.getExpirations());
+
+		time = 103 * TICK;
+		assertFalse(ds.contains("k"));
+		assertEquals(0, ds.size());
+		assertEquals(1, ds.getExpirations());
+	}
+
+	@Test
+	void test104_expired_key_can_be_inserted_again() {
+		DS_Expiring ds = onFakeClock();
+		insert(ds, "k", 70);
+		time = 70 * TICK;
+		// the old pair gives way instead of being a duplicate
+		insert(ds, "k", 70);
+		assertEquals(1, ds.size());
+		assertEquals(1, ds.getExpirations());
+		time = 139 * TICK;
+		assertTrue(ds.contains("k"));
+		time = 140 * TICK;
+		assertEquals(0, ds.size());
+		assertEquals(2, ds.getExpirations());
+	}
+
+	@Test
+	void test105_pair_moved_into_a_removed_slot_keeps_its_timer() {
+		DS_Expiring ds = onFakeClock();
+		insert(ds, "a", 10);
+		insert(ds, "b", 20);
+		insert(ds, "c", 30);
+		insert(ds, "d", 100);
+		// removing a moves the last pair, d, into its slot
+		assertTrue(ds.remove("a"));
+		// and removing b moves c into its slot
+		assertTrue(ds.remove("b"));
+		assertEquals(2, ds.size());
+
+		time = 29 * TICK;
+		assertEquals(2, ds.size());
+		time = 30 * TICK;
+		assertFalse(ds.contains("c"));
+		assertTrue(ds.contains("d"));
+		assertEquals(1, ds.size());
+		time = 100 * TICK;
+		assertEquals(0, ds.size());
+		assertEquals(2, ds.getExpirations());
+	}
+
+	@Test
+	void test106_remove_of_an_expired_pair_returns_false() {
+		DS_Expiring ds = onFakeClock();
+		insert(ds, "k", 5);
+		insert(ds, "forever", 1);
+		ds.insert("kept", "kept");
+		time = 5 * TICK;
+		assertFalse(ds.remove("k"));
+		assertTrue(ds.contains("kept"));
+		assertEquals(1, ds.size());
+		assertEquals(2, ds.getExpirations());
+	}
+
+}
@@ -0,0 +1,136 @@
+// TO TEST A DATA STRUCTURE CLASS:
+//
+// for each data structure class file you wish to test:
+//     1. create a test class (like this one) 
+//     2. edit the actual type being created (line 16)
+//     3. run this test class 
+//     4. OR, configure Eclipse project to run all tests
+//        Eclipse: Run->Run Configurations->"Run All Tests..."
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("rawtypes")
+public class TestDS_Instrumented extends DataStructureADTTest {
+
+	// the return type must be the name of the data structure class you are testing
+	@Override
+	protected DataStructureADT createInstance() {
+		return new DS_Instrumented(new DS_My(), true, true);
+	}
+
+	/**
+	 * Runs a known sequence on a DS_My: three inserts, a get that hits and
+	 * one that misses, a contains and a remove of the last key
+	 */
+	@SuppressWarnings("unchecked")
+	private static DS_Instrumented.Snapshot knownSequence() {
+		DS_Instrumented<String, String> ds = new DS_Instrumented<>(new DS_My(), true, false);
+		ds.insert("a", "1");
+		ds.insert("b", "2");
+		ds.insert("c", "3");
+		assertEquals("2", ds.get("b"));
+		assertNull(ds.get("z"));
+		assertTrue(ds.contains("a"));
+		assertTrue(ds.remove("c"));
+		return ds.snapshot();
+	}
+
+	@Test
+	void test100_snapshot_counts_calls_and_comparisons() {
+		DS_Instrumented.Snapshot snapshot = knownSequence();
+		assertEquals(3, snapshot.calls(DS_Instrumented.Operation.INSERT));
+		assertEquals(2, snapshot.calls(DS_Instrumented.Operation.GET));
+		assertEquals(1, snapshot.calls(DS_Instrumented.Operation.CONTAINS));
+		assertEquals(1, snapshot.calls(DS_Instrumented.Operation.REMOVE));
+		// DS_My scans from the front: 0 + 1 + 2 to check the inserts for duplicates
+		assertEquals(3, snapshot.comparisons(DS_Instrumented.Operation.INSERT));
+		// 2 to find b, 3 to miss z
+		assertEquals(5, snapshot.comparisons(DS_Instrumented.Operation.GET));
+		assertEquals(1, snapshot.comparisons(DS_Instrumented.Operation.CONTAINS));
+		assertEquals(3, snapshot.comparisons(DS_Instrumented.Operation.REMOVE));
+		// removing the last pair moves nothing, and allocations are not tracked
+		assertEquals(0, snapshot.moved(DS_Instrumented.Operation.REMOVE));
+		assertEquals(0, snapshot.allocated(DS_Instrumented.Operation.INSERT));
+	}
+
+	@Test
+	void test101_percentiles_are_bucket_bounds_in_order() {
+		DS_Instrumented.Snapshot snapshot = knownSequence();
+		for (DS_Instrumented.Operation op : DS_Instrumented.Operation.values()) {
+			long p0 = snapshot.percentileNanos(op, 0);
+			long p50 = snapshot.percentileNanos(op, 50);
+			long p100 = snapshot.percentileNanos(op, 100);
+			assertTrue(0 <= p0 && p0 <= p50 && p50 <= p100, op + " percentiles out of order");
+			// each is the upper bound of a bucket, 2^b - 1
+			assertEquals(0, p100 & (p100 + 1), op + " p100 " + p100 + " is not a bucket bound");
+		}
+		DS_Instrumented<String, String> empty = new DS_Instrumented<>(new DS_My());
+		assertEquals(0, empty.snapshot().percentileNanos(DS_Instrumented.Operation.GET, 99));
+	}
+
+	@Test
+	void test102_csv_and_text_show_the_snapshot() {
+		DS_Instrumented.Snapshot snapshot = knownSequence();
+		String[] rows = snapshot.toCsv().split("\n");
+		assertEquals(5, rows.length);
+		assertTrue(rows[0].startsWith("op,calls,timed,nanos,comparisons,moved,allocated,bucket0,"));
+		String[] expected = {"insert,3,", "remove,1,", "get,2,", "contains,1,"};
+		long[] comparisons = {3, 3, 5, 1};
+		for (int i = 0; i < expected.length; i++) {
+			String[] cells = rows[i + 1].split(",");
+			assertEquals(7 + 64, cells.length, rows[i + 1]);
+			assertTrue(rows[i + 1].startsWith(expected[i]), rows[i + 1]);
+			// every call is timed unless sampling
+			assertEquals(cells[1], cells[2], rows[i + 1]);
+			assertEquals(comparisons[i], Long.parseLong(cells[4]), rows[i + 1]);
+			long timed = 0;
+			for (int b = 7; b < cells.length; b++) {
+				timed += Long.parseLong(cells[b]);
+			}
+			assertEquals(Long.parseLong(cells[2]), timed, "buckets of " + rows[i + 1]);
+		}
+
+		String[] lines = snapshot.toText().split("\n");
+		assertEquals(5, lines.length);
+		assertTrue(lines[0].startsWith("op "));
+		assertTrue(lines[3].matches("get +2 .* 2\\.5 +0\\.0 +0\\.0"), lines[3]);
+	}
+
+	@Test
+	void test103_comparisons_rejected_for_a_fixed_key_type() {
+		DataStructureADT<Integer, String> ints = new DS_MyInt<String>().asADT();
+		assertThrows(IllegalArgumentException.class, () -> new DS_Instrumented<>(ints, true, false));
+		// latency alone does not wrap the keys
+		DS_Instrumented<Integer, String> ds = new DS_Instrumented<>(ints);
+		ds.insert(1, "a");
+		assertEquals("a", ds.get(1));
+		assertEquals(1, ds.snapshot().calls(DS_Instrumented.Operation.GET));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void test104_sampling_counts_every_call_but_times_some() {
+		DS_Instrumented<String, String> ds = new DS_Instrumented<>(new DS_My(), true, false, 8);
+		ds.insert("a", "1");
+		for (int i = 0; i < 4000; i++) {
+			ds.get("a");
+		}
+		DS_Instrumented.Snapshot snapshot = ds.snapshot();
+		assertEquals(4000, snapshot.calls(DS_Instrumented.Operation.GET));
+		// one in 8 on average, 500 expected
+		long timed = snapshot.timed(DS_Instrumented.Operation.GET);
+		assertTrue(timed > 350 && timed < 650, timed + " of 4000 calls timed");
+		// comparisons are still counted on every call
+		assertEquals(4000, snapshot.comparisons(DS_Instrumented.Operation.GET));
+		String get = snapshot.toCsv().split("\\n")[3];
+		assertTrue(get.startsWith("get,4000," + timed + ","), get);
+		assertTrue(snapshot.percentileNanos(DS_Instrumented.Operation.GET, 50)
+			<= snapshot.percentileNanos(DS_Instrumented.Operation.GET, 100));
+
+		assertThrows(IllegalArgumentException.class,
+			() -> new DS_Instrumented<>(new DS_My(), false, false, 0));
+	}
+
+}
@@ -7,6 +7,24 @@
 //     4. OR, configure Eclipse project to run all tests
 //        Eclipse: Run->Run Configurations->"Run All Tests..."
 
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
 @SuppressWarnings("rawtypes")
 public class TestDS_My extends DataStructureADTTest {
 
@@ -16,4 +34,375 @@ public class TestDS_My extends DataStructureADTTest {
 		return new DS_My();
 	}
 
+	private static final int MAGIC = 0x44534D59; // first int of a snapshot file
+	private static final int VERSION = 1;
+
+	/**
+	 * Writes a file holding the given ints, then the characters of tail as bytes
+	 */
+	private static Path file(Path dir, int[] ints, String tail) throws IOException {
+		byte[] bytes = tail.getBytes(StandardCharsets.US_ASCII);
+		ByteBuffer buffer = ByteBuffer.allocate(ints.length * Integer.BYTES + bytes.length);
+		for (int i : ints) {
+			buffer.putInt(i);
+		}
+		buffer.put(bytes);
+		return Files.write(dir.resolve("corrupt.snap"), buffer.array());
+	}
+
+	@Test
+	void test100_snapshot_round_trip_keeps_pairs_order_and_null_values(@TempDir Path dir)
+		throws IOException {
+		DS_My list = new DS_My();
+		list.insert("b", "2");
+		list.insert("a", null);
+		list.insert("gone", "x");
+		list.insert("c", "");
+		list.remove("gone"); // leaves a tombstone, which is not written
+		Path file = dir.resolve("list.snap");
+		list.writeSnapshot(file, Codec.STRING, Codec.STRING);
+		assertFalse(Files.exists(dir.resolve("list.snap.tmp")));
+
+		DS_My read = DS_My.readSnapshot(file, Codec.STRING, Codec.STRING);
+		assertEquals(3, read.size());
+		assertArrayEquals(new Object[] {"b", "a", "c"}, read.keyStream().toArray());
+		assertArrayEquals(new Object[] {"2", null, ""}, read.valueStream().toArray());
+		assertTrue(read.contains("a"));
+		assertNull(read.get("a"));
+		assertFalse(read.contains("gone"));
+
+		// a snapshot of an empty list reads back empty
+		new DS_My().writeSnapshot(file, Codec.STRING, Codec.STRING);
+		assertEquals(0, DS_My.readSnapshot(file, Codec.STRING, Codec.STRING).size());
+	}
+
+	@Test
+	void test101_snapshot_overwrites_an_older_one(@TempDir Path dir) throws IOException {
+		Path file = dir.resolve("list.snap");
+		DS_My list = new DS_My();
+		list.insert(1, 10);
+		list.insert(2, 20);
+		list.writeSnapshot(file, Codec.INTEGER, Codec.INTEGER);
+		list.remove(1);
+		list.writeSnapshot(file, Codec.INTEGER, Codec.INTEGER);
+		DS_My read = DS_My.readSnapshot(file, Codec.INTEGER, Codec.INTEGER);
+		assertEquals(1, read.size());
+		assertEquals(20, read.get(2));
+	}
+
+	@Test
+	void test102_truncated_snapshot_is_rejected(@TempDir Path dir) throws IOException {
+		DS_My list = new DS_My();
+		list.insert("key", "value");
+		list.insert("other", "value");
+		Path file = dir.resolve("list.snap");
+		list.writeSnapshot(file, Codec.STRING, Codec.STRING);
+		byte[] whole = Files.readAllBytes(file);
+		// cut inside the header, inside the lengths, inside a key and inside a value
+		for (int length : new int[] {0, 10, 14, 20, whole.length - 1}) {
+			Files.write(file, Arrays.copyOf(whole, length));
+			assertThrows(IOException.class,
+				() -> DS_My.readSnapshot(file, Codec.STRING, Codec.STRING), "cut at " + length);
+		}
+	}
+
+	@Test
+	void test103_corrupt_snapshot_is_rejected(@TempDir Path dir) throws IOException {
+		String[] names = {"bad magic", "unknown version", "negative count", "count too large",
+			"negative key length", "bad value length", "key past the end", "value past the end"};
+		int[][] headers = {
+			{0, VERSION, 1, 1, 1}, {MAGIC, VERSION + 1, 1, 1, 1}, {MAGIC, VERSION, -1},
+			{MAGIC, VERSION, 1000, 1, 1}, {MAGIC, VERSION, 1, -1, 1}, {MAGIC, VERSION, 1, 1, -2},
+			{MAGIC, VERSION, 1, Integer.MAX_VALUE, 1}, {MAGIC, VERSION, 1, 1, Integer.MAX_VALUE}};
+		for (int i = 0; i < headers.length; i++) {
+			Path file = file(dir, headers[i], "kv");
+			assertThrows(IOException.class,
+				() -> DS_My.readSnapshot(file, Codec.STRING, Codec.STRING), names[i]);
+		}
+		// the null value marker itself is fine
+		Path file = file(dir, new int[] {MAGIC, VERSION, 1, 1, -1}, "k");
+		DS_My read = DS_My.readSnapshot(file, Codec.STRING, Codec.STRING);
+		assertTrue(read.contains("k"));
+		assertNull(read.get("k"));
+	}
+
+	/**
+	 * Makes a list of keys 0 to n - 1, each with its key as value, then removes
+	 * every key that is a multiple of gap but not the last, leaving tombstones
+	 */
+	private static DS_My withTombstones(int n, int gap, List<Integer> kept) {
+		// a threshold of 0.9 keeps removes from compacting the list
+		DS_My list = new DS_My(n, 0.9);
+		for (int i = 0; i < n; i++) {
+			list.insert(i, i);
+		}
+		for (int i = 0; i < n; i++) {
+			if (i % gap == 0 && i < n - 1) {
+				assertTrue(list.remove(i));
+			} else {
+				kept.add(i);
+			}
+		}
+		return list;
+	}
+
+	@Test
+	void test110_streams_skip_tombstones() {
+		List<Integer> kept = new ArrayList<>();
+		DS_My list = withTombstones(100, 7, kept);
+		assertEquals(kept, list.keyStream().collect(Collectors.toList()));
+		assertEquals(kept, list.valueStream().collect(Collectors.toList()));
+		List<Map.Entry<Comparable, Object>> entries = list.entryStream().collect(Collectors.toList());
+		assertEquals(kept.size(), entries.size());
+		for (int i = 0; i < entries.size(); i++) {
+			assertEquals(kept.get(i), entries.get(i).getKey());
+			assertEquals(kept.get(i), entries.get(i).getValue());
+		}
+		// one element at a time, as a short-circuiting stream takes them
+		Spliterator<Comparable> keys = list.spliterator((k, v) -> k, 0);
+		List<Comparable> advanced = new ArrayList<>();
+		while (keys.tryAdvance(advanced::add)) {
+			// each call adds one key
+		}
+		assertEquals(kept, advanced);
+		assertEquals(Integer.valueOf(1), list.keyStream().findFirst().get());
+	}
+
+	@Test
+	void test111_streams_of_null_values_and_empty_lists() {
+		DS_My list = new DS_My();
+		assertEquals(0, list.keyStream().count());
+		list.insert("a", null);
+		list.insert("b", "2");
+		assertEquals(Arrays.asList(null, "2"), list.valueStream().collect(Collectors.toList()));
+		assertNull(list.entryStream().findFirst().get().getValue());
+	}
+
+	@Test
+	void test112_spliterator_is_sized_only_without_tombstones() {
+		DS_My list = new DS_My();
+		for (int i = 0; i < 64; i++) {
+			list.insert(i, i);
+		}
+		Spliterator<Comparable> whole = list.spliterator((k, v) -> k, 0);
+		assertTrue(whole.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED));
+		assertEquals(64, whole.getExactSizeIfKnown());
+		Spliterator<Comparable> half = whole.trySplit();
+		assertTrue(half.hasCharacteristics(Spliterator.SIZED));
+		assertEquals(32, half.getExactSizeIfKnown());
+		assertEquals(32, whole.getExactSizeIfKnown());
+
+		// dropping the last pair leaves no tombstone
+		list.remove(63);
+		assertTrue(list.spliterator((k, v) -> k, 0).hasCharacteristics(Spliterator.SIZED));
+
+		list.remove(10);
+		Spliterator<Comparable> holed = list.spliterator((k, v) -> k, 0);
+		assertFalse(holed.hasCharacteristics(Spliterator.SIZED));
+		assertEquals(-1, holed.getExactSizeIfKnown());
+		// the estimate counts the tombstone
+		assertEquals(63, holed.estimateSize());
+		assertEquals(62, list.keyStream().count());
+		assertTrue(holed.hasCharacteristics(Spliterator.ORDERED));
+	}
+
+	@Test
+	void test113_parallel_streams_match_sequential() {
+		List<Integer> kept = new ArrayList<>();
+		DS_My list = withTombstones(100_000, 3, kept);
+		assertEquals(kept, list.keyStream().parallel().collect(Collectors.toList()));
+		assertEquals(kept, list.valueStream().parallel().collect(Collectors.toList()));
+		assertEquals(list.keyStream().mapToLong(k -> (Integer) k).sum(),
+			list.keyStream().parallel().mapToLong(k -> (Integer) k).sum());
+		assertEquals(list.entryStream().filter(e -> (Integer) e.getValue() % 2 == 0).count(),
+			list.entryStream().parallel().filter(e -> (Integer) e.getValue() % 2 == 0).count());
+		assertEquals(kept.size(), list.entryStream().parallel().count());
+
+		// a list without tombstones splits into SIZED halves
+		DS_My full = new DS_My();
+		for (int i = 0; i < 10_000; i++) {
+			full.insert(i, i);
+		}
+		assertEquals(full.keyStream().collect(Collectors.toList()),
+			full.keyStream().parallel().collect(Collectors.toList()));
+		assertEquals(10_000, full.valueStream().parallel().count());
+	}
+
+	/**
+	 * Makes a list of keys 0 to n - 1, each with its key as value
+	 */
+	private static DS_My filled(int n, double compactionThreshold) {
+		DS_My list = new DS_My(n, compactionThreshold);
+		for (int i = 0; i < n; i++) {
+			list.insert(i, i);
+		}
+		return list;
+	}
+
+	/**
+	 * Gets the keys of a list in list order, tombstones skipped
+	 */
+	private static List<Comparable> order(DS_My list) {
+		return list.keyStream().collect(Collectors.toList());
+	}
+
+	@Test
+	void test120_compaction_fires_just_past_the_threshold() {
+		DS_My list = filled(20, 0.25);
+		// 5 tombstones in 20 slots is exactly a quarter, not past it
+		for (int k = 1; k <= 5; k++) {
+			assertTrue(list.remove(k));
+		}
+		assertEquals(5, list.tombstones);
+		assertEquals(15, list.size());
+		List<Comparable> before = order(list);
+
+		assertTrue(list.remove(10));
+		assertEquals(0, list.tombstones);
+		assertEquals(14, list.size());
+		before.remove(Integer.valueOf(10));
+		assertEquals(before, order(list));
+		for (Comparable k : before) {
+			assertEquals(k, list.get(k));
+		}
+	}
+
+	@Test
+	void test121_threshold_0_compacts_on_every_remove() {
+		DS_My list = filled(10, 0);
+		List<Comparable> expected = order(list);
+		for (int k : new int[] {0, 5, 3, 8}) {
+			assertTrue(list.remove(k));
+			expected.remove(Integer.valueOf(k));
+			assertEquals(0, list.tombstones);
+			assertEquals(expected, order(list));
+			assertEquals(expected.size(), list.size());
+		}
+	}
+
+	@Test
+	void test122_threshold_just_under_1_never_compacts_on_remove() {
+		DS_My list = filled(10, Math.nextDown(1.0));
+		for (int k = 0; k < 9; k++) {
+			assertTrue(list.remove(k));
+		}
+		assertEquals(9, list.tombstones);
+		assertEquals(1, list.size());
+		assertEquals(Arrays.asList(9), order(list));
+		// trimToSize still compacts
+		list.trimToSize();
+		assertEquals(0, list.tombstones);
+		assertEquals(Arrays.asList(9), order(list));
+	}
+
+	@Test
+	void test123_constructor_rejects_thresholds_outside_0_to_1() {
+		for (double threshold : new double[] {-0.1, 1.0, 1.5, Double.NaN}) {
+			assertThrows(IllegalArgumentException.class, () -> new DS_My(10, threshold),
+				"threshold " + threshold);
+		}
+		assertThrows(IllegalArgumentException.class, () -> new DS_My(-1, 0.25));
+		new DS_My(10, 0);
+		new DS_My(10, Math.nextDown(1.0));
+	}
+
+	@Test
+	void test130_capacity_grows_by_half_on_append() {
+		DS_My list = new DS_My();
+		assertEquals(10, list.capacity());
+		int growths = 0;
+		for (int i = 0; i < 10_000; i++) {
+			int before = list.capacity();
+			list.insert(i, i);
+			if (list.capacity() != before) {
+				assertEquals(before + (before >> 1), list.capacity(), "growth at size " + i);
+				assertEquals(before, i, "grew before it was full");
+				growths++;
+			}
+		}
+		// 10 * 1.5^18 is about 14800
+		assertEquals(18, growths);
+		assertEquals(10_000, list.size());
+	}
+
+	@Test
+	void test131_ensure_capacity_presizes_for_appends() {
+		DS_My list = new DS_My();
+		list.insert(-1, -1);
+		list.ensureCapacity(5_000);
+		assertEquals(5_000, list.capacity());
+		long moved = list.moved;
+		for (int i = 0; i < 4_999; i++) {
+			list.insert(i, i);
+		}
+		assertEquals(5_000, list.capacity());
+		assertEquals(moved, list.moved, "appends copied pairs");
+		// asking for less than the capacity changes nothing
+		list.ensureCapacity(10);
+		assertEquals(5_000, list.capacity());
+		// one more grows by half again
+		list.insert(5_000, 5_000);
+		assertEquals(7_500, list.capacity());
+		assertEquals(Integer.valueOf(-1), list.get(-1));
+	}
+
+	@Test
+	void test132_trim_to_size_keeps_pairs_and_drops_tombstones() {
+		DS_My list = filled(100, 0.25);
+		list.ensureCapacity(1_000);
+		for (int k : new int[] {3, 50, 77, 99}) {
+			assertTrue(list.remove(k));
+		}
+		assertEquals(3, list.tombstones); // removing the last key leaves no tombstone
+		List<Comparable> before = order(list);
+		list.trimToSize();
+		assertEquals(96, list.capacity());
+		assertEquals(96, list.size());
+		assertEquals(0, list.tombstones);
+		assertEquals(before, order(list));
+		for (Comparable k : before) {
+			assertEquals(k, list.get(k));
+		}
+		// a trimmed list still grows and removes as before
+		list.insert(1_000, 1_000);
+		assertEquals(96 + 48, list.capacity());
+		assertTrue(list.remove(0));
+		assertEquals(96, list.size());
+
+		DS_My empty = new DS_My();
+		empty.trimToSize();
+		assertEquals(0, empty.capacity());
+		empty.insert("a", "1");
+		assertEquals("1", empty.get("a"));
+	}
+
+	@Test
+	void test140_batches_match_keys_with_equals_like_single_calls() {
+		// 1.0 and 1.00 compare equal but are not equal, so both are keys
+		BigDecimal one = new BigDecimal("1.0");
+		BigDecimal oneScaled = new BigDecimal("1.00");
+		DS_My single = new DS_My();
+		single.insert(one, "a");
+		single.insert(oneScaled, "b");
+		assertEquals(2, single.size());
+
+		DS_My batch = new DS_My();
+		batch.insertAll(new Comparable[] {one, oneScaled}, new Object[] {"a", "b"});
+		assertEquals(2, batch.size());
+		assertEquals("b", batch.get(oneScaled));
+		batch.insertAll(new Comparable[] {new BigDecimal("1.000")}, new Object[] {"c"});
+		assertEquals(3, batch.size());
+		assertThrows(RuntimeException.class,
+			() -> batch.insertAll(new Comparable[] {new BigDecimal("1.00")}, new Object[] {"d"}));
+		assertThrows(RuntimeException.class,
+			() -> batch.insertAll(new Comparable[] {new BigDecimal("2"), new BigDecimal("2")},
+				new Object[] {"d", "e"}));
+		assertEquals(3, batch.size());
+
+		assertEquals(1, batch.removeAll(new Comparable[] {new BigDecimal("1.0")}));
+		assertFalse(batch.contains(one));
+		assertEquals("b", batch.get(oneScaled));
+		assertEquals("c", batch.get(new BigDecimal("1.000")));
+	}
+
 }
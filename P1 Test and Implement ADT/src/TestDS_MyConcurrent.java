@@ -0,0 +1,110 @@
+// TO TEST A DATA STRUCTURE CLASS:
+//
+// for each data structure class file you wish to test:
+//     1. create a test class (like this one) 
+//     2. edit the actual type being created (line 16)
+//     3. run this test class 
+//     4. OR, configure Eclipse project to run all tests
+//        Eclipse: Run->Run Configurations->"Run All Tests..."
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("rawtypes")
+public class TestDS_MyConcurrent extends DataStructureADTTest {
+
+	// the return type must be the name of the data structure class you are testing
+	@Override
+	protected DataStructureADT createInstance() {
+		return new DS_MyConcurrent();
+	}
+
+	private static final int FIXED = 200; // keys 0 to FIXED - 1, which no writer touches
+	private static final int WRITERS = 2;
+	private static final int PAIRS = 100; // pairs of keys each writer adds and removes
+	private static final int READERS = 4;
+	private static final int READER_ROUNDS = 2_000; // passes over the fixed keys per reader
+
+	@Test
+	void test100_readers_never_see_a_torn_snapshot() throws InterruptedException {
+		DS_MyConcurrent list = new DS_MyConcurrent();
+		for (int i = 0; i < FIXED; i++) {
+			list.insert(i, i);
+		}
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		AtomicBoolean done = new AtomicBoolean();
+		List<Thread> threads = new ArrayList<>();
+
+		// each writer adds and removes pairs of its own keys in one batch, so
+		// every snapshot holds the fixed keys and an even number of others
+		for (int w = 0; w < WRITERS; w++) {
+			int first = FIXED + w * 2 * PAIRS;
+			threads.add(new Thread(() -> {
+				Random random = new Random(first);
+				try {
+					while (!done.get()) {
+						Integer a = first + 2 * random.nextInt(PAIRS);
+						Integer[] pair = {a, a + 1};
+						if (list.contains(a)) {
+							assertEquals(2, list.removeAll(pair));
+						} else {
+							list.insertAll(pair, pair);
+						}
+					}
+				} catch (Throwable t) {
+					failure.compareAndSet(null, t);
+				}
+			}));
+		}
+		List<Thread> readers = new ArrayList<>();
+		for (int r = 0; r < READERS; r++) {
+			readers.add(new Thread(() -> {
+				Random random = new Random();
+				try {
+					for (int round = 0; round < READER_ROUNDS && failure.get() == null; round++) {
+						int size = list.size();
+						if (size < FIXED || (size - FIXED) % 2 != 0) {
+							throw new AssertionError("size " + size + " in round " + round);
+						}
+						for (int i = 0; i < FIXED; i++) {
+							Integer k = i;
+							if (!k.equals(list.get(k)) || !list.contains(k)) {
+								throw new AssertionError("lost key " + k + " in round " + round);
+							}
+						}
+						Integer other = FIXED + random.nextInt(WRITERS * 2 * PAIRS);
+						Object value = list.get(other);
+						if (value != null && !value.equals(other)) {
+							throw new AssertionError(other + " has value " + value);
+						}
+					}
+				} catch (Throwable t) {
+					failure.compareAndSet(null, t);
+				}
+			}));
+		}
+		threads.forEach(Thread::start);
+		readers.forEach(Thread::start);
+		for (Thread reader : readers) {
+			reader.join(60_000);
+		}
+		done.set(true);
+		for (Thread writer : threads) {
+			writer.join(60_000);
+		}
+		threads.addAll(readers);
+		if (failure.get() != null) {
+			fail(failure.get().toString(), failure.get());
+		}
+		assertFalse(threads.stream().anyMatch(Thread::isAlive), "threads did not finish");
+		assertEquals(0, (list.size() - FIXED) % 2);
+	}
+
+}
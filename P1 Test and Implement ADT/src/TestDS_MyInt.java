@@ -0,0 +1,197 @@
+// DS_MyInt takes int keys rather than the String keys of DataStructureADTTest,
+// so its tests are written against the class and its asADT() view directly.
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class TestDS_MyInt {
+
+	private static final int MASK = 15; // mask of a new table, which holds up to 8 keys
+
+	/**
+	 * Finds keys whose home bucket in a new table is the same
+	 * @param home home bucket
+	 * @param count number of keys wanted
+	 * @return keys, in increasing order
+	 */
+	private static int[] keysWithHome(int home, int count) {
+		int[] keys = new int[count];
+		int found = 0;
+		for (int k = 0; found < count; k++) {
+			if ((SlotIndex.spread(k) & MASK) == home) {
+				keys[found++] = k;
+			}
+		}
+		return keys;
+	}
+
+	@Test
+	void test00_insert_get_contains_remove() {
+		DS_MyInt<String> ds = new DS_MyInt<>();
+		int[] keys = {0, -1, 42, Integer.MIN_VALUE, Integer.MAX_VALUE};
+		for (int k : keys) {
+			ds.insert(k, "v" + k);
+		}
+		assertEquals(keys.length, ds.size());
+		for (int k : keys) {
+			assertTrue(ds.contains(k));
+			assertEquals("v" + k, ds.get(k));
+		}
+		assertTrue(ds.remove(42));
+		assertFalse(ds.contains(42));
+		assertNull(ds.get(42));
+		assertEquals(keys.length - 1, ds.size());
+	}
+
+	@Test
+	void test01_missing_keys_and_duplicates() {
+		DS_MyInt<String> ds = new DS_MyInt<>();
+		assertFalse(ds.remove(1));
+		assertNull(ds.get(1));
+		assertFalse(ds.contains(1));
+		ds.insert(1, "a");
+		assertThrows(RuntimeException.class, () -> ds.insert(1, "b"));
+		assertEquals("a", ds.get(1));
+		assertEquals(1, ds.size());
+		assertTrue(ds.remove(1));
+		assertFalse(ds.remove(1));
+		assertEquals(0, ds.size());
+	}
+
+	@Test
+	void test02_remove_from_a_run_of_colliding_keys() {
+		int[] keys = keysWithHome(3, 5);
+		DS_MyInt<String> ds = new DS_MyInt<>();
+		for (int k : keys) {
+			ds.insert(k, "v" + k);
+		}
+		// the first, a middle and the last key of the probe run
+		for (int r : new int[] {0, 2, 4}) {
+			assertTrue(ds.remove(keys[r]), "remove " + keys[r]);
+			for (int i = 0; i < keys.length; i++) {
+				boolean removed = i == 0 || (i == 2 && r >= 2) || (i == 4 && r == 4);
+				assertEquals(!removed, ds.contains(keys[i]), "contains " + keys[i] + " after removing " + keys[r]);
+			}
+		}
+		assertEquals("v" + keys[1], ds.get(keys[1]));
+		assertEquals("v" + keys[3], ds.get(keys[3]));
+		assertEquals(2, ds.size());
+	}
+
+	@Test
+	void test03_remove_from_a_run_that_wraps_around_the_table() {
+		int[] last = keysWithHome(MASK, 3); // fill buckets 15, 0 and 1
+		int[] first = keysWithHome(0, 2); // pushed on to buckets 2 and 3
+		DS_MyInt<String> ds = new DS_MyInt<>();
+		for (int k : last) {
+			ds.insert(k, "v" + k);
+		}
+		for (int k : first) {
+			ds.insert(k, "v" + k);
+		}
+		// removing from bucket 15 shifts keys back across the end of the table
+		assertTrue(ds.remove(last[0]));
+		for (int k : last) {
+			assertEquals(k != last[0], ds.contains(k), "contains " + k);
+		}
+		for (int k : first) {
+			assertEquals("v" + k, ds.get(k));
+		}
+		assertTrue(ds.remove(first[0]));
+		assertTrue(ds.contains(first[1]));
+		assertTrue(ds.contains(last[1]));
+		assertTrue(ds.contains(last[2]));
+		assertEquals(3, ds.size());
+	}
+
+	@Test
+	void test04_removed_key_can_be_inserted_again() {
+		int[] keys = keysWithHome(7, 3);
+		DS_MyInt<String> ds = new DS_MyInt<>();
+		for (int k : keys) {
+			ds.insert(k, "old");
+		}
+		assertTrue(ds.remove(keys[1]));
+		ds.insert(keys[1], "new");
+		assertEquals("new", ds.get(keys[1]));
+		assertEquals("old", ds.get(keys[0]));
+		assertEquals("old", ds.get(keys[2]));
+		assertThrows(RuntimeException.class, () -> ds.insert(keys[2], "dup"));
+		assertEquals(3, ds.size());
+	}
+
+	@Test
+	void test05_keys_survive_many_resizes() {
+		DS_MyInt<Integer> ds = new DS_MyInt<>();
+		int n = 100_000; // the table doubles from 16 buckets to 256K
+		for (int i = 0; i < n; i++) {
+			ds.insert(i * 7919, i);
+		}
+		assertEquals(n, ds.size());
+		for (int i = 0; i < n; i++) {
+			assertEquals(Integer.valueOf(i), ds.get(i * 7919), "get " + i * 7919);
+		}
+		for (int i = 0; i < n; i += 2) {
+			assertTrue(ds.remove(i * 7919));
+		}
+		assertEquals(n / 2, ds.size());
+		for (int i = 0; i < n; i++) {
+			assertEquals(i % 2 == 1, ds.contains(i * 7919), "contains " + i * 7919);
+		}
+	}
+
+	@Test
+	void test06_random_operations_match_a_hash_map() {
+		Random random = new Random(3);
+		DS_MyInt<Integer> ds = new DS_MyInt<>();
+		Map<Integer, Integer> expected = new HashMap<>();
+		for (int i = 0; i < 20_000; i++) {
+			// a small key range keeps the table crowded with runs to delete from
+			int k = random.nextInt(64) - 32;
+			if (random.nextBoolean()) {
+				assertEquals(expected.remove(k) != null, ds.remove(k), "remove " + k);
+			} else if (expected.containsKey(k)) {
+				assertThrows(RuntimeException.class, () -> ds.insert(k, 0));
+			} else {
+				expected.put(k, i);
+				ds.insert(k, i);
+			}
+			assertEquals(expected.size(), ds.size());
+		}
+		for (int k = -32; k < 32; k++) {
+			assertEquals(expected.get(k), ds.get(k), "get " + k);
+		}
+	}
+
+	@Test
+	void test07_adt_view_shares_the_table() {
+		DS_MyInt<String> ds = new DS_MyInt<>();
+		DataStructureADT<Integer, String> adt = ds.asADT();
+		adt.insert(1, "a");
+		ds.insert(2, "b");
+		assertEquals(2, adt.size());
+		assertEquals("b", adt.get(2));
+		assertTrue(ds.contains(1));
+		assertTrue(adt.remove(1));
+		assertFalse(adt.remove(1));
+		assertNull(adt.get(1));
+		assertEquals(1, ds.size());
+		assertThrows(RuntimeException.class, () -> adt.insert(2, "c"));
+	}
+
+	@Test
+	void test08_adt_view_rejects_null_keys() {
+		DataStructureADT<Integer, String> adt = new DS_MyInt<String>().asADT();
+		assertThrows(IllegalArgumentException.class, () -> adt.insert(null, "a"));
+		assertThrows(IllegalArgumentException.class, () -> adt.remove(null));
+		assertThrows(IllegalArgumentException.class, () -> adt.get(null));
+		assertFalse(adt.contains(null));
+		assertEquals(0, adt.size());
+	}
+
+}
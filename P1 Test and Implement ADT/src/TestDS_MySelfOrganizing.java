@@ -0,0 +1,130 @@
+// TO TEST A DATA STRUCTURE CLASS:
+//
+// for each data structure class file you wish to test:
+//     1. create a test class (like this one) 
+//     2. edit the actual type being created (line 16)
+//     3. run this test class 
+//     4. OR, configure Eclipse project to run all tests
+//        Eclipse: Run->Run Configurations->"Run All Tests..."
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("rawtypes")
+public class TestDS_MySelfOrganizing extends DataStructureADTTest {
+
+	// the return type must be the name of the data structure class you are testing
+	@Override
+	protected DataStructureADT createInstance() {
+		return new DS_MySelfOrganizing();
+	}
+
+	/**
+	 * Makes a list of keys k0 to k9, in that order, each with value v and its number
+	 */
+	private static DS_MySelfOrganizing tenKeys(DS_MySelfOrganizing.Policy policy) {
+		DS_MySelfOrganizing list = new DS_MySelfOrganizing(policy);
+		for (int i = 0; i < 10; i++) {
+			list.insert("k" + i, "v" + i);
+		}
+		return list;
+	}
+
+	/**
+	 * Gets the keys of a list in list order, tombstones skipped
+	 */
+	private static List<Comparable> order(DS_My list) {
+		return list.keyStream().collect(Collectors.toList());
+	}
+
+	@Test
+	void test100_move_to_front_moves_found_key_to_index_0() {
+		DS_MySelfOrganizing list = tenKeys(DS_MySelfOrganizing.Policy.MOVE_TO_FRONT);
+		assertEquals(6, list.indexOf("k6"));
+		assertEquals("v6", list.get("k6"));
+		assertEquals(0, list.indexOf("k6"));
+		assertTrue(list.contains("k3"));
+		assertEquals(0, list.indexOf("k3"));
+		assertEquals(1, list.indexOf("k6"));
+		assertEquals(Arrays.asList("k3", "k6", "k0", "k1", "k2", "k4", "k5", "k7", "k8", "k9"),
+			order(list));
+		// misses and a hit on the front key change nothing
+		assertNull(list.get("k10"));
+		assertFalse(list.contains("k11"));
+		assertTrue(list.contains("k3"));
+		assertEquals(Arrays.asList("k3", "k6", "k0", "k1", "k2", "k4", "k5", "k7", "k8", "k9"),
+			order(list));
+		assertEquals(10, list.size());
+	}
+
+	@Test
+	void test101_transpose_moves_found_key_up_one_slot() {
+		DS_MySelfOrganizing list = tenKeys(DS_MySelfOrganizing.Policy.TRANSPOSE);
+		assertEquals(DS_MySelfOrganizing.Policy.TRANSPOSE, list.getPolicy());
+		assertEquals("v6", list.get("k6"));
+		assertEquals(5, list.indexOf("k6"));
+		assertEquals(6, list.indexOf("k5"));
+		assertTrue(list.contains("k6"));
+		assertEquals(4, list.indexOf("k6"));
+		assertEquals(5, list.indexOf("k4"));
+		assertTrue(list.contains("k0"));
+		assertEquals(0, list.indexOf("k0"));
+		assertEquals(Arrays.asList("k0", "k1", "k2", "k3", "k6", "k4", "k5", "k7", "k8", "k9"),
+			order(list));
+		assertEquals(10, list.size());
+	}
+
+	@Test
+	void test102_transpose_over_a_tombstone() {
+		DS_MySelfOrganizing list = tenKeys(DS_MySelfOrganizing.Policy.TRANSPOSE);
+		assertTrue(list.remove("k5")); // leaves a tombstone at 5
+		assertEquals(1, list.tombstones);
+		assertTrue(list.contains("k6"));
+		// k6 takes the tombstone's slot, one up from where it was
+		assertEquals(5, list.indexOf("k6"));
+		assertEquals(Arrays.asList("k0", "k1", "k2", "k3", "k4", "k6", "k7", "k8", "k9"), order(list));
+		assertEquals(9, list.size());
+		assertEquals(1, list.tombstones);
+		assertNull(list.get("k5"));
+	}
+
+	@Test
+	void test103_move_to_front_over_tombstones() {
+		DS_MySelfOrganizing list = tenKeys(DS_MySelfOrganizing.Policy.MOVE_TO_FRONT);
+		assertTrue(list.remove("k2"));
+		assertTrue(list.remove("k5"));
+		assertEquals(2, list.tombstones);
+		assertEquals("v7", list.get("k7"));
+		assertEquals(0, list.indexOf("k7"));
+		assertEquals(Arrays.asList("k7", "k0", "k1", "k3", "k4", "k6", "k8", "k9"), order(list));
+		assertEquals(8, list.size());
+		assertEquals(2, list.tombstones);
+	}
+
+	@Test
+	void test104_removes_after_reordering_keep_order_and_size() {
+		for (DS_MySelfOrganizing.Policy policy : DS_MySelfOrganizing.Policy.values()) {
+			DS_MySelfOrganizing list = tenKeys(policy);
+			list.get("k9");
+			list.get("k9");
+			list.contains("k4");
+			List<Comparable> before = order(list);
+			assertTrue(list.remove("k9"));
+			assertTrue(list.remove("k0"));
+			assertFalse(list.remove("k0"));
+			List<Comparable> expected = before.stream().filter(k -> !k.equals("k9") && !k.equals("k0"))
+				.collect(Collectors.toList());
+			assertEquals(expected, order(list), policy.toString());
+			assertEquals(8, list.size(), policy.toString());
+			for (Comparable k : expected) {
+				assertTrue(list.contains(k), policy + " lost " + k);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,147 @@
+// TO TEST A DATA STRUCTURE CLASS:
+//
+// for each data structure class file you wish to test:
+//     1. create a test class (like this one) 
+//     2. edit the actual type being created (line 16)
+//     3. run this test class 
+//     4. OR, configure Eclipse project to run all tests
+//        Eclipse: Run->Run Configurations->"Run All Tests..."
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("rawtypes")
+public class TestDS_MySorted extends DataStructureADTTest {
+
+	// the return type must be the name of the data structure class you are testing
+	@Override
+	protected DataStructureADT createInstance() {
+		return new DS_MySorted();
+	}
+
+	/**
+	 * Gets n keys starting at first and step apart, in random order
+	 */
+	private static List<Integer> shuffled(int n, int first, int step, long seed) {
+		List<Integer> keys = new ArrayList<>();
+		for (int i = 0; i < n; i++) {
+			keys.add(first + i * step);
+		}
+		Collections.shuffle(keys, new Random(seed));
+		return keys;
+	}
+
+	/**
+	 * Checks the iterator, keyAt and valueAt all give the expected keys in
+	 * strictly ascending order, each with its key as value
+	 */
+	@SuppressWarnings("unchecked")
+	private static void assertSorted(DS_MySorted list, List<Integer> expected) {
+		List<Integer> sorted = new ArrayList<>(expected);
+		Collections.sort(sorted);
+		assertEquals(sorted.size(), list.size());
+		Comparable previous = null;
+		int i = 0;
+		for (Comparable k : list) {
+			if (previous != null) {
+				assertTrue(previous.compareTo(k) < 0, previous + " iterated before " + k);
+			}
+			assertEquals(sorted.get(i), k);
+			assertEquals(sorted.get(i), list.keyAt(i));
+			assertEquals(sorted.get(i), list.valueAt(i));
+			previous = k;
+			i++;
+		}
+		assertEquals(sorted.size(), i);
+	}
+
+	@Test
+	void test100_shuffled_inserts_iterate_in_ascending_order() {
+		DS_MySorted list = new DS_MySorted();
+		List<Integer> keys = shuffled(500, 0, 1, 1);
+		for (Integer k : keys) {
+			list.insert(k, k);
+		}
+		assertSorted(list, keys);
+		assertThrows(RuntimeException.class, () -> list.insert(keys.get(7), 0));
+		assertSorted(list, keys);
+	}
+
+	@Test
+	void test101_order_holds_after_removes_in_the_middle() {
+		DS_MySorted list = new DS_MySorted();
+		List<Integer> keys = shuffled(200, 0, 1, 2);
+		for (Integer k : keys) {
+			list.insert(k, k);
+		}
+		List<Integer> kept = new ArrayList<>(keys);
+		for (Integer k : shuffled(50, 50, 2, 3)) {
+			assertTrue(list.remove(k));
+			kept.remove(k);
+		}
+		assertFalse(list.remove(100));
+		assertSorted(list, kept);
+		// removed keys can go back in at their sorted position
+		list.insert(100, 100);
+		kept.add(100);
+		assertSorted(list, kept);
+		for (Integer k : kept) {
+			assertTrue(list.contains(k));
+		}
+	}
+
+	@Test
+	void test102_insert_all_merges_between_existing_keys() {
+		DS_MySorted list = new DS_MySorted();
+		List<Integer> evens = shuffled(100, 0, 2, 4);
+		for (Integer k : evens) {
+			list.insert(k, k);
+		}
+		List<Integer> odds = shuffled(100, 1, 2, 5);
+		list.insertAll(odds.toArray(new Integer[0]), odds.toArray(new Integer[0]));
+		List<Integer> all = new ArrayList<>(evens);
+		all.addAll(odds);
+		assertSorted(list, all);
+		// keys beyond both ends and in the middle
+		list.insertAll(new Integer[] {-5, 1000, 250}, new Integer[] {-5, 1000, 250});
+		all.add(-5);
+		all.add(1000);
+		all.add(250);
+		assertSorted(list, all);
+	}
+
+	@Test
+	void test103_insert_all_with_duplicate_leaves_list_unchanged() {
+		DS_MySorted list = new DS_MySorted();
+		List<Integer> keys = shuffled(20, 0, 2, 6);
+		for (Integer k : keys) {
+			list.insert(k, k);
+		}
+		assertThrows(RuntimeException.class,
+			() -> list.insertAll(new Integer[] {1, 3, 10}, new Integer[] {1, 3, 10}));
+		assertSorted(list, keys);
+	}
+
+	@Test
+	void test104_key_at_and_iterator_check_bounds() {
+		DS_MySorted list = new DS_MySorted();
+		list.insert(2, 2);
+		list.insert(1, 1);
+		assertThrows(IndexOutOfBoundsException.class, () -> list.keyAt(2));
+		assertThrows(IndexOutOfBoundsException.class, () -> list.valueAt(-1));
+		Iterator<Comparable> it = list.iterator();
+		assertEquals(1, it.next());
+		assertEquals(2, it.next());
+		assertFalse(it.hasNext());
+		assertThrows(NoSuchElementException.class, it::next);
+	}
+
+}
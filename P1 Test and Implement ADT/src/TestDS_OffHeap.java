@@ -0,0 +1,57 @@
+import static org.junit.jupiter.api.Assertions.*;
+import java.nio.ByteBuffer;
+import org.junit.jupiter.api.Test;
+
+// TO TEST A DATA STRUCTURE CLASS:
+//
+// for each data structure class file you wish to test:
+//     1. create a test class (like this one) 
+//     2. edit the actual type being created (line 16)
+//     3. run this test class 
+//     4. OR, configure Eclipse project to run all tests
+//        Eclipse: Run->Run Configurations->"Run All Tests..."
+
+@SuppressWarnings("rawtypes")
+public class TestDS_OffHeap extends DataStructureADTTest {
+
+	// the return type must be the name of the data structure class you are testing
+	@Override
+	protected DataStructureADT createInstance() {
+		return new DS_OffHeap<>(Codec.STRING, Codec.STRING);
+	}
+
+	@Test
+	void test100_failed_value_write_leaves_the_store_unchanged() {
+		// a codec whose write fails for one value, after the size is known
+		Codec<String> failing = new Codec<String>() {
+			@Override
+			public int size(String object) {
+				return Codec.STRING.size(object);
+			}
+
+			@Override
+			public void write(String object, ByteBuffer out) {
+				if (object.equals("bad")) {
+					throw new IllegalStateException("cannot write");
+				}
+				Codec.STRING.write(object, out);
+			}
+
+			@Override
+			public String read(ByteBuffer in, int length) {
+				return Codec.STRING.read(in, length);
+			}
+		};
+		DS_OffHeap<String, String> store = new DS_OffHeap<>(Codec.STRING, failing);
+		store.insert("a", "1");
+		int used = store.end;
+		assertThrows(IllegalStateException.class, () -> store.insert("b", "bad"));
+		assertEquals(1, store.size());
+		assertFalse(store.contains("b"));
+		assertEquals(used, store.end); // no bytes lost to the failed record
+		store.insert("b", "2");
+		assertEquals("1", store.get("a"));
+		assertEquals("2", store.get("b"));
+	}
+
+}
@@ -0,0 +1,150 @@
+// TO TEST A DATA STRUCTURE CLASS:
+//
+// for each data structure class file you wish to test:
+//     1. create a test class (like this one) 
+//     2. edit the actual type being created (line 16)
+//     3. run this test class 
+//     4. OR, configure Eclipse project to run all tests
+//        Eclipse: Run->Run Configurations->"Run All Tests..."
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+@SuppressWarnings("rawtypes")
+public class TestDS_SkipList extends DataStructureADTTest {
+
+	// the return type must be the name of the data structure class you are testing
+	@Override
+	protected DataStructureADT createInstance() {
+		return new DS_SkipList();
+	}
+
+	private static final int FIXED = 1_000; // keys 0, 2, ... that the writer never touches
+	private static final int READERS = 4;
+	private static final int READER_ROUNDS = 200; // passes over the fixed keys per reader
+
+	/**
+	 * Checks the level 0 list holds exactly the expected keys in strictly
+	 * ascending order
+	 */
+	@SuppressWarnings("unchecked")
+	private static void assertAscending(DS_SkipList list, List<Integer> expected) {
+		List<Integer> sorted = new ArrayList<>(expected);
+		Collections.sort(sorted);
+		List<Comparable> seen = new ArrayList<>();
+		for (Comparable k : list) {
+			if (!seen.isEmpty()) {
+				assertTrue(seen.get(seen.size() - 1).compareTo(k) < 0,
+					seen.get(seen.size() - 1) + " comes before " + k);
+			}
+			seen.add(k);
+		}
+		assertEquals(sorted, seen);
+		assertEquals(sorted.size(), list.size());
+	}
+
+	@Test
+	void test100_level_0_list_stays_in_ascending_order() {
+		DS_SkipList list = new DS_SkipList();
+		List<Integer> keys = new ArrayList<>();
+		for (int i = 0; i < 2_000; i++) {
+			keys.add(i);
+		}
+		Collections.shuffle(keys, new Random(1));
+		for (Integer k : keys) {
+			list.insert(k, k);
+		}
+		assertAscending(list, keys);
+		// removes at both ends and in the middle
+		List<Integer> kept = new ArrayList<>(keys);
+		for (int k : new int[] {0, 1999, 1000, 500, 1}) {
+			assertTrue(list.remove(k));
+			kept.remove(Integer.valueOf(k));
+		}
+		assertAscending(list, kept);
+		list.insert(1000, 1000);
+		kept.add(1000);
+		assertAscending(list, kept);
+	}
+
+	@Test
+	void test101_readers_see_untouched_keys_while_a_writer_runs() throws InterruptedException {
+		DS_SkipList list = new DS_SkipList();
+		for (int i = 0; i < FIXED; i++) {
+			list.insert(2 * i, 2 * i);
+		}
+		AtomicReference<Throwable> failure = new AtomicReference<>();
+		AtomicBoolean done = new AtomicBoolean();
+
+		// inserts and removes odd keys until the readers are done
+		Thread writer = new Thread(() -> {
+			Random random = new Random(2);
+			try {
+				while (!done.get()) {
+					int k = 2 * random.nextInt(FIXED) + 1;
+					if (!list.remove(k)) {
+						list.insert(k, k);
+					}
+				}
+			} catch (Throwable t) {
+				failure.compareAndSet(null, t);
+			}
+		});
+		List<Thread> readers = new ArrayList<>();
+		for (int r = 0; r < READERS; r++) {
+			readers.add(new Thread(() -> {
+				try {
+					for (int round = 0; round < READER_ROUNDS && failure.get() == null; round++) {
+						for (int i = 0; i < FIXED; i++) {
+							Integer k = 2 * i;
+							if (!list.contains(k) || !k.equals(list.get(k))) {
+								throw new AssertionError("lost key " + k + " in round " + round);
+							}
+						}
+						// a walk of level 0 sees every fixed key, in order
+						int fixed = 0;
+						int previous = -1;
+						for (Comparable k : list) {
+							int key = (Integer) k;
+							if (key <= previous) {
+								throw new AssertionError(key + " came after " + previous);
+							}
+							if (key % 2 == 0) {
+								fixed++;
+							}
+							previous = key;
+						}
+						if (fixed != FIXED) {
+							throw new AssertionError("walk saw " + fixed + " fixed keys");
+						}
+					}
+				} catch (Throwable t) {
+					failure.compareAndSet(null, t);
+				}
+			}));
+		}
+		writer.start();
+		readers.forEach(Thread::start);
+		for (Thread reader : readers) {
+			reader.join(60_000);
+		}
+		done.set(true);
+		writer.join(60_000);
+		if (failure.get() != null) {
+			fail(failure.get().toString(), failure.get());
+		}
+		assertFalse(writer.isAlive() || readers.stream().anyMatch(Thread::isAlive), "threads did not finish");
+		for (int i = 0; i < FIXED; i++) {
+			assertTrue(list.contains(2 * i));
+		}
+	}
+
+}
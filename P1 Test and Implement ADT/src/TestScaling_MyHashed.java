@@ -0,0 +1,24 @@
+// TO TEST HOW A DATA STRUCTURE CLASS SCALES:
+//
+// for each data structure class file you wish to test:
+//     1. create a test class (like this one)
+//     2. edit the actual type being created in createInstance
+//     3. declare the complexity of each operation in expectedComplexity
+//     4. run this test class
+
+@SuppressWarnings("rawtypes")
+public class TestScaling_MyHashed extends DataStructureADTScalingTest {
+
+	// the return type must be the name of the data structure class you are testing
+	@Override
+	protected DataStructureADT createInstance() {
+		return new DS_MyHashed();
+	}
+
+	@Override
+	protected Complexity expectedComplexity(Operation operation) {
+		// every operation goes through the hash index
+		return Complexity.CONSTANT;
+	}
+
+}
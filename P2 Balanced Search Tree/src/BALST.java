@@ -13,18 +13,20 @@ import java.util.*;
 public class BALST<K extends Comparable<K>, V> implements BALSTADT<K, V> {
 
 	/**
-	 * Node class which is used to build the BST
+	 * Node class which is used to build the BST. It is static so split() and
+	 * join() can move nodes from one tree to another.
 	 * @param <K>
 	 * @param <V>
 	 */
-	class Node<K,V> {
+	static class Node<K,V> {
 
 		K key;
 		V value;
 		Node<K,V> left;
 		Node<K,V> right;
-		int balanceFactor;
-		int height;
+		int balanceFactor; // height of left minus height of right, kept by update()
+		int height; // levels in the subtree rooted here, kept by update()
+		int size; // keys in the subtree rooted here, kept by update()
 
 
 		/**
@@ -38,8 +40,9 @@ public class BALST<K extends Comparable<K>, V> implements BALSTADT<K, V> {
 			this.value = value;
 			this.left = leftChild;
 			this.right = rightChild;
-			this.height = 0;
+			this.height = 1;
 			this.balanceFactor = 0;
+			this.size = 1;
 		}
 
 		Node(K key, V value) { this(key,value,null,null); }
@@ -48,12 +51,69 @@ public class BALST<K extends Comparable<K>, V> implements BALSTADT<K, V> {
 
 	private Node<K, V> root; // holds root node
 	private int numKeys; // holds number of keys in the structure
+	private int modCount; // number of inserts and removes, so cursors can tell the tree changed
+	private long rotations; // rotations done since the tree was created
 
 	public BALST() {
 		this.root = null;
 		this.numKeys = 0;
 	}
 
+	/**
+	 * Builds a tree from keys that are already sorted, in O(n) time and
+	 * without any rotations. The middle key of each range becomes the root
+	 * of the subtree for that range, so the tree has the smallest height
+	 * possible for its number of keys.
+	 *
+	 * @param keys keys in increasing order
+	 * @param values values[i] goes with keys[i]
+	 * @throws IllegalNullKeyException if a key is null
+	 * @throws DuplicateKeyException if a key appears twice
+	 * @throws IllegalArgumentException if the arrays differ in length or the keys are not sorted
+	 */
+	public BALST(K[] keys, V[] values) throws IllegalNullKeyException, DuplicateKeyException {
+		if (keys.length != values.length) {
+			throw new IllegalArgumentException(keys.length + " keys but " + values.length + " values");
+		}
+		// checks the keys before building anything
+		for (int i = 0; i < keys.length; i++) {
+			if (keys[i] == null) {
+				throw new IllegalNullKeyException();
+			}
+			if (i > 0) {
+				int cmp = keys[i - 1].compareTo(keys[i]);
+				if (cmp == 0) {
+					throw new DuplicateKeyException();
+				}
+				if (cmp > 0) {
+					throw new IllegalArgumentException("keys are not sorted at index " + i);
+				}
+			}
+		}
+		this.root = build(keys, values, 0, keys.length);
+		this.numKeys = keys.length;
+	}
+
+	/**
+	 * Builds a balanced subtree from a range of sorted keys
+	 * @param keys sorted keys
+	 * @param values values[i] goes with keys[i]
+	 * @param from first index of the range
+	 * @param to one past the last index of the range
+	 * @return root of the subtree, or null if the range is empty
+	 */
+	private Node<K, V> build(K[] keys, V[] values, int from, int to) {
+		if (from >= to) {
+			return null;
+		}
+		int mid = (from + to) >>> 1;
+		Node<K, V> node = new Node<K, V>(keys[mid], values[mid]);
+		node.left = build(keys, values, from, mid);
+		node.right = build(keys, values, mid + 1, to);
+		update(node);
+		return node;
+	}
+
 	/**
 	 * Returns the key that is in the root node of this BST.
 	 * If root is null, returns null.
@@ -159,7 +219,8 @@ public class BALST<K extends Comparable<K>, V> implements BALSTADT<K, V> {
 	}
 
 	/**
-	 * gets the Height at a specified node in the tree
+	 * gets the Height at a specified node in the tree. Every node keeps its
+	 * own height, so this does not walk the subtree.
 	 * @param node node to get height at
 	 * @return the height from the node
 	 */
@@ -167,16 +228,33 @@ public class BALST<K extends Comparable<K>, V> implements BALSTADT<K, V> {
 		if (node == null) {
 			return 0;
 		}
-		else {
-			int leftChild = getHeight(node.left);
-			int rightChild = getHeight(node.right);
-			if(rightChild>leftChild) {
-				return rightChild + 1;
-			}
-			else {
-				return leftChild + 1;
-			}
+		return node.height;
+	}
+
+	/**
+	 * gets the number of keys in the subtree rooted at a node
+	 * @param node root of the subtree, or null
+	 * @return number of keys
+	 */
+	private int getSize(Node<K, V> node) {
+		if (node == null) {
+			return 0;
 		}
+		return node.size;
+	}
+
+	/**
+	 * Recomputes the height, balance factor and size of a node from its children.
+	 * Must be called on a node whenever one of its links changes, after its
+	 * children are up to date.
+	 * @param node node to update
+	 */
+	private void update(Node<K, V> node) {
+		int leftHeight = getHeight(node.left);
+		int rightHeight = getHeight(node.right);
+		node.height = Math.max(leftHeight, rightHeight) + 1;
+		node.balanceFactor = leftHeight - rightHeight;
+		node.size = getSize(node.left) + getSize(node.right) + 1;
 	}
 
 	/**
@@ -189,31 +267,302 @@ public class BALST<K extends Comparable<K>, V> implements BALSTADT<K, V> {
 	 */
 	@Override
 	public List<K> getInOrderTraversal() {
-		List<K> preOrder = new ArrayList<K>();
-		Stack<Node<K,V>> s = new Stack<Node<K,V>>();
-		Node<K,V> current = this.root;
+		List<K> inOrder = new ArrayList<K>(numKeys);
+		Cursor cursor = cursor();
+		while (cursor.hasNext()) {
+			inOrder.add(cursor.next());
+		}
+		return inOrder;
+	}
 
-		if (this.root == null) {
-			return preOrder;
+	/**
+	 * Returns a cursor over the keys in sorted order, starting at the
+	 * smallest key. Nothing is copied: the cursor walks the tree as it goes.
+	 *
+	 * @return cursor positioned before the smallest key
+	 */
+	public Cursor cursor() {
+		Cursor cursor = new Cursor();
+		cursor.first();
+		return cursor;
+	}
+
+	/**
+	 * Returns a cursor over the keys in sorted order, starting at the first
+	 * key that is greater than or equal to the specified key.
+	 *
+	 * @param from key to start at, which need not be in the tree
+	 * @return cursor positioned before the first key &gt;= from
+	 * @throws IllegalNullKeyException if from is null
+	 */
+	public Cursor cursor(K from) throws IllegalNullKeyException {
+		Cursor cursor = new Cursor();
+		cursor.seek(from);
+		return cursor;
+	}
+
+	/**
+	 * Returns a cursor over the keys between lo and hi in sorted order, with
+	 * getValue() giving the value of each. Finding lo takes one walk down
+	 * from the root and each key after that is found as the cursor moves, so
+	 * reading k keys visits O(log n + k) nodes.
+	 *
+	 * @param lo low end of the range, which need not be in the tree
+	 * @param loInclusive true if a key equal to lo is in the range
+	 * @param hi high end of the range, which need not be in the tree
+	 * @param hiInclusive true if a key equal to hi is in the range
+	 * @return cursor positioned before the first key in the range, which
+	 *         stops at the end of the range
+	 * @throws IllegalNullKeyException if lo or hi is null
+	 */
+	public Cursor subRange(K lo, boolean loInclusive, K hi, boolean hiInclusive)
+		throws IllegalNullKeyException {
+		if (lo == null || hi == null) {
+			throw new IllegalNullKeyException();
 		}
+		Cursor cursor = new Cursor();
+		cursor.hi = hi;
+		cursor.hiInclusive = hiInclusive;
+		cursor.seek(lo, loInclusive);
+		return cursor;
+	}
 
-		while (true) {
-			// go to the left and add everything to the stack
-			while (current != null) {
-				s.push(current);
-				current = current.left;
+	/**
+	 * Returns the largest key less than or equal to the specified key
+	 *
+	 * @param key key to compare to, which need not be in the tree
+	 * @return largest key &lt;= key, or null if there is none
+	 * @throws IllegalNullKeyException if key is null
+	 */
+	public K floorKey(K key) throws IllegalNullKeyException {
+		return nearestKey(key, true, true);
+	}
+
+	/**
+	 * Returns the smallest key greater than or equal to the specified key
+	 *
+	 * @param key key to compare to, which need not be in the tree
+	 * @return smallest key &gt;= key, or null if there is none
+	 * @throws IllegalNullKeyException if key is null
+	 */
+	public K ceilingKey(K key) throws IllegalNullKeyException {
+		return nearestKey(key, false, true);
+	}
+
+	/**
+	 * Returns the largest key strictly less than the specified key
+	 *
+	 * @param key key to compare to, which need not be in the tree
+	 * @return largest key &lt; key, or null if there is none
+	 * @throws IllegalNullKeyException if key is null
+	 */
+	public K lowerKey(K key) throws IllegalNullKeyException {
+		return nearestKey(key, true, false);
+	}
+
+	/**
+	 * Returns the smallest key strictly greater than the specified key
+	 *
+	 * @param key key to compare to, which need not be in the tree
+	 * @return smallest key &gt; key, or null if there is none
+	 * @throws IllegalNullKeyException if key is null
+	 */
+	public K higherKey(K key) throws IllegalNullKeyException {
+		return nearestKey(key, false, false);
+	}
+
+	/**
+	 * Finds the key closest to a key on one side of it in one walk down from
+	 * the root, remembering the last node passed on that side
+	 * @param key key to compare to
+	 * @param below true to look for keys less than key, false for greater
+	 * @param inclusive true if key itself is an answer
+	 * @return closest key, or null if there is none
+	 * @throws IllegalNullKeyException if key is null
+	 */
+	private K nearestKey(K key, boolean below, boolean inclusive) throws IllegalNullKeyException {
+		if (key == null) {
+			throw new IllegalNullKeyException();
+		}
+		Node<K, V> best = null;
+		Node<K, V> current = this.root;
+		while (current != null) {
+			int cmp = key.compareTo(current.key);
+			if (cmp == 0 && inclusive) {
+				return current.key;
 			}
-			// exits at completion
-			if (s.isEmpty()) {
-				return preOrder;
+			if (below ? cmp > 0 : cmp < 0) {
+				// current is on the right side, and anything closer is further in
+				best = current;
+				current = below ? current.right : current.left;
+			} else {
+				current = below ? current.left : current.right;
 			}
-			// pop the element from the stack and adds it to the list
-			current = s.pop();
-			preOrder.add(current.key);
-			current = current.right;
+		}
+		return best == null ? null : best.key;
+	}
+
+	/**
+	 * Walks the keys of the tree in sorted order without copying them.
+	 *
+	 * The cursor keeps only the nodes on the path it still has to come back
+	 * to, at most the height of the tree, so stepping allocates nothing and
+	 * a caller that stops early pays only for the keys it read. next()
+	 * returns each key and getValue() the value that goes with it.
+	 *
+	 * A cursor made by subRange() stops at the high end of its range, even
+	 * after it is moved with first() or seek().
+	 *
+	 * The tree must not be changed while a cursor is in use; a cursor that
+	 * notices the tree changed throws ConcurrentModificationException.
+	 */
+	public class Cursor implements Iterator<K> {
+
+		private Node<K, V>[] path; // nodes whose key is still to come, deepest last
+		private int depth; // number of nodes in path
+		private Node<K, V> current; // node whose key next() returned last, or null
+		private int expectedModCount; // modCount of the tree when the cursor was positioned
+		private K hi; // high end of the range, or null for no end
+		private boolean hiInclusive; // true if a key equal to hi is in the range
+
+		@SuppressWarnings({"unchecked", "rawtypes"})
+		private Cursor() {
+			// an AVL tree can grow a level between seeks, so leave room for one
+			path = (Node<K, V>[]) new BALST.Node[getHeight() + 1];
+		}
+
+		/**
+		 * Moves the cursor before the smallest key
+		 */
+		public void first() {
+			reset();
+			pushLeft(root);
+		}
+
+		/**
+		 * Moves the cursor before the first key that is greater than or
+		 * equal to the specified key, in one walk down from the root
+		 *
+		 * @param from key to start at, which need not be in the tree
+		 * @throws IllegalNullKeyException if from is null
+		 */
+		public void seek(K from) throws IllegalNullKeyException {
+			seek(from, true);
+		}
+
+		/**
+		 * Moves the cursor before the first key greater than, or greater
+		 * than or equal to, the specified key
+		 * @param from key to start at, which need not be in the tree
+		 * @param inclusive true to start at a key equal to from
+		 * @throws IllegalNullKeyException if from is null
+		 */
+		private void seek(K from, boolean inclusive) throws IllegalNullKeyException {
+			if (from == null) {
+				throw new IllegalNullKeyException();
+			}
+			reset();
+			Node<K, V> node = root;
+			while (node != null) {
+				int cmp = from.compareTo(node.key);
+				if (cmp < 0 || (cmp == 0 && inclusive)) {
+					// node comes at or after from, so it is still to come
+					push(node);
+					if (cmp == 0) {
+						return;
+					}
+					node = node.left;
+				} else {
+					node = node.right;
+				}
+			}
+		}
+
+		/**
+		 * Returns true if there is another key, and for a cursor made by
+		 * subRange(), if that key is in the range
+		 */
+		@Override
+		public boolean hasNext() {
+			if (depth == 0) {
+				return false;
+			}
+			if (hi == null) {
+				return true;
+			}
+			int cmp = hi.compareTo(path[depth - 1].key);
+			return cmp > 0 || (cmp == 0 && hiInclusive);
 		}
 
+		/**
+		 * Moves to the next key and returns it
+		 *
+		 * @return next key in sorted order
+		 * @throws NoSuchElementException if there are no more keys
+		 */
+		@Override
+		public K next() {
+			if (expectedModCount != modCount) {
+				throw new ConcurrentModificationException();
+			}
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			Node<K, V> node = path[--depth];
+			path[depth] = null;
+			pushLeft(node.right);
+			current = node;
+			return node.key;
+		}
 
+		/**
+		 * Returns the value that goes with the key next() returned last
+		 *
+		 * @return value of the current key
+		 * @throws IllegalStateException if next() has not been called since the cursor was positioned
+		 */
+		public V getValue() {
+			if (current == null) {
+				throw new IllegalStateException();
+			}
+			if (expectedModCount != modCount) {
+				throw new ConcurrentModificationException();
+			}
+			return current.value;
+		}
+
+		/**
+		 * Empties the path and makes the cursor match the tree as it is now
+		 */
+		private void reset() {
+			while (depth > 0) {
+				path[--depth] = null;
+			}
+			current = null;
+			expectedModCount = modCount;
+			if (path.length < getHeight()) {
+				path = Arrays.copyOf(path, getHeight() + 1);
+			}
+		}
+
+		/**
+		 * Pushes a node and its chain of left children onto the path
+		 * @param node top of the chain, or null
+		 */
+		private void pushLeft(Node<K, V> node) {
+			while (node != null) {
+				push(node);
+				node = node.left;
+			}
+		}
+
+		/**
+		 * Pushes one node onto the path
+		 * @param node node to push
+		 */
+		private void push(Node<K, V> node) {
+			path[depth++] = node;
+		}
 	}
 
 	/**
@@ -337,12 +686,11 @@ public class BALST<K extends Comparable<K>, V> implements BALSTADT<K, V> {
 	public void insert(K key, V value) throws IllegalNullKeyException, DuplicateKeyException {
 		if (key == null) {
 			throw new IllegalNullKeyException();
-		} else if (this.contains(key)) {
-			throw new DuplicateKeyException();
 		}
+		// a duplicate is found on the way down, before anything is changed
 		root = insertHelper(key, value, root);
 		numKeys++;
-
+		modCount++;
 	}
 
 	/**
@@ -352,12 +700,12 @@ public class BALST<K extends Comparable<K>, V> implements BALSTADT<K, V> {
 	 * @param key key to bed added
 	 * @param value value to be added
 	 * @param node node to be added to
-	 * @return
+	 * @return root of the subtree after the insert
+	 * @throws DuplicateKeyException if key is already in the subtree
 	 */
-	private Node<K, V> insertHelper(K key, V value, Node<K,V> node){
+	private Node<K, V> insertHelper(K key, V value, Node<K,V> node) throws DuplicateKeyException {
 		if (node == null) {
 			node = new Node<K, V> (key, value, null, null);
-			this.numKeys++;
 		}
 		else {
 			int n = key.compareTo(node.key);
@@ -367,46 +715,12 @@ public class BALST<K extends Comparable<K>, V> implements BALSTADT<K, V> {
 			else if(n > 0) {
 				node.right = insertHelper(key,value, node.right);
 			}
-		}
-
-		int balanceNumber = getBalanceValue(node);
-		if(balanceNumber < -1) {
-			int n = key.compareTo(node.right.key);
-			if (n<0) {
-				node.right = rightRotation(node.right);
-				node = leftRotation(node);
-			}
-			else if(n>0){
-				node = leftRotation(node);
-			}
-		}else if(balanceNumber > 1) {
-			int n = key.compareTo(node.left.key);
-			if (n>0) {
-				node.left = leftRotation(node.left);
-				node = rightRotation(node);
-			}
-			else if(n<0){
-				node = rightRotation(node);
+			else {
+				throw new DuplicateKeyException();
 			}
 		}
-		return node;
-	}
 
-	/**
-	 *
-	 * This determines the balance value of the tree at a specified node
-	 *
-	 * @param currentNode node to get the balance value at
-	 * @return
-	 */
-	private int getBalanceValue(Node<K, V> currentNode) {
-		if (currentNode == null) {
-			return 0;
-		}else if(currentNode.left == null && currentNode.right == null) {
-			return 1;
-		}else {
-			return getHeight(currentNode.left)- getHeight(currentNode.right);
-		}
+		return rebalance(node);
 	}
 
 	/**
@@ -421,8 +735,10 @@ public class BALST<K extends Comparable<K>, V> implements BALSTADT<K, V> {
 		newRootNode.left = node;
 		node.right = temp;
 
-		newRootNode.height = getHeight(newRootNode);
-		node.height = getHeight(node);
+		// node is now below newRootNode, so it is updated first
+		update(node);
+		update(newRootNode);
+		rotations++;
 
 		return newRootNode;
 	}
@@ -439,8 +755,10 @@ public class BALST<K extends Comparable<K>, V> implements BALSTADT<K, V> {
 		newRootNode.right = node;
 		node.left = temp;
 
-		newRootNode.height = getHeight(newRootNode);
-		node.height = getHeight(node);
+		// node is now below newRootNode, so it is updated first
+		update(node);
+		update(newRootNode);
+		rotations++;
 
 		return newRootNode;
 	}
@@ -456,11 +774,10 @@ public class BALST<K extends Comparable<K>, V> implements BALSTADT<K, V> {
 		if(key == null) {
 			throw new IllegalNullKeyException();
 		}
-		if(!this.contains(key)){
-			throw new KeyNotFoundException();
-		}
+		// a missing key is found on the way down, before anything is changed
 		root = removeHelper(root, key);
 		numKeys--;
+		modCount++;
 		return true;
 	}
 
@@ -469,11 +786,12 @@ public class BALST<K extends Comparable<K>, V> implements BALSTADT<K, V> {
 	 * @param node noode to move from
 	 * @param key key to remove
 	 * @return parent node
+	 * @throws KeyNotFoundException if key is not in the subtree
 	 */
-	private Node<K,V> removeHelper(Node<K,V> node, K key) {
-		// checks for null root
+	private Node<K,V> removeHelper(Node<K,V> node, K key) throws KeyNotFoundException {
+		// fell off the tree without finding the key
 		if (node == null)
-			return node;
+			throw new KeyNotFoundException();
 
 		int cmp = key.compareTo(node.key); // does comparison
 
@@ -514,8 +832,9 @@ public class BALST<K extends Comparable<K>, V> implements BALSTADT<K, V> {
 				// node with two children
 				Node temp = getInOrderSuccessor(node.right);
 
-				// Copy the inorder successor's
+				// Copy the inorder successor's key and value
 				node.key = (K)temp.key;
+				node.value = (V)temp.value;
 
 				// Delete the inorder successor
 				node.right = removeHelper(node.right, (K)temp.key);
@@ -526,11 +845,20 @@ public class BALST<K extends Comparable<K>, V> implements BALSTADT<K, V> {
 		if (node == null)
 			return node;
 
-		// updates height of node
-		node.height = Math.max(getHeight(node.left), getHeight(node.right)) + 1;
+		return rebalance(node);
+	}
+
+	/**
+	 * Updates a node whose subtree just changed and rotates it if the change
+	 * left it unbalanced. Used on the way back up by both insert and remove.
+	 * @param node node to rebalance
+	 * @return root of the subtree after any rotation
+	 */
+	private Node<K,V> rebalance(Node<K,V> node) {
+		update(node);
 
 		// get balance factor
-		int balance = getBalance(node);
+		int balance = node.balanceFactor;
 
 		// rebalances the tree
 		// right rotate
@@ -586,7 +914,140 @@ public class BALST<K extends Comparable<K>, V> implements BALSTADT<K, V> {
 		if(node == null) {
 			return 0;
 		}
-		return getHeight(node.left) - getHeight(node.right);
+		return node.balanceFactor;
+	}
+
+	/**
+	 * Moves every key greater than or equal to the specified key into a new
+	 * tree and returns it, leaving the smaller keys in this tree. Takes
+	 * O(log n) time: the walk down to the key cuts the tree in two, and the
+	 * pieces on each side are joined back up on the way out.
+	 *
+	 * @param key where to split, which need not be in the tree
+	 * @return tree of the keys &gt;= key
+	 * @throws IllegalNullKeyException if key is null
+	 */
+	public BALST<K, V> split(K key) throws IllegalNullKeyException {
+		if (key == null) {
+			throw new IllegalNullKeyException();
+		}
+		Node<K, V>[] halves = splitHelper(root, key);
+		BALST<K, V> upper = new BALST<K, V>();
+		upper.root = halves[1];
+		upper.numKeys = getSize(halves[1]);
+		this.root = halves[0];
+		this.numKeys = getSize(halves[0]);
+		this.modCount++;
+		return upper;
+	}
+
+	/**
+	 * Splits a subtree into the keys less than a key and the keys greater
+	 * than or equal to it
+	 * @param node root of the subtree
+	 * @param key where to split
+	 * @return roots of the smaller and the larger keys, either may be null
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private Node<K, V>[] splitHelper(Node<K, V> node, K key) {
+		if (node == null) {
+			return (Node<K, V>[]) new Node[2];
+		}
+		Node<K, V> left = node.left;
+		Node<K, V> right = node.right;
+		int cmp = key.compareTo(node.key);
+		if (cmp == 0) {
+			// node is the smallest key of the upper half
+			Node<K, V>[] halves = (Node<K, V>[]) new Node[2];
+			halves[0] = left;
+			halves[1] = joinHelper(null, node, right);
+			return halves;
+		}
+		if (cmp < 0) {
+			Node<K, V>[] halves = splitHelper(left, key);
+			halves[1] = joinHelper(halves[1], node, right);
+			return halves;
+		}
+		Node<K, V>[] halves = splitHelper(right, key);
+		halves[0] = joinHelper(left, node, halves[0]);
+		return halves;
+	}
+
+	/**
+	 * Joins two trees into a new one, when every key of left is less than
+	 * every key of right. The nodes are moved, not copied, so both trees are
+	 * left empty. Takes O(log n) time: the smallest node of right is taken
+	 * off and put between the two, down the side of the taller tree at the
+	 * level where the shorter one fits.
+	 *
+	 * @param left tree of the smaller keys
+	 * @param right tree of the larger keys
+	 * @return tree of every key of both
+	 * @throws IllegalArgumentException if a key of left is not less than every key of right
+	 */
+	public static <K extends Comparable<K>, V> BALST<K, V> join(BALST<K, V> left, BALST<K, V> right) {
+		BALST<K, V> joined = new BALST<K, V>();
+		if (left.root != null && right.root != null) {
+			Node<K, V> mid = right.getInOrderSuccessor(right.root);
+			Node<K, V> max = left.root;
+			while (max.right != null) {
+				max = max.right;
+			}
+			if (max.key.compareTo(mid.key) >= 0) {
+				throw new IllegalArgumentException("keys of the trees overlap");
+			}
+			Node<K, V> rest = right.removeMin(right.root);
+			joined.root = joined.joinHelper(left.root, mid, rest);
+		} else {
+			joined.root = left.root != null ? left.root : right.root;
+		}
+		joined.numKeys = left.numKeys + right.numKeys;
+		for (BALST<K, V> tree : Arrays.asList(left, right)) {
+			tree.root = null;
+			tree.numKeys = 0;
+			tree.modCount++;
+		}
+		return joined;
+	}
+
+	/**
+	 * Joins two balanced subtrees and a node whose key lies between them.
+	 * Walks down the side of the taller subtree until the heights are
+	 * within one, hangs the node and the shorter subtree there, and
+	 * rebalances on the way back up.
+	 * @param left subtree of smaller keys, or null
+	 * @param mid node to put between them; its links are overwritten
+	 * @param right subtree of larger keys, or null
+	 * @return root of the joined subtree
+	 */
+	private Node<K, V> joinHelper(Node<K, V> left, Node<K, V> mid, Node<K, V> right) {
+		int leftHeight = getHeight(left);
+		int rightHeight = getHeight(right);
+		if (leftHeight > rightHeight + 1) {
+			left.right = joinHelper(left.right, mid, right);
+			return rebalance(left);
+		}
+		if (rightHeight > leftHeight + 1) {
+			right.left = joinHelper(left, mid, right.left);
+			return rebalance(right);
+		}
+		mid.left = left;
+		mid.right = right;
+		update(mid);
+		return mid;
+	}
+
+	/**
+	 * Takes the smallest node out of a subtree and rebalances it
+	 * @param node root of the subtree
+	 * @return root of what is left of the subtree
+	 */
+	private Node<K, V> removeMin(Node<K, V> node) {
+		if (node.left == null) {
+			return node.right;
+		}
+		node.left = removeMin(node.left);
+		return rebalance(node);
 	}
 
 	/**
@@ -631,15 +1092,107 @@ public class BALST<K extends Comparable<K>, V> implements BALSTADT<K, V> {
 		if(key == null) {
 			throw new IllegalNullKeyException();
 		}
-		// gets list of keys
-		List<K> list =  getLevelOrderTraversal();
+		Node<K, V> current = this.root;
+
+		// moves down the BST one level per comparison
+		while(current != null) {
+			int cmp = key.compareTo(current.key);
+			if(cmp < 0) {
+				current = current.left;
+			} else if(cmp > 0) {
+				current = current.right;
+			} else {
+				return true;
+			}
+		}
+		return false;
+	}
 
-		// checks if list contains key
-		if(list.contains(key)){
-			return true;
+	/**
+	 * Returns the number of keys in the tree that are less than the
+	 * specified key, which is also the position the key has or would have
+	 * in the in-order traversal. Takes one walk down from the root.
+	 *
+	 * @param key key to rank, which need not be in the tree
+	 * @return number of keys less than key
+	 * @throws IllegalNullKeyException if key is null
+	 */
+	public int rank(K key) throws IllegalNullKeyException {
+		if (key == null) {
+			throw new IllegalNullKeyException();
 		}
+		return countBelow(key, false);
+	}
 
-		return false;
+	/**
+	 * Returns the key at a position in the in-order traversal, so select(0)
+	 * is the smallest key and select(numKeys() - 1) the largest. Takes one
+	 * walk down from the root.
+	 *
+	 * @param index position of the key, from 0 to numKeys() - 1
+	 * @return key at that position
+	 * @throws IndexOutOfBoundsException if index is not a position in the tree
+	 */
+	public K select(int index) {
+		if (index < 0 || index >= numKeys) {
+			throw new IndexOutOfBoundsException("index " + index + ", keys " + numKeys);
+		}
+		Node<K, V> current = this.root;
+		while (true) {
+			int leftSize = getSize(current.left);
+			if (index < leftSize) {
+				current = current.left;
+			} else if (index > leftSize) {
+				index -= leftSize + 1;
+				current = current.right;
+			} else {
+				return current.key;
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of keys k in the tree with lo &lt;= k &lt;= hi.
+	 * Takes two walks down from the root.
+	 *
+	 * @param lo smallest key counted, which need not be in the tree
+	 * @param hi largest key counted, which need not be in the tree
+	 * @return number of keys in the range, 0 if lo is greater than hi
+	 * @throws IllegalNullKeyException if lo or hi is null
+	 */
+	public int countInRange(K lo, K hi) throws IllegalNullKeyException {
+		if (lo == null || hi == null) {
+			throw new IllegalNullKeyException();
+		}
+		if (lo.compareTo(hi) > 0) {
+			return 0;
+		}
+		return countBelow(hi, true) - countBelow(lo, false);
+	}
+
+	/**
+	 * Counts the keys less than, or less than or equal to, a key by adding
+	 * up the sizes of the subtrees the walk down passes on its right
+	 * @param key key to compare to
+	 * @param inclusive true to count a key equal to key as well
+	 * @return number of keys counted
+	 */
+	private int countBelow(K key, boolean inclusive) {
+		int count = 0;
+		Node<K, V> current = this.root;
+		while (current != null) {
+			int cmp = key.compareTo(current.key);
+			if (cmp < 0) {
+				current = current.left;
+			} else if (cmp > 0) {
+				// current and everything left of it are counted
+				count += getSize(current.left) + 1;
+				current = current.right;
+			} else {
+				return count + getSize(current.left) + (inclusive ? 1 : 0);
+			}
+		}
+		return count;
 	}
 
 	/**
@@ -650,6 +1203,15 @@ public class BALST<K extends Comparable<K>, V> implements BALSTADT<K, V> {
 		return this.numKeys;
 	}
 
+	/**
+	 * Gets the number of rotations done since the tree was created, to
+	 * compare how much rebalancing a workload costs against RedBlackBALST
+	 * @return rotations
+	 */
+	public long getRotations() {
+		return rotations;
+	}
+
 	/**
 	 * Prints the tree out
 	 */
@@ -0,0 +1,934 @@
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Benchmarks for BALST.
+ *
+ * Run one section with its name as the first argument, or every section with
+ * no argument. A section that takes a size reads it from the second
+ * argument:
+ *
+ *     java BALSTBenchmark descent 1000000
+ *
+ * The numbers are wall-clock measurements from a single JVM run, after a
+ * warm-up round, so treat them as relative comparisons and not absolutes.
+ *
+ * @author Rohan Mendiratta
+ * @version 1.0
+ */
+public class BALSTBenchmark {
+
+	private static final int PROBES = 1_000_000; // operations timed per size
+	private static final String VALUE = "v"; // shared by every pair so only the tree is measured
+	private static final int PAGE = 50; // keys read per page in the cursor section
+	private static final int PAGES = 100_000; // pages read through a cursor per run
+	private static final int TRAVERSAL_PAGES = 5; // pages read through getInOrderTraversal per run
+	private static final int TRAVERSAL_QUERIES = 20; // queries answered through getInOrderTraversal per run
+	private static final int VERSIONS = 100_000; // versions kept alive in the persistent section
+
+	public static void main(String[] args) throws Exception {
+		String section = args.length > 0 ? args[0] : "all";
+		boolean all = section.equals("all");
+		boolean ran = false;
+		if (all || section.equals("descent")) {
+			descent(args.length > 1 ? Integer.parseInt(args[1]) : 10_000_000);
+			ran = true;
+		}
+		if (all || section.equals("cursor")) {
+			cursor(args.length > 1 ? Integer.parseInt(args[1]) : 10_000_000);
+			ran = true;
+		}
+		if (all || section.equals("rank")) {
+			rank(args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000);
+			ran = true;
+		}
+		if (all || section.equals("range")) {
+			range(args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000);
+			ran = true;
+		}
+		if (all || section.equals("bulk")) {
+			bulk(args.length > 1 ? Integer.parseInt(args[1]) : 5_000_000);
+			ran = true;
+		}
+		if (all || section.equals("redblack")) {
+			redBlack(args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000);
+			ran = true;
+		}
+		if (all || section.equals("persistent")) {
+			int readers = args.length > 2 ? Integer.parseInt(args[2])
+				: Runtime.getRuntime().availableProcessors();
+			persistent(args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000, readers);
+			ran = true;
+		}
+		if (!ran) {
+			System.out.println("unknown section: " + section);
+		}
+	}
+
+	/**
+	 * Times insert, contains, get and remove on trees of 10^3 keys up to
+	 * max keys. Each of them is a single walk from the root, so the time per
+	 * operation divided by log2(n) should stay about the same as n grows,
+	 * until the tree no longer fits in the CPU caches and each level visited
+	 * costs a cache miss instead of a few comparisons.
+	 *
+	 * The keys are the even numbers below 2n, inserted in random order, so
+	 * odd numbers are misses. Remove is timed by removing a key and putting
+	 * it back, which keeps the tree at n keys.
+	 * @param max largest number of keys
+	 */
+	static void descent(int max) throws Exception {
+		System.out.println("== descent: ns per operation on a tree of n keys ==");
+		System.out.printf("%10s %6s %10s %10s %10s %10s %10s %12s%n", "keys", "log2n",
+			"insert", "hit", "miss", "get", "rm+ins", "hit/log2n");
+		// warm-up round so every method is compiled before timing
+		descent(10_000, false);
+		for (long n = 1_000; n <= max; n *= 10) {
+			descent((int) n, true);
+		}
+	}
+
+	/**
+	 * Builds one tree and times the operations on it
+	 * @param n number of keys
+	 * @param print true to print a row of results
+	 */
+	private static void descent(int n, boolean print) throws Exception {
+		Integer[] keys = shuffledKeys(n, 2, 0, 42);
+		Integer[] hits = probes(keys, 7);
+		Random random = new Random(11);
+		Integer[] misses = new Integer[PROBES];
+		for (int i = 0; i < misses.length; i++) {
+			// odd numbers below 2n, none of which are in the tree
+			misses[i] = 2 * random.nextInt(n) + 1;
+		}
+
+		BALST<Integer, String> tree = new BALST<>();
+		long start = System.nanoTime();
+		for (Integer key : keys) {
+			tree.insert(key, VALUE);
+		}
+		double insertNs = (double) (System.nanoTime() - start) / n;
+
+		int found = 0;
+		start = System.nanoTime();
+		for (Integer key : hits) {
+			if (tree.contains(key)) {
+				found++;
+			}
+		}
+		double hitNs = (double) (System.nanoTime() - start) / PROBES;
+
+		start = System.nanoTime();
+		for (Integer key : misses) {
+			if (tree.contains(key)) {
+				found++;
+			}
+		}
+		double missNs = (double) (System.nanoTime() - start) / PROBES;
+
+		start = System.nanoTime();
+		for (Integer key : hits) {
+			if (tree.get(key) == VALUE) {
+				found++;
+			}
+		}
+		double getNs = (double) (System.nanoTime() - start) / PROBES;
+
+		start = System.nanoTime();
+		for (Integer key : hits) {
+			tree.remove(key);
+			tree.insert(key, VALUE);
+		}
+		double removeNs = (double) (System.nanoTime() - start) / PROBES;
+
+		// keeps the lookups from being optimized away, and checks them
+		if (found != 2 * PROBES || tree.numKeys() != n) {
+			throw new IllegalStateException("found " + found + " of " + 2 * PROBES);
+		}
+		if (print) {
+			double log = Math.log(n) / Math.log(2);
+			System.out.printf("%10d %6.1f %10.1f %10.1f %10.1f %10.1f %10.1f %12.2f%n", n, log,
+				insertNs, hitNs, missNs, getNs, removeNs, hitNs / log);
+		}
+	}
+
+	/**
+	 * Reads pages of PAGE keys and values from random places in a tree of n
+	 * keys, through a cursor and through getInOrderTraversal(), and reports
+	 * the time and the bytes allocated per page. Then walks the whole tree
+	 * both ways and reports the bytes allocated per key.
+	 * @param n number of keys
+	 */
+	static void cursor(int n) throws Exception {
+		System.out.println("== cursor: pages of " + PAGE + " keys from a tree of " + n + " keys ==");
+		Integer[] keys = shuffledKeys(n, 2, 0, 42);
+		BALST<Integer, String> tree = new BALST<>();
+		for (Integer key : keys) {
+			tree.insert(key, VALUE);
+		}
+		Integer[] starts = new Integer[PAGES];
+		Random random = new Random(5);
+		for (int i = 0; i < PAGES; i++) {
+			// any number below 2n, so half the pages start between keys
+			starts[i] = random.nextInt(2 * n);
+		}
+
+		// warm-up round so both ways are compiled before timing
+		cursorPages(tree, starts);
+		traversalPages(tree, starts);
+
+		System.out.printf("%-28s %12s %14s%n", "", "us/page", "bytes/page");
+		long bytes = allocatedBytes();
+		long start = System.nanoTime();
+		int read = cursorPages(tree, starts);
+		long nanos = System.nanoTime() - start;
+		bytes = allocatedBytes() - bytes;
+		System.out.printf("%-28s %12.2f %14.1f%n", "cursor seek + next",
+			nanos / 1e3 / PAGES, (double) bytes / PAGES);
+
+		bytes = allocatedBytes();
+		start = System.nanoTime();
+		read += traversalPages(tree, starts);
+		nanos = System.nanoTime() - start;
+		bytes = allocatedBytes() - bytes;
+		System.out.printf("%-28s %12.2f %14.1f%n", "getInOrderTraversal",
+			nanos / 1e3 / TRAVERSAL_PAGES, (double) bytes / TRAVERSAL_PAGES);
+
+		System.out.printf("%-28s %12s %14s%n", "whole tree", "ns/key", "bytes/key");
+		bytes = allocatedBytes();
+		start = System.nanoTime();
+		BALST<Integer, String>.Cursor cursor = tree.cursor();
+		while (cursor.hasNext()) {
+			cursor.next();
+			if (cursor.getValue() == VALUE) {
+				read++;
+			}
+		}
+		nanos = System.nanoTime() - start;
+		bytes = allocatedBytes() - bytes;
+		System.out.printf("%-28s %12.1f %14.2f%n", "cursor", (double) nanos / n, (double) bytes / n);
+
+		bytes = allocatedBytes();
+		start = System.nanoTime();
+		read += tree.getInOrderTraversal().size();
+		nanos = System.nanoTime() - start;
+		bytes = allocatedBytes() - bytes;
+		System.out.printf("%-28s %12.1f %14.2f%n", "getInOrderTraversal", (double) nanos / n,
+			(double) bytes / n);
+
+		// keeps the reads from being optimized away
+		if (read <= 0) {
+			throw new IllegalStateException();
+		}
+	}
+
+	/**
+	 * Reads a page of keys and values at each start through one cursor
+	 * @param tree tree to read
+	 * @param starts first key of each page, which need not be in the tree
+	 * @return number of values read
+	 */
+	private static int cursorPages(BALST<Integer, String> tree, Integer[] starts) throws Exception {
+		int read = 0;
+		BALST<Integer, String>.Cursor cursor = tree.cursor();
+		for (Integer from : starts) {
+			cursor.seek(from);
+			for (int i = 0; i < PAGE && cursor.hasNext(); i++) {
+				cursor.next();
+				if (cursor.getValue() == VALUE) {
+					read++;
+				}
+			}
+		}
+		return read;
+	}
+
+	/**
+	 * Reads a page of keys and values at the first TRAVERSAL_PAGES starts by
+	 * listing every key and searching the list, the way callers had to
+	 * before the tree had a cursor
+	 * @param tree tree to read
+	 * @param starts first key of each page, which need not be in the tree
+	 * @return number of values read
+	 */
+	private static int traversalPages(BALST<Integer, String> tree, Integer[] starts)
+		throws Exception {
+		int read = 0;
+		for (int page = 0; page < TRAVERSAL_PAGES; page++) {
+			List<Integer> all = tree.getInOrderTraversal();
+			int at = Collections.binarySearch(all, starts[page]);
+			if (at < 0) {
+				at = -at - 1;
+			}
+			for (Integer key : all.subList(at, Math.min(at + PAGE, all.size()))) {
+				if (tree.get(key) == VALUE) {
+					read++;
+				}
+			}
+		}
+		return read;
+	}
+
+	/**
+	 * Times rank, select and countInRange on a tree of n keys against
+	 * answering the same queries from getInOrderTraversal(), which is how
+	 * they had to be answered before the nodes kept subtree sizes.
+	 * @param n number of keys
+	 */
+	static void rank(int n) throws Exception {
+		System.out.println("== rank: ns per query on a tree of " + n + " keys ==");
+		Integer[] keys = shuffledKeys(n, 2, 0, 42);
+		BALST<Integer, String> tree = new BALST<>();
+		for (Integer key : keys) {
+			tree.insert(key, VALUE);
+		}
+		Random random = new Random(9);
+		Integer[] los = new Integer[PROBES];
+		Integer[] his = new Integer[PROBES];
+		int[] indexes = new int[PROBES];
+		for (int i = 0; i < PROBES; i++) {
+			// any numbers below 2n, so the bounds are as often between keys as on them
+			int a = random.nextInt(2 * n);
+			int b = random.nextInt(2 * n);
+			los[i] = Math.min(a, b);
+			his[i] = Math.max(a, b);
+			indexes[i] = random.nextInt(n);
+		}
+
+		// warm-up round so both ways are compiled before timing
+		treeQueries(tree, los, his, indexes, 1);
+		listQueries(tree, los, his, indexes, 1);
+
+		long[] treeNanos = treeQueries(tree, los, his, indexes, PROBES);
+		long[] listNanos = listQueries(tree, los, his, indexes, TRAVERSAL_QUERIES);
+		System.out.printf("%-14s %14s %18s %10s%n", "query", "BALST", "traversal", "speedup");
+		String[] names = {"rank", "select", "countInRange"};
+		for (int q = 0; q < names.length; q++) {
+			double treeNs = (double) treeNanos[q] / PROBES;
+			double listNs = (double) listNanos[q] / TRAVERSAL_QUERIES;
+			System.out.printf("%-14s %14.1f %18.1f %9.0fx%n", names[q], treeNs, listNs, listNs / treeNs);
+		}
+	}
+
+	/**
+	 * Answers count queries of each kind with the tree's own methods
+	 * @param tree tree to query
+	 * @param los key ranked, and low end of each range
+	 * @param his high end of each range
+	 * @param indexes position selected
+	 * @param count number of queries of each kind
+	 * @return nanoseconds spent on rank, select and countInRange
+	 */
+	private static long[] treeQueries(BALST<Integer, String> tree, Integer[] los, Integer[] his,
+		int[] indexes, int count) throws Exception {
+		long sum = 0;
+		long start = System.nanoTime();
+		for (int i = 0; i < count; i++) {
+			sum += tree.rank(los[i]);
+		}
+		long rankNs = System.nanoTime() - start;
+		start = System.nanoTime();
+		for (int i = 0; i < count; i++) {
+			sum += tree.select(indexes[i]);
+		}
+		long selectNs = System.nanoTime() - start;
+		start = System.nanoTime();
+		for (int i = 0; i < count; i++) {
+			sum += tree.countInRange(los[i], his[i]);
+		}
+		long rangeNs = System.nanoTime() - start;
+		// keeps the queries from being optimized away
+		if (sum < 0) {
+			throw new IllegalStateException();
+		}
+		return new long[] {rankNs, selectNs, rangeNs};
+	}
+
+	/**
+	 * Answers count queries of each kind by listing every key and searching
+	 * the list, and checks the answers against the tree's own methods
+	 * @param tree tree to query
+	 * @param los key ranked, and low end of each range
+	 * @param his high end of each range
+	 * @param indexes position selected
+	 * @param count number of queries of each kind
+	 * @return nanoseconds spent on rank, select and countInRange
+	 */
+	private static long[] listQueries(BALST<Integer, String> tree, Integer[] los, Integer[] his,
+		int[] indexes, int count) throws Exception {
+		long[] nanos = new long[3];
+		for (int i = 0; i < count; i++) {
+			long start = System.nanoTime();
+			int rank = insertionPoint(tree.getInOrderTraversal(), los[i]);
+			nanos[0] += System.nanoTime() - start;
+
+			start = System.nanoTime();
+			Integer selected = tree.getInOrderTraversal().get(indexes[i]);
+			nanos[1] += System.nanoTime() - start;
+
+			start = System.nanoTime();
+			List<Integer> all = tree.getInOrderTraversal();
+			int inRange = insertionPoint(all, his[i] + 1) - insertionPoint(all, los[i]);
+			nanos[2] += System.nanoTime() - start;
+
+			if (rank != tree.rank(los[i]) || !selected.equals(tree.select(indexes[i]))
+				|| inRange != tree.countInRange(los[i], his[i])) {
+				throw new IllegalStateException("answers differ for query " + i);
+			}
+		}
+		return nanos;
+	}
+
+	/**
+	 * Finds the number of keys in a sorted list that are less than a key
+	 * @param sorted sorted keys
+	 * @param key key to look for
+	 * @return number of keys less than key
+	 */
+	private static int insertionPoint(List<Integer> sorted, Integer key) {
+		int at = Collections.binarySearch(sorted, key);
+		return at < 0 ? -at - 1 : at;
+	}
+
+	/**
+	 * Times floorKey and ceilingKey, and reading ranges of k keys and values
+	 * through subRange() against filtering getInOrderTraversal(), on a tree
+	 * of n keys.
+	 * @param n number of keys
+	 */
+	static void range(int n) throws Exception {
+		System.out.println("== range: queries on a tree of " + n + " keys ==");
+		Integer[] keys = shuffledKeys(n, 2, 0, 42);
+		BALST<Integer, String> tree = new BALST<>();
+		for (Integer key : keys) {
+			tree.insert(key, VALUE);
+		}
+		Random random = new Random(13);
+		Integer[] targets = new Integer[PROBES];
+		for (int i = 0; i < PROBES; i++) {
+			targets[i] = random.nextInt(2 * n);
+		}
+
+		long sum = 0;
+		for (int round = 0; round < 2; round++) {
+			// the first round is a warm-up so both methods are compiled before timing
+			long start = System.nanoTime();
+			for (Integer target : targets) {
+				Integer floor = tree.floorKey(target);
+				sum += floor == null ? 0 : floor;
+			}
+			long floorNs = System.nanoTime() - start;
+			start = System.nanoTime();
+			for (Integer target : targets) {
+				Integer ceiling = tree.ceilingKey(target);
+				sum += ceiling == null ? 0 : ceiling;
+			}
+			long ceilingNs = System.nanoTime() - start;
+			if (round == 1) {
+				System.out.printf("floorKey %.1f ns, ceilingKey %.1f ns%n",
+					(double) floorNs / PROBES, (double) ceilingNs / PROBES);
+			}
+		}
+
+		System.out.printf("%10s %16s %16s%n", "k", "subRange us", "traversal us");
+		for (int k = 10; k <= 10_000; k *= 10) {
+			int ranges = PROBES / k;
+			long start = 0;
+			for (int round = 0; round < 2; round++) {
+				// the first round is a warm-up
+				start = System.nanoTime();
+				for (int i = 0; i < ranges; i++) {
+					Integer lo = targets[i];
+					BALST<Integer, String>.Cursor range = tree.subRange(lo, true, lo + 2 * k, false);
+					while (range.hasNext()) {
+						sum += range.next();
+						if (range.getValue() != VALUE) {
+							throw new IllegalStateException();
+						}
+					}
+				}
+			}
+			double rangeUs = (System.nanoTime() - start) / 1e3 / ranges;
+
+			start = System.nanoTime();
+			for (int i = 0; i < TRAVERSAL_PAGES; i++) {
+				Integer lo = targets[i];
+				for (Integer key : tree.getInOrderTraversal()) {
+					if (key >= lo && key < lo + 2 * k && tree.get(key) == VALUE) {
+						sum -= key;
+					}
+				}
+			}
+			double traversalUs = (System.nanoTime() - start) / 1e3 / TRAVERSAL_PAGES;
+			System.out.printf("%10d %16.2f %16.2f%n", k, rangeUs, traversalUs);
+		}
+		// keeps the reads from being optimized away
+		if (sum == 42) {
+			System.out.println();
+		}
+	}
+
+	/**
+	 * Loads n sorted pairs into a tree through the bulk constructor and
+	 * through insert(), then times splitting the tree at random keys and
+	 * joining the halves back together.
+	 * @param n number of keys
+	 */
+	static void bulk(int n) throws Exception {
+		System.out.println("== bulk: loading and splitting " + n + " sorted keys ==");
+		Integer[] keys = new Integer[n];
+		String[] values = new String[n];
+		for (int i = 0; i < n; i++) {
+			keys[i] = 2 * i;
+			values[i] = VALUE;
+		}
+
+		BALST<Integer, String> tree = null;
+		long start = 0;
+		for (int round = 0; round < 2; round++) {
+			// the first round is a warm-up
+			tree = null;
+			System.gc();
+			start = System.nanoTime();
+			tree = new BALST<>(keys, values);
+		}
+		double bulkMs = (System.nanoTime() - start) / 1e6;
+		int bulkHeight = tree.getHeight();
+
+		tree = null;
+		System.gc();
+		start = System.nanoTime();
+		tree = new BALST<>();
+		for (int i = 0; i < n; i++) {
+			tree.insert(keys[i], values[i]);
+		}
+		double insertMs = (System.nanoTime() - start) / 1e6;
+		System.out.printf("%-22s %10s %8s%n", "", "ms", "height");
+		System.out.printf("%-22s %10.1f %8d%n", "bulk constructor", bulkMs, bulkHeight);
+		System.out.printf("%-22s %10.1f %8d%n", "insert in order", insertMs, tree.getHeight());
+
+		tree = new BALST<>(keys, values);
+		Random random = new Random(17);
+		int rounds = 100_000;
+		long splitNs = 0;
+		long joinNs = 0;
+		for (int i = 0; i < rounds; i++) {
+			Integer at = random.nextInt(2 * n);
+			start = System.nanoTime();
+			BALST<Integer, String> upper = tree.split(at);
+			long mid = System.nanoTime();
+			tree = BALST.join(tree, upper);
+			joinNs += System.nanoTime() - mid;
+			splitNs += mid - start;
+		}
+		if (tree.numKeys() != n) {
+			throw new IllegalStateException("lost keys");
+		}
+		System.out.printf("split %.2f us, join %.2f us, height after %d rounds %d%n",
+			splitNs / 1e3 / rounds, joinNs / 1e3 / rounds, rounds, tree.getHeight());
+	}
+
+	/**
+	 * Compares BALST's AVL tree with RedBlackBALST on n keys in random and in
+	 * sorted order: inserting every key, getting every key, then removing
+	 * every key in the same order. Then runs a mixed workload of n
+	 * operations, half inserts, a quarter removes and a quarter gets, on a
+	 * tree that starts with n / 2 keys.
+	 * @param n number of keys
+	 */
+	static void redBlack(int n) throws Exception {
+		System.out.println("== redblack: AVL against red-black on " + n + " keys ==");
+		Integer[] random = shuffledKeys(n, 2, 0, 42);
+		Integer[] sorted = new Integer[n];
+		for (int i = 0; i < n; i++) {
+			sorted[i] = 2 * i;
+		}
+
+		// warm-up round so both trees are compiled before timing
+		for (int round = 0; round < 2; round++) {
+			boolean print = round == 1;
+			if (print) {
+				System.out.printf("%-8s %-10s %10s %10s %10s %10s %10s %8s%n", "keys", "tree",
+					"insert ns", "get ns", "remove ns", "rot/ins", "rot/rm", "height");
+			}
+			for (Integer[] keys : Arrays.asList(random, sorted)) {
+				String order = keys == random ? "random" : "sorted";
+				fillAndEmpty(order, "AVL", new BALST<Integer, String>(), keys, print);
+				fillAndEmpty(order, "red-black", new RedBlackBALST<Integer, String>(), keys, print);
+			}
+		}
+
+		int[] ops = new int[n];
+		Integer[] opKeys = new Integer[n];
+		Integer[] start = mixedWorkload(n, ops, opKeys);
+		for (int round = 0; round < 2; round++) {
+			boolean print = round == 1;
+			if (print) {
+				System.out.printf("%-8s %-10s %10s %10s %8s%n", "mixed", "tree", "ns/op", "rot/write",
+					"height");
+			}
+			mixed("AVL", new BALST<Integer, String>(), start, ops, opKeys, print);
+			mixed("red-black", new RedBlackBALST<Integer, String>(), start, ops, opKeys, print);
+		}
+	}
+
+	/**
+	 * Inserts, gets and removes every key in the given order and prints a row
+	 * @param order name of the key order
+	 * @param name name of the tree
+	 * @param tree empty tree
+	 * @param keys keys in the order to use
+	 * @param print true to print a row of results
+	 */
+	private static void fillAndEmpty(String order, String name, BALSTADT<Integer, String> tree,
+		Integer[] keys, boolean print) throws Exception {
+		int n = keys.length;
+		System.gc();
+		long start = System.nanoTime();
+		for (Integer key : keys) {
+			tree.insert(key, VALUE);
+		}
+		long insertNs = System.nanoTime() - start;
+		long insertRotations = rotations(tree);
+		int height = tree.getHeight();
+
+		int found = 0;
+		start = System.nanoTime();
+		for (Integer key : keys) {
+			if (tree.get(key) == VALUE) {
+				found++;
+			}
+		}
+		long getNs = System.nanoTime() - start;
+
+		start = System.nanoTime();
+		for (Integer key : keys) {
+			tree.remove(key);
+		}
+		long removeNs = System.nanoTime() - start;
+		long removeRotations = rotations(tree) - insertRotations;
+
+		if (found != n || tree.numKeys() != 0) {
+			throw new IllegalStateException(name + " lost keys");
+		}
+		if (print) {
+			System.out.printf("%-8s %-10s %10.1f %10.1f %10.1f %10.3f %10.3f %8d%n", order, name,
+				(double) insertNs / n, (double) getNs / n, (double) removeNs / n,
+				(double) insertRotations / n, (double) removeRotations / n, height);
+		}
+	}
+
+	/**
+	 * Makes a mixed workload: the keys to start with, and for each operation
+	 * its kind (0 insert, 1 remove, 2 get) and key. Every insert is of a key
+	 * not in the tree and every remove and get of a key that is.
+	 * @param n number of operations
+	 * @param ops filled with the kind of each operation
+	 * @param opKeys filled with the key of each operation
+	 * @return keys to insert before the operations
+	 */
+	private static Integer[] mixedWorkload(int n, int[] ops, Integer[] opKeys) {
+		Random random = new Random(23);
+		Integer[] fresh = shuffledKeys(2 * n, 2, 0, 29); // keys not yet used, taken from the end
+		int freshLeft = fresh.length;
+		Integer[] present = new Integer[2 * n]; // keys in the tree, in no order
+		int count = 0;
+		for (int i = 0; i < n / 2; i++) {
+			present[count++] = fresh[--freshLeft];
+		}
+		Integer[] start = Arrays.copyOf(present, count);
+		for (int i = 0; i < n; i++) {
+			int kind = random.nextInt(4);
+			if (kind >= 2 || count == 0) {
+				ops[i] = 0;
+				opKeys[i] = fresh[--freshLeft];
+				present[count++] = opKeys[i];
+			} else {
+				// kind 0 removes and kind 1 gets a key already in the tree
+				int at = random.nextInt(count);
+				opKeys[i] = present[at];
+				if (kind == 0) {
+					ops[i] = 1;
+					present[at] = present[--count];
+				} else {
+					ops[i] = 2;
+				}
+			}
+		}
+		return start;
+	}
+
+	/**
+	 * Runs a mixed workload on a tree and prints a row
+	 * @param name name of the tree
+	 * @param tree empty tree
+	 * @param start keys to insert first
+	 * @param ops kind of each operation
+	 * @param opKeys key of each operation
+	 * @param print true to print a row of results
+	 */
+	private static void mixed(String name, BALSTADT<Integer, String> tree, Integer[] start, int[] ops,
+		Integer[] opKeys, boolean print) throws Exception {
+		for (Integer key : start) {
+			tree.insert(key, VALUE);
+		}
+		long rotationsBefore = rotations(tree);
+		int writes = 0;
+		int found = 0;
+		System.gc();
+		long begin = System.nanoTime();
+		for (int i = 0; i < ops.length; i++) {
+			if (ops[i] == 0) {
+				tree.insert(opKeys[i], VALUE);
+				writes++;
+			} else if (ops[i] == 1) {
+				tree.remove(opKeys[i]);
+				writes++;
+			} else if (tree.get(opKeys[i]) == VALUE) {
+				found++;
+			}
+		}
+		long nanos = System.nanoTime() - begin;
+		if (found != ops.length - writes) {
+			throw new IllegalStateException(name + " lost keys");
+		}
+		if (print) {
+			System.out.printf("%-8s %-10s %10.1f %10.3f %8d%n", "", name, (double) nanos / ops.length,
+				(double) (rotations(tree) - rotationsBefore) / writes, tree.getHeight());
+		}
+	}
+
+	/**
+	 * Gets the rotations a tree has done so far
+	 * @param tree BALST or RedBlackBALST
+	 * @return rotations
+	 */
+	private static long rotations(BALSTADT<Integer, String> tree) {
+		if (tree instanceof BALST) {
+			return ((BALST<Integer, String>) tree).getRotations();
+		}
+		return ((RedBlackBALST<Integer, String>) tree).getRotations();
+	}
+
+	/**
+	 * Measures PersistentBALST on n keys: the cost of an insert against
+	 * BALST, the cost of a snapshot against copying a BALST, the heap each
+	 * kept version costs, and readers walking snapshots while a writer
+	 * changes the tree.
+	 * @param n number of keys
+	 * @param readers number of reader threads
+	 */
+	static void persistent(int n, int readers) throws Exception {
+		System.out.println("== persistent: path copying on " + n + " keys ==");
+		Integer[] keys = shuffledKeys(n, 2, 0, 42);
+		PersistentBALST<Integer, String> tree = new PersistentBALST<>();
+		BALST<Integer, String> avl = new BALST<>();
+		for (int round = 0; round < 2; round++) {
+			// the first round is a warm-up
+			tree = new PersistentBALST<>();
+			avl = new BALST<>();
+			System.gc();
+			long start = System.nanoTime();
+			for (Integer key : keys) {
+				tree.insert(key, VALUE);
+			}
+			long persistentNs = System.nanoTime() - start;
+			System.gc();
+			start = System.nanoTime();
+			for (Integer key : keys) {
+				avl.insert(key, VALUE);
+			}
+			long avlNs = System.nanoTime() - start;
+			if (round == 1) {
+				System.out.printf("insert: %.1f ns persistent, %.1f ns BALST%n",
+					(double) persistentNs / n, (double) avlNs / n);
+			}
+		}
+
+		// a snapshot is one read of a reference; a copy is a whole new tree
+		long start = System.nanoTime();
+		long sum = 0;
+		for (int i = 0; i < PROBES; i++) {
+			sum += tree.snapshot().numKeys();
+		}
+		double snapshotNs = (double) (System.nanoTime() - start) / PROBES;
+		String[] values = new String[n];
+		Arrays.fill(values, VALUE);
+		long before = usedHeap();
+		start = System.nanoTime();
+		BALST<Integer, String> copy = new BALST<>(avl.getInOrderTraversal().toArray(new Integer[0]), values);
+		double copyMs = (System.nanoTime() - start) / 1e6;
+		long copyBytes = usedHeap() - before;
+		System.out.printf("snapshot: %.1f ns; copying a BALST: %.1f ms and %d bytes%n", snapshotNs,
+			copyMs, copyBytes);
+		sum += copy.numKeys();
+		copy = null;
+		avl = null;
+
+		// each version differs from the one before by one insert of a new, odd key
+		Integer[] fresh = shuffledKeys(VERSIONS, 2 * Math.max(1, n / VERSIONS), 1, 41);
+		PersistentBALST.Version<Integer, String>[] versions = keep(VERSIONS);
+		before = usedHeap();
+		for (int i = 0; i < VERSIONS; i++) {
+			tree.insert(fresh[i], VALUE);
+			versions[i] = tree.snapshot();
+		}
+		long perVersion = (usedHeap() - before) / VERSIONS;
+		System.out.printf("heap per kept version: %d bytes at height %d (%.5f%% of a copy)%n",
+			perVersion, tree.getHeight(), 100.0 * perVersion / copyBytes);
+		sum += versions[VERSIONS - 1].numKeys();
+		versions = null;
+
+		sum += concurrent(tree, keys, readers);
+		// keeps the reads from being optimized away
+		if (sum == 42) {
+			System.out.println();
+		}
+	}
+
+	/**
+	 * Makes an array to keep versions in
+	 * @param size length of the array
+	 * @return empty array
+	 */
+	@SuppressWarnings({"unchecked", "rawtypes"})
+	private static PersistentBALST.Version<Integer, String>[] keep(int size) {
+		return (PersistentBALST.Version<Integer, String>[]) new PersistentBALST.Version[size];
+	}
+
+	/**
+	 * Runs one writer that removes and puts back random keys and a number of
+	 * readers that take snapshots and get random keys from them, for a
+	 * second, and prints the operations each side managed
+	 * @param tree tree holding keys
+	 * @param keys keys in the tree
+	 * @param readers number of reader threads
+	 * @return sum of the operations, so they are not optimized away
+	 */
+	private static long concurrent(PersistentBALST<Integer, String> tree, Integer[] keys, int readers)
+		throws Exception {
+		AtomicBoolean stop = new AtomicBoolean();
+		AtomicLong reads = new AtomicLong();
+		AtomicLong inconsistent = new AtomicLong();
+		Thread[] threads = new Thread[readers];
+		for (int t = 0; t < readers; t++) {
+			long seed = t;
+			threads[t] = new Thread(() -> {
+				Random random = new Random(seed);
+				long done = 0;
+				while (!stop.get()) {
+					PersistentBALST.Version<Integer, String> snapshot = tree.snapshot();
+					int expected = snapshot.numKeys();
+					for (int i = 0; i < 100; i++) {
+						try {
+							// a key the writer removed after the snapshot is still in it
+							if (snapshot.contains(keys[random.nextInt(keys.length)])) {
+								done++;
+							}
+						} catch (IllegalNullKeyException e) {
+							throw new IllegalStateException(e);
+						}
+					}
+					if (snapshot.numKeys() != expected) {
+						inconsistent.incrementAndGet();
+					}
+				}
+				reads.addAndGet(done);
+			});
+		}
+		long writes = 0;
+		Random random = new Random(37);
+		for (Thread thread : threads) {
+			thread.start();
+		}
+		long end = System.nanoTime() + 1_000_000_000L;
+		while (System.nanoTime() < end) {
+			Integer key = keys[random.nextInt(keys.length)];
+			tree.remove(key);
+			tree.insert(key, VALUE);
+			writes += 2;
+		}
+		stop.set(true);
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		System.out.printf("1 writer: %d writes/s; %d readers: %d contains/s from snapshots%n",
+			writes, readers, reads.get());
+		if (inconsistent.get() != 0) {
+			throw new IllegalStateException("a snapshot changed");
+		}
+		return writes + reads.get();
+	}
+
+	/**
+	 * Gets the bytes of heap in use after asking for a few full collections
+	 * @return used heap bytes
+	 */
+	static long usedHeap() {
+		Runtime runtime = Runtime.getRuntime();
+		long used = Long.MAX_VALUE;
+		for (int i = 0; i < 5; i++) {
+			System.gc();
+			used = Math.min(used, runtime.totalMemory() - runtime.freeMemory());
+		}
+		return used;
+	}
+
+	/**
+	 * Gets the bytes allocated by the current thread so far
+	 * @return allocated bytes, or 0 if the VM does not track them
+	 */
+	static long allocatedBytes() {
+		java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		if (threads instanceof com.sun.management.ThreadMXBean) {
+			return ((com.sun.management.ThreadMXBean) threads)
+				.getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		return 0;
+	}
+
+	/**
+	 * Makes the keys start, start + step, ... for n keys in random order
+	 * @param n number of keys
+	 * @param step gap between keys
+	 * @param start first key
+	 * @param seed seed of the shuffle
+	 * @return keys
+	 */
+	static Integer[] shuffledKeys(int n, int step, int start, long seed) {
+		Integer[] keys = new Integer[n];
+		for (int i = 0; i < n; i++) {
+			keys[i] = start + i * step;
+		}
+		Random random = new Random(seed);
+		for (int i = n - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			Integer swap = keys[i];
+			keys[i] = keys[j];
+			keys[j] = swap;
+		}
+		return keys;
+	}
+
+	/**
+	 * Picks PROBES keys at random from a set of keys, repeating as needed
+	 * @param keys keys to pick from
+	 * @param seed seed of the picks
+	 * @return keys picked
+	 */
+	static Integer[] probes(Integer[] keys, long seed) {
+		Random random = new Random(seed);
+		Integer[] probes = new Integer[PROBES];
+		for (int i = 0; i < PROBES; i++) {
+			probes[i] = keys[random.nextInt(keys.length)];
+		}
+		return probes;
+	}
+
+}
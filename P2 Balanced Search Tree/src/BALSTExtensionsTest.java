@@ -0,0 +1,311 @@
+import static org.junit.Assert.fail;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tests what only BALST offers beyond BALSTADT: heights, cursors, rank and
+ * select, floor and ceiling, sub-ranges, bulk building, split and join.
+ * They are kept out of BALSTTest so the subclasses that run it against
+ * other trees do not run them again.
+ */
+public class BALSTExtensionsTest {
+
+    BALST<Integer, String> avl;
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @BeforeEach
+    void setUp() throws Exception {
+        avl = new BALST<Integer, String>();
+    }
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @AfterEach
+    void tearDown() throws Exception {
+        avl = null;
+    }
+
+    /**
+     * Inserts 127 keys in sorted order, which a working AVL tree turns into a
+     * perfect tree of height 7, then removes keys and checks the height only
+     * shrinks as far as the number of keys allows.
+     */
+    @Test
+    void testBALST_012_height_after_sorted_inserts_and_removes() {
+        try {
+            Assert.assertEquals(0, avl.getHeight());
+            for (int key = 1; key <= 127; key++) {
+                avl.insert(key, "" + key);
+            }
+            Assert.assertEquals(7, avl.getHeight());
+            for (int key = 1; key <= 127; key += 2) {
+                avl.remove(key);
+            }
+            // 63 keys need at least 6 levels and an AVL tree of 63 keys has at most 7
+            int height = avl.getHeight();
+            if (height < 6 || height > 7) {
+                fail("Test: 012 height " + height + " for 63 keys");
+            }
+            for (int key = 2; key <= 127; key += 2) {
+                avl.remove(key);
+            }
+            Assert.assertEquals(0, avl.getHeight());
+        } catch (Exception e) {
+            e.printStackTrace();
+            fail("Unexpected exception AVL 012: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Seeks a cursor to keys in the tree, between keys and past the end, and
+     * checks the keys and values it walks over.
+     */
+    @Test
+    void testBALST_013_cursor_seek_and_values() {
+        try {
+            for (int key = 10; key <= 90; key += 10) {
+                avl.insert(key, "v" + key);
+            }
+            BALST<Integer, String>.Cursor cursor = avl.cursor(30);
+            for (int key = 30; key <= 90; key += 10) {
+                Assert.assertTrue(cursor.hasNext());
+                Assert.assertEquals(Integer.valueOf(key), cursor.next());
+                Assert.assertEquals("v" + key, cursor.getValue());
+            }
+            Assert.assertFalse(cursor.hasNext());
+
+            cursor.seek(45);
+            Assert.assertEquals(Integer.valueOf(50), cursor.next());
+            cursor.seek(5);
+            Assert.assertEquals(Integer.valueOf(10), cursor.next());
+            cursor.seek(95);
+            Assert.assertFalse(cursor.hasNext());
+
+            Assert.assertFalse(new BALST<String, String>().cursor().hasNext());
+        } catch (Exception e) {
+            e.printStackTrace();
+            fail("Unexpected exception AVL 013: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Changes the tree while a cursor is open and checks the cursor notices.
+     */
+    @Test
+    void testBALST_014_cursor_fails_after_change() {
+        try {
+            avl.insert(10, "10");
+            avl.insert(20, "20");
+            BALST<Integer, String>.Cursor cursor = avl.cursor();
+            Assert.assertEquals(Integer.valueOf(10), cursor.next());
+            avl.insert(30, "30");
+            try {
+                cursor.next();
+                fail("Test: 014 cursor did not notice the insert");
+            } catch (java.util.ConcurrentModificationException e) {
+                // expected
+            }
+            // seeking again picks up the tree as it is now
+            cursor.seek(20);
+            Assert.assertEquals(Integer.valueOf(20), cursor.next());
+            Assert.assertEquals(Integer.valueOf(30), cursor.next());
+        } catch (Exception e) {
+            e.printStackTrace();
+            fail("Unexpected exception AVL 014: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Checks rank, select and countInRange against the keys that were
+     * inserted, including keys that are not in the tree, before and after
+     * removes that rotate the tree.
+     */
+    @Test
+    void testBALST_015_rank_select_and_count_in_range() {
+        try {
+            for (int key = 10; key <= 200; key += 10) {
+                avl.insert(key, "" + key);
+            }
+            Assert.assertEquals(0, avl.rank(10));
+            Assert.assertEquals(0, avl.rank(5));
+            Assert.assertEquals(4, avl.rank(45));
+            Assert.assertEquals(20, avl.rank(500));
+            Assert.assertEquals(Integer.valueOf(10), avl.select(0));
+            Assert.assertEquals(Integer.valueOf(200), avl.select(19));
+            Assert.assertEquals(5, avl.countInRange(30, 70));
+            Assert.assertEquals(4, avl.countInRange(25, 65));
+            Assert.assertEquals(0, avl.countInRange(70, 30));
+            Assert.assertEquals(20, avl.countInRange(0, 1000));
+
+            for (int key = 20; key <= 200; key += 40) {
+                avl.remove(key);
+            }
+            List<Integer> keys = avl.getInOrderTraversal();
+            for (int i = 0; i < keys.size(); i++) {
+                Assert.assertEquals(keys.get(i), avl.select(i));
+                Assert.assertEquals(i, avl.rank(keys.get(i)));
+            }
+            Assert.assertEquals(5, avl.countInRange(20, 80));
+            try {
+                avl.select(keys.size());
+                fail("Test: 015 select past the last key");
+            } catch (IndexOutOfBoundsException e) {
+                // expected
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            fail("Unexpected exception AVL 015: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Checks floorKey, ceilingKey, lowerKey and higherKey on keys in the
+     * tree, between keys and past both ends.
+     */
+    @Test
+    void testBALST_016_floor_ceiling_lower_higher() {
+        try {
+            for (int key = 10; key <= 90; key += 10) {
+                avl.insert(key, "" + key);
+            }
+            Assert.assertEquals(Integer.valueOf(40), avl.floorKey(40));
+            Assert.assertEquals(Integer.valueOf(40), avl.floorKey(45));
+            Assert.assertEquals(Integer.valueOf(40), avl.ceilingKey(40));
+            Assert.assertEquals(Integer.valueOf(50), avl.ceilingKey(45));
+            Assert.assertEquals(Integer.valueOf(30), avl.lowerKey(40));
+            Assert.assertEquals(Integer.valueOf(50), avl.higherKey(40));
+            Assert.assertNull(avl.floorKey(5));
+            Assert.assertNull(avl.lowerKey(10));
+            Assert.assertNull(avl.ceilingKey(95));
+            Assert.assertNull(avl.higherKey(90));
+            Assert.assertNull(new BALST<String, String>().floorKey("aa"));
+        } catch (Exception e) {
+            e.printStackTrace();
+            fail("Unexpected exception AVL 016: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads sub-ranges with each combination of open and closed ends and
+     * checks the keys and values returned.
+     */
+    @Test
+    void testBALST_017_sub_range() {
+        try {
+            for (int key = 10; key <= 90; key += 10) {
+                avl.insert(key, "v" + key);
+            }
+            Assert.assertEquals(Arrays.asList(30, 40, 50), keys(avl.subRange(30, true, 50, true)));
+            Assert.assertEquals(Arrays.asList(40), keys(avl.subRange(30, false, 50, false)));
+            Assert.assertEquals(Arrays.asList(30, 40), keys(avl.subRange(25, false, 50, false)));
+            Assert.assertEquals(Arrays.asList(40, 50), keys(avl.subRange(30, false, 55, true)));
+            Assert.assertEquals(Arrays.asList(), keys(avl.subRange(50, true, 30, true)));
+            Assert.assertEquals(Arrays.asList(), keys(avl.subRange(41, true, 49, true)));
+
+            BALST<Integer, String>.Cursor range = avl.subRange(60, true, 80, true);
+            while (range.hasNext()) {
+                Integer key = range.next();
+                Assert.assertEquals("v" + key, range.getValue());
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            fail("Unexpected exception AVL 017: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads every key left in a cursor into a list
+     * @param cursor cursor to read
+     * @return keys read, in order
+     */
+    private static List<Integer> keys(BALST<Integer, String>.Cursor cursor) {
+        List<Integer> keys = new ArrayList<>();
+        while (cursor.hasNext()) {
+            keys.add(cursor.next());
+        }
+        return keys;
+    }
+
+    /**
+     * Builds a tree from sorted arrays and checks it is as short as possible
+     * and holds every pair, then checks unsorted keys are refused.
+     */
+    @Test
+    void testBALST_018_bulk_build_from_sorted_arrays() {
+        try {
+            Integer[] keys = new Integer[100];
+            String[] values = new String[100];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = i * 10;
+                values[i] = "v" + i * 10;
+            }
+            BALST<Integer, String> tree = new BALST<>(keys, values);
+            Assert.assertEquals(100, tree.numKeys());
+            Assert.assertEquals(7, tree.getHeight());
+            Assert.assertEquals(Arrays.asList(keys), tree.getInOrderTraversal());
+            Assert.assertEquals("v420", tree.get(420));
+            tree.insert(5, "v5");
+            Assert.assertEquals(Integer.valueOf(5), tree.select(1));
+
+            try {
+                new BALST<>(new Integer[] {1, 3, 2}, new String[] {"1", "3", "2"});
+                fail("Test: 018 unsorted keys were accepted");
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            fail("Unexpected exception AVL 018: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Splits a tree at a key and joins the halves back together, checking
+     * the keys and values on each side.
+     */
+    @Test
+    void testBALST_019_split_and_join() {
+        try {
+            for (int key = 10; key <= 200; key += 10) {
+                avl.insert(key, "v" + key);
+            }
+            BALST<Integer, String> upper = avl.split(75);
+            Assert.assertEquals(Arrays.asList(10, 20, 30, 40, 50, 60, 70), avl.getInOrderTraversal());
+            Assert.assertEquals(7, avl.numKeys());
+            Assert.assertEquals(13, upper.numKeys());
+            Assert.assertEquals(Integer.valueOf(80), upper.select(0));
+            Assert.assertEquals("v80", upper.get(80));
+
+            BALST<Integer, String> whole = BALST.join(avl, upper);
+            Assert.assertEquals(20, whole.numKeys());
+            Assert.assertEquals(0, avl.numKeys());
+            Assert.assertEquals(0, upper.numKeys());
+            for (int key = 10; key <= 200; key += 10) {
+                Assert.assertEquals("v" + key, whole.get(key));
+            }
+
+            BALST<Integer, String> fromSplitKey = whole.split(100);
+            Assert.assertEquals(Integer.valueOf(100), fromSplitKey.select(0));
+            try {
+                BALST.join(fromSplitKey, whole);
+                fail("Test: 019 overlapping trees were joined");
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            fail("Unexpected exception AVL 019: " + e.getMessage());
+        }
+    }
+
+}
@@ -11,8 +11,8 @@ import java.util.List;
 //@SuppressWarnings("rawtypes")
 public class BALSTTest {
 
-    BALST<String, String> balst1;
-    BALST<Integer, String> balst2;
+    BALSTADT<String, String> balst1;
+    BALSTADT<Integer, String> balst2;
 
     /**
      * @throws java.lang.Exception
@@ -32,11 +32,11 @@ public class BALSTTest {
         balst2 = null;
     }
 
-    protected BALST<String, String> createInstance() {
+    protected BALSTADT<String, String> createInstance() {
         return new BALST<String, String>();
     }
 
-    protected BALST<Integer, String> createInstance2() {
+    protected BALSTADT<Integer, String> createInstance2() {
         return new BALST<Integer, String>();
     }
 
@@ -338,6 +338,76 @@ public class BALSTTest {
         }
     }
 
-}
+    /**
+     * Inserts a duplicate key and checks that it is refused without changing
+     * the number of keys or the value already stored.
+     */
+    @Test
+    void testBALST_009_insert_duplicate_throws_and_keeps_count() {
+        try {
+            balst2.insert(20, "20");
+            balst2.insert(10, "10");
+            balst2.insert(30, "30");
+            Assert.assertEquals(3, balst2.numKeys());
+            try {
+                balst2.insert(10, "other");
+                fail("Test: 009 duplicate key was inserted");
+            } catch (DuplicateKeyException e) {
+                // expected
+            }
+            Assert.assertEquals(3, balst2.numKeys());
+            Assert.assertEquals("10", balst2.get(10));
+        } catch (Exception e) {
+            e.printStackTrace();
+            fail("Unexpected exception AVL 009: " + e.getMessage());
+        }
+    }
 
+    /**
+     * Removes a key that is not in the tree and checks that nothing changes.
+     */
+    @Test
+    void testBALST_010_remove_missing_key_throws() {
+        try {
+            balst2.insert(20, "20");
+            balst2.insert(10, "10");
+            balst2.insert(30, "30");
+            try {
+                balst2.remove(25);
+                fail("Test: 010 missing key was removed");
+            } catch (KeyNotFoundException e) {
+                // expected
+            }
+            Assert.assertEquals(3, balst2.numKeys());
+            Assert.assertEquals(Arrays.asList(10, 20, 30), balst2.getInOrderTraversal());
+            Assert.assertFalse(balst2.contains(25));
+            Assert.assertTrue(balst2.contains(30));
+        } catch (Exception e) {
+            e.printStackTrace();
+            fail("Unexpected exception AVL 010: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Removes a node with two children and checks that every key left in the
+     * tree still has its own value.
+     */
+    @Test
+    void testBALST_011_remove_node_with_two_children_keeps_values() {
+        try {
+            for (int key : new int[] {40, 20, 60, 10, 30, 50, 70}) {
+                balst2.insert(key, "v" + key);
+            }
+            balst2.remove(40);
+            Assert.assertEquals(6, balst2.numKeys());
+            Assert.assertFalse(balst2.contains(40));
+            for (int key : new int[] {10, 20, 30, 50, 60, 70}) {
+                Assert.assertEquals("v" + key, balst2.get(key));
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+            fail("Unexpected exception AVL 011: " + e.getMessage());
+        }
+    }
 
+}
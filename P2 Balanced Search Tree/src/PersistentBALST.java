@@ -0,0 +1,597 @@
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Persistent AVL implementation of BALSTADT.
+ *
+ * Nodes are never changed once built. An insert or remove copies only the
+ * nodes on the path from the root to the key, plus the few nodes a
+ * rotation touches, and shares every other node with the tree it started
+ * from. Each result is a {@link Version}: an immutable tree with its own
+ * root and key count.
+ *
+ * This class holds the current version. snapshot() returns it in O(1), and
+ * the snapshot stays the same however the tree changes afterwards. Readers
+ * may walk any version from any thread without locks, because nothing they
+ * can reach is ever written again. Writers publish a new version with a
+ * compare-and-set, so concurrent writers retry instead of blocking.
+ *
+ * @author Rohan Mendiratta
+ *
+ * @param <K> is the generic type of key
+ * @param <V> is the generic type of value
+ */
+public class PersistentBALST<K extends Comparable<K>, V> implements BALSTADT<K, V> {
+
+	/**
+	 * Immutable node; every field is set once by the constructor
+	 * @param <K>
+	 * @param <V>
+	 */
+	static final class Node<K,V> {
+
+		final K key;
+		final V value;
+		final Node<K,V> left;
+		final Node<K,V> right;
+		final int height; // levels in the subtree rooted here
+
+		/**
+		 * @param key
+		 * @param value
+		 * @param left
+		 * @param right
+		 */
+		Node(K key, V value, Node<K,V> left, Node<K,V> right) {
+			this.key = key;
+			this.value = value;
+			this.left = left;
+			this.right = right;
+			this.height = Math.max(heightOf(left), heightOf(right)) + 1;
+		}
+	}
+
+	/**
+	 * One immutable version of the tree. insert() and remove() return a new
+	 * version and leave this one as it was, so a version can be kept, shared
+	 * between threads and read at any time.
+	 *
+	 * @param <K> is the generic type of key
+	 * @param <V> is the generic type of value
+	 */
+	public static final class Version<K extends Comparable<K>, V> implements Iterable<K> {
+
+		private final Node<K, V> root; // holds root node
+		private final int numKeys; // holds number of keys in this version
+
+		/**
+		 * @param root root of the tree, or null
+		 * @param numKeys number of keys in the tree
+		 */
+		private Version(Node<K, V> root, int numKeys) {
+			this.root = root;
+			this.numKeys = numKeys;
+		}
+
+		/**
+		 * Returns a version with the key,value pair added. This version does
+		 * not change.
+		 *
+		 * @param key key to add
+		 * @param value value to add
+		 * @return new version
+		 * @throws IllegalNullKeyException if key is null
+		 * @throws DuplicateKeyException if key is already in this version
+		 */
+		public Version<K, V> insert(K key, V value) throws IllegalNullKeyException, DuplicateKeyException {
+			if (key == null) {
+				throw new IllegalNullKeyException();
+			}
+			return new Version<K, V>(insertHelper(root, key, value), numKeys + 1);
+		}
+
+		/**
+		 * Returns a version without the key. This version does not change.
+		 *
+		 * @param key key to remove
+		 * @return new version
+		 * @throws IllegalNullKeyException if key is null
+		 * @throws KeyNotFoundException if key is not in this version
+		 */
+		public Version<K, V> remove(K key) throws IllegalNullKeyException, KeyNotFoundException {
+			if (key == null) {
+				throw new IllegalNullKeyException();
+			}
+			return new Version<K, V>(removeHelper(root, key), numKeys - 1);
+		}
+
+		/**
+		 * Returns the value associated with the specified key
+		 *
+		 * @param key key to look for
+		 * @return value of the key
+		 * @throws IllegalNullKeyException if key is null
+		 * @throws KeyNotFoundException if key is not in this version
+		 */
+		public V get(K key) throws IllegalNullKeyException, KeyNotFoundException {
+			Node<K, V> node = find(root, key);
+			if (node == null) {
+				throw new KeyNotFoundException();
+			}
+			return node.value;
+		}
+
+		/**
+		 * Returns true if the key is in this version
+		 *
+		 * @param key key to look for
+		 * @return true if found
+		 * @throws IllegalNullKeyException if key is null
+		 */
+		public boolean contains(K key) throws IllegalNullKeyException {
+			return find(root, key) != null;
+		}
+
+		/**
+		 * Returns the number of key,value pairs in this version
+		 * @return number of keys
+		 */
+		public int numKeys() {
+			return numKeys;
+		}
+
+		/**
+		 * Returns the number of levels in this version
+		 * @return height, 0 if empty
+		 */
+		public int getHeight() {
+			return heightOf(root);
+		}
+
+		/**
+		 * Returns the key in the root node, or null if this version is empty
+		 * @return key at root
+		 */
+		public K getKeyAtRoot() {
+			return root == null ? null : root.key;
+		}
+
+		/**
+		 * Returns the keys of this version in sorted order, without copying
+		 * them. The iterator keeps at most the height of the tree in nodes.
+		 */
+		@Override
+		public Iterator<K> iterator() {
+			return new Iterator<K>() {
+				@SuppressWarnings({"unchecked", "rawtypes"})
+				private final Node<K, V>[] path = (Node<K, V>[]) new Node[getHeight()]; // deepest last
+				private int depth; // number of nodes in path
+
+				{
+					pushLeft(root);
+				}
+
+				@Override
+				public boolean hasNext() {
+					return depth > 0;
+				}
+
+				@Override
+				public K next() {
+					if (depth == 0) {
+						throw new NoSuchElementException();
+					}
+					Node<K, V> node = path[--depth];
+					pushLeft(node.right);
+					return node.key;
+				}
+
+				private void pushLeft(Node<K, V> node) {
+					while (node != null) {
+						path[depth++] = node;
+						node = node.left;
+					}
+				}
+			};
+		}
+	}
+
+	private final AtomicReference<Version<K, V>> current; // version readers see now
+
+	public PersistentBALST() {
+		this.current = new AtomicReference<Version<K, V>>(new Version<K, V>(null, 0));
+	}
+
+	/**
+	 * Returns the current version in O(1). Later changes to this tree make
+	 * new versions and never change the one returned.
+	 *
+	 * @return current version
+	 */
+	public Version<K, V> snapshot() {
+		return current.get();
+	}
+
+	/**
+	 * Add the key,value pair to the data structure and increase the number of keys.
+	 * If key is null, throw IllegalNullKeyException;
+	 * If key is already in data structure, throw DuplicateKeyException();
+	 */
+	@Override
+	public void insert(K key, V value) throws IllegalNullKeyException, DuplicateKeyException {
+		while (true) {
+			Version<K, V> before = current.get();
+			// another writer may publish first, in which case this one starts over
+			if (current.compareAndSet(before, before.insert(key, value))) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * If key is found, remove the key,value pair from the data structure and decrease num keys.
+	 * If key is null, throw IllegalNullKeyException
+	 * If key is not found, throw KeyNotFoundException().
+	 */
+	@Override
+	public boolean remove(K key) throws IllegalNullKeyException, KeyNotFoundException {
+		while (true) {
+			Version<K, V> before = current.get();
+			if (current.compareAndSet(before, before.remove(key))) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 *  Returns the value associated with the specified key in the current version
+	 *
+	 * If key is null, throw IllegalNullKeyException
+	 * If key is not found, throw KeyNotFoundException().
+	 */
+	@Override
+	public V get(K key) throws IllegalNullKeyException, KeyNotFoundException {
+		return current.get().get(key);
+	}
+
+	/**
+	 * Returns true if the key is in the current version
+	 * If key is null, throw IllegalNullKeyException
+	 */
+	@Override
+	public boolean contains(K key) throws IllegalNullKeyException {
+		return current.get().contains(key);
+	}
+
+	/**
+	 *  Returns the number of key,value pairs in the current version
+	 */
+	@Override
+	public int numKeys() {
+		return current.get().numKeys;
+	}
+
+	/**
+	 * Returns the key that is in the root node of the current version.
+	 * If root is null, returns null.
+	 * @return key found at root node, or null
+	 */
+	@Override
+	public K getKeyAtRoot() {
+		return current.get().getKeyAtRoot();
+	}
+
+	/**
+	 * Returns the key in the left child of the node with the specified key.
+	 *
+	 * @param key A key to search for
+	 * @return The key that is in the left child of the found key, or null if it has none
+	 * @throws IllegalNullKeyException if key argument is null
+	 * @throws KeyNotFoundException if key is not found in this BST
+	 */
+	@Override
+	public K getKeyOfLeftChildOf(K key) throws IllegalNullKeyException, KeyNotFoundException {
+		Node<K, V> node = find(current.get().root, key);
+		if (node == null) {
+			throw new KeyNotFoundException();
+		}
+		return node.left == null ? null : node.left.key;
+	}
+
+	/**
+	 * Returns the key in the right child of the node with the specified key.
+	 *
+	 * @param key A key to search for
+	 * @return The key that is in the right child of the found key, or null if it has none
+	 * @throws IllegalNullKeyException if key is null
+	 * @throws KeyNotFoundException if key is not found in this BST
+	 */
+	@Override
+	public K getKeyOfRightChildOf(K key) throws IllegalNullKeyException, KeyNotFoundException {
+		Node<K, V> node = find(current.get().root, key);
+		if (node == null) {
+			throw new KeyNotFoundException();
+		}
+		return node.right == null ? null : node.right.key;
+	}
+
+	/**
+	 * Returns the height of the current version, in O(1)
+	 *
+	 * @return the number of levels that contain keys in this BINARY SEARCH TREE
+	 */
+	@Override
+	public int getHeight() {
+		return current.get().getHeight();
+	}
+
+	/**
+	 * Returns the keys of the current version in sorted order: L V R
+	 *
+	 * @return List of Keys in-order
+	 */
+	@Override
+	public List<K> getInOrderTraversal() {
+		Version<K, V> version = current.get();
+		List<K> inOrder = new ArrayList<K>(version.numKeys);
+		for (K key : version) {
+			inOrder.add(key);
+		}
+		return inOrder;
+	}
+
+	/**
+	 * Returns the keys of the current version in pre-order traversal order: V L R
+	 *
+	 * @return List of Keys in pre-order
+	 */
+	@Override
+	public List<K> getPreOrderTraversal() {
+		Version<K, V> version = current.get();
+		List<K> preOrder = new ArrayList<K>(version.numKeys);
+		Deque<Node<K, V>> stack = new ArrayDeque<>();
+		if (version.root != null) {
+			stack.push(version.root);
+		}
+		while (!stack.isEmpty()) {
+			Node<K, V> node = stack.pop();
+			preOrder.add(node.key);
+			// right goes on first so left comes off first
+			if (node.right != null) {
+				stack.push(node.right);
+			}
+			if (node.left != null) {
+				stack.push(node.left);
+			}
+		}
+		return preOrder;
+	}
+
+	/**
+	 * Returns the keys of the current version in post-order traversal order: L R V
+	 *
+	 * @return List of Keys in post-order
+	 */
+	@Override
+	public List<K> getPostOrderTraversal() {
+		Version<K, V> version = current.get();
+		// V R L order reversed is L R V
+		LinkedList<K> postOrder = new LinkedList<K>();
+		Deque<Node<K, V>> stack = new ArrayDeque<>();
+		if (version.root != null) {
+			stack.push(version.root);
+		}
+		while (!stack.isEmpty()) {
+			Node<K, V> node = stack.pop();
+			postOrder.addFirst(node.key);
+			if (node.left != null) {
+				stack.push(node.left);
+			}
+			if (node.right != null) {
+				stack.push(node.right);
+			}
+		}
+		return new ArrayList<K>(postOrder);
+	}
+
+	/**
+	 * Returns the keys of the current version in level-order traversal order.
+	 *
+	 * @return List of Keys in level-order
+	 */
+	@Override
+	public List<K> getLevelOrderTraversal() {
+		Version<K, V> version = current.get();
+		List<K> levelOrder = new ArrayList<K>(version.numKeys);
+		Queue<Node<K, V>> queue = new ArrayDeque<>();
+		if (version.root != null) {
+			queue.add(version.root);
+		}
+		while (!queue.isEmpty()) {
+			Node<K, V> node = queue.poll();
+			levelOrder.add(node.key);
+			if (node.left != null) {
+				queue.add(node.left);
+			}
+			if (node.right != null) {
+				queue.add(node.right);
+			}
+		}
+		return levelOrder;
+	}
+
+	/**
+	 * Prints the current version out
+	 */
+	@Override
+	public void print() {
+		printHelper(current.get().root, 0, 10);
+	}
+
+	/**
+	 * Helper method to print the tree
+	 * @param node node to print from
+	 * @param numSpaces current spacing
+	 * @param height spacing added per level
+	 */
+	private void printHelper(Node<K, V> node, int numSpaces, int height) {
+		if (node == null) {
+			return;
+		}
+		numSpaces += height;
+		printHelper(node.right, numSpaces, height);
+		System.out.println();
+		for (int i = height; i < numSpaces; i++) {
+			System.out.print(' ');
+		}
+		System.out.print(node.key);
+		System.out.println();
+		printHelper(node.left, numSpaces, height);
+	}
+
+	/**
+	 * Gets the height of a subtree
+	 * @param node root of the subtree, or null
+	 * @return height, 0 for null
+	 */
+	private static int heightOf(Node<?, ?> node) {
+		return node == null ? 0 : node.height;
+	}
+
+	/**
+	 * Finds the node with a key in one walk down from a root
+	 * @param node root to start at
+	 * @param key key to find
+	 * @return node, or null if the key is not in the tree
+	 * @throws IllegalNullKeyException if key is null
+	 */
+	private static <K extends Comparable<K>, V> Node<K, V> find(Node<K, V> node, K key)
+		throws IllegalNullKeyException {
+		if (key == null) {
+			throw new IllegalNullKeyException();
+		}
+		while (node != null) {
+			int cmp = key.compareTo(node.key);
+			if (cmp < 0) {
+				node = node.left;
+			} else if (cmp > 0) {
+				node = node.right;
+			} else {
+				return node;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Builds a copy of the path down to where the key belongs, with the new
+	 * pair at the end of it
+	 * @param node root of the subtree
+	 * @param key key to add
+	 * @param value value to add
+	 * @return root of the new subtree
+	 * @throws DuplicateKeyException if key is already in the subtree
+	 */
+	private static <K extends Comparable<K>, V> Node<K, V> insertHelper(Node<K, V> node, K key, V value)
+		throws DuplicateKeyException {
+		if (node == null) {
+			return new Node<K, V>(key, value, null, null);
+		}
+		int cmp = key.compareTo(node.key);
+		if (cmp < 0) {
+			return balance(node.key, node.value, insertHelper(node.left, key, value), node.right);
+		}
+		if (cmp > 0) {
+			return balance(node.key, node.value, node.left, insertHelper(node.right, key, value));
+		}
+		throw new DuplicateKeyException();
+	}
+
+	/**
+	 * Builds a copy of the path down to the key without it
+	 * @param node root of the subtree
+	 * @param key key to remove
+	 * @return root of the new subtree
+	 * @throws KeyNotFoundException if key is not in the subtree
+	 */
+	private static <K extends Comparable<K>, V> Node<K, V> removeHelper(Node<K, V> node, K key)
+		throws KeyNotFoundException {
+		if (node == null) {
+			throw new KeyNotFoundException();
+		}
+		int cmp = key.compareTo(node.key);
+		if (cmp < 0) {
+			return balance(node.key, node.value, removeHelper(node.left, key), node.right);
+		}
+		if (cmp > 0) {
+			return balance(node.key, node.value, node.left, removeHelper(node.right, key));
+		}
+		if (node.left == null) {
+			return node.right;
+		}
+		if (node.right == null) {
+			return node.left;
+		}
+		// the in-order successor takes the place of the removed node
+		Node<K, V> successor = node.right;
+		while (successor.left != null) {
+			successor = successor.left;
+		}
+		return balance(successor.key, successor.value, node.left, removeMin(node.right));
+	}
+
+	/**
+	 * Builds a copy of a subtree without its smallest node
+	 * @param node root of the subtree
+	 * @return root of the new subtree
+	 */
+	private static <K extends Comparable<K>, V> Node<K, V> removeMin(Node<K, V> node) {
+		if (node.left == null) {
+			return node.right;
+		}
+		return balance(node.key, node.value, removeMin(node.left), node.right);
+	}
+
+	/**
+	 * Builds a node from a pair and two subtrees whose heights differ by at
+	 * most two, rotating if they differ by two. A rotation builds new nodes
+	 * for the ones it moves instead of relinking them, since they may be
+	 * shared with other versions.
+	 * @param key key of the node
+	 * @param value value of the node
+	 * @param left subtree of smaller keys
+	 * @param right subtree of larger keys
+	 * @return root of the balanced subtree
+	 */
+	private static <K extends Comparable<K>, V> Node<K, V> balance(K key, V value, Node<K, V> left,
+		Node<K, V> right) {
+		int leftHeight = heightOf(left);
+		int rightHeight = heightOf(right);
+		if (leftHeight > rightHeight + 1) {
+			if (heightOf(left.left) >= heightOf(left.right)) {
+				// right rotation
+				return new Node<K, V>(left.key, left.value, left.left,
+					new Node<K, V>(key, value, left.right, right));
+			}
+			// left right rotation
+			Node<K, V> middle = left.right;
+			return new Node<K, V>(middle.key, middle.value,
+				new Node<K, V>(left.key, left.value, left.left, middle.left),
+				new Node<K, V>(key, value, middle.right, right));
+		}
+		if (rightHeight > leftHeight + 1) {
+			if (heightOf(right.right) >= heightOf(right.left)) {
+				// left rotation
+				return new Node<K, V>(right.key, right.value,
+					new Node<K, V>(key, value, left, right.left), right.right);
+			}
+			// right left rotation
+			Node<K, V> middle = right.left;
+			return new Node<K, V>(middle.key, middle.value,
+				new Node<K, V>(key, value, left, middle.left),
+				new Node<K, V>(right.key, right.value, middle.right, right.right));
+		}
+		return new Node<K, V>(key, value, left, right);
+	}
+
+}
@@ -0,0 +1,105 @@
+import static org.junit.Assert.fail;
+
+import org.junit.Assert;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Runs every test of BALSTTest against PersistentBALST, and checks that
+ * snapshots and versions stay the same while the tree changes. The tests of
+ * what only BALST offers are in BALSTExtensionsTest and are not run here.
+ */
+public class PersistentBALSTTest extends BALSTTest {
+
+    @Override
+    protected BALSTADT<String, String> createInstance() {
+        return new PersistentBALST<String, String>();
+    }
+
+    @Override
+    protected BALSTADT<Integer, String> createInstance2() {
+        return new PersistentBALST<Integer, String>();
+    }
+
+    /**
+     * Takes a snapshot, changes the tree and checks the snapshot still
+     * shows the keys and values it was taken with.
+     */
+    @Test
+    void testPersistent_001_snapshot_does_not_change() {
+        try {
+            PersistentBALST<Integer, String> tree = new PersistentBALST<>();
+            for (int key = 10; key <= 50; key += 10) {
+                tree.insert(key, "v" + key);
+            }
+            PersistentBALST.Version<Integer, String> snapshot = tree.snapshot();
+            tree.remove(30);
+            tree.insert(60, "v60");
+            tree.insert(5, "v5");
+
+            Assert.assertEquals(Arrays.asList(10, 20, 30, 40, 50), keys(snapshot));
+            Assert.assertEquals(5, snapshot.numKeys());
+            Assert.assertEquals("v30", snapshot.get(30));
+            Assert.assertFalse(snapshot.contains(60));
+            Assert.assertEquals(Arrays.asList(5, 10, 20, 40, 50, 60), tree.getInOrderTraversal());
+            Assert.assertEquals(6, tree.numKeys());
+        } catch (Exception e) {
+            e.printStackTrace();
+            fail("Unexpected exception Persistent 001: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Builds two versions from the same one and checks each only has its
+     * own change, and that a refused change leaves the tree as it was.
+     */
+    @Test
+    void testPersistent_002_versions_branch() {
+        try {
+            PersistentBALST<Integer, String> tree = new PersistentBALST<>();
+            for (int key = 1; key <= 20; key++) {
+                tree.insert(key, "v" + key);
+            }
+            PersistentBALST.Version<Integer, String> base = tree.snapshot();
+            PersistentBALST.Version<Integer, String> withMore = base.insert(21, "v21");
+            PersistentBALST.Version<Integer, String> withLess = base.remove(7);
+
+            Assert.assertEquals(20, base.numKeys());
+            Assert.assertEquals(21, withMore.numKeys());
+            Assert.assertEquals(19, withLess.numKeys());
+            Assert.assertTrue(base.contains(7));
+            Assert.assertFalse(withMore.contains(0));
+            Assert.assertFalse(withLess.contains(7));
+            Assert.assertTrue(withMore.contains(21));
+            Assert.assertFalse(withLess.contains(21));
+
+            try {
+                tree.insert(5, "again");
+                fail("Test: Persistent 002 duplicate key was inserted");
+            } catch (DuplicateKeyException e) {
+                // expected
+            }
+            Assert.assertSame(base, tree.snapshot());
+        } catch (Exception e) {
+            e.printStackTrace();
+            fail("Unexpected exception Persistent 002: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads every key of a version into a list
+     * @param version version to read
+     * @return keys read, in order
+     */
+    private static List<Integer> keys(PersistentBALST.Version<Integer, String> version) {
+        List<Integer> keys = new ArrayList<>();
+        for (Integer key : version) {
+            keys.add(key);
+        }
+        return keys;
+    }
+
+}
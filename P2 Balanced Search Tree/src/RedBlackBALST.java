@@ -0,0 +1,605 @@
+import java.util.*;
+
+/**
+ * Red-Black implementation of BALSTADT.
+ *
+ * A red-black tree keeps a weaker balance than BALST's AVL tree: no red
+ * node has a red child, and every path from a node down to a missing child
+ * passes the same number of black nodes. The tree can be up to twice as
+ * tall as a perfect one, but an insert needs at most two rotations and a
+ * remove at most three, and most of the fixing up is recoloring. That
+ * makes it the better choice when writes outnumber reads.
+ *
+ * Nodes keep a link to their parent, so insert and remove walk down once
+ * and fix the tree on the way back up without recursion. Nodes do not keep
+ * their height, so getHeight() walks the tree.
+ *
+ * @author Rohan Mendiratta
+ *
+ * @param <K> is the generic type of key
+ * @param <V> is the generic type of value
+ */
+public class RedBlackBALST<K extends Comparable<K>, V> implements BALSTADT<K, V> {
+
+	private static final boolean RED = true;
+	private static final boolean BLACK = false;
+
+	/**
+	 * Node class which is used to build the tree
+	 * @param <K>
+	 * @param <V>
+	 */
+	static class Node<K,V> {
+
+		K key;
+		V value;
+		Node<K,V> left;
+		Node<K,V> right;
+		Node<K,V> parent; // null for the root
+		boolean color = RED; // new nodes start red so black heights do not change
+
+		/**
+		 * @param key
+		 * @param value
+		 * @param parent
+		 */
+		Node(K key, V value, Node<K,V> parent) {
+			this.key = key;
+			this.value = value;
+			this.parent = parent;
+		}
+	}
+
+	private Node<K, V> root; // holds root node
+	private int numKeys; // holds number of keys in the structure
+	private long rotations; // rotations done since the tree was created
+
+	public RedBlackBALST() {
+		this.root = null;
+		this.numKeys = 0;
+	}
+
+	/**
+	 * Returns the key that is in the root node of this tree.
+	 * If root is null, returns null.
+	 * @return key found at root node, or null
+	 */
+	@Override
+	public K getKeyAtRoot() {
+		return root == null ? null : root.key;
+	}
+
+	/**
+	 * Returns the key in the left child of the node with the specified key.
+	 *
+	 * @param key A key to search for
+	 * @return The key that is in the left child of the found key, or null if it has none
+	 * @throws IllegalNullKeyException if key argument is null
+	 * @throws KeyNotFoundException if key is not found in this tree
+	 */
+	@Override
+	public K getKeyOfLeftChildOf(K key) throws IllegalNullKeyException, KeyNotFoundException {
+		Node<K, V> node = find(key);
+		if (node == null) {
+			throw new KeyNotFoundException();
+		}
+		return node.left == null ? null : node.left.key;
+	}
+
+	/**
+	 * Returns the key in the right child of the node with the specified key.
+	 *
+	 * @param key A key to search for
+	 * @return The key that is in the right child of the found key, or null if it has none
+	 * @throws IllegalNullKeyException if key is null
+	 * @throws KeyNotFoundException if key is not found in this tree
+	 */
+	@Override
+	public K getKeyOfRightChildOf(K key) throws IllegalNullKeyException, KeyNotFoundException {
+		Node<K, V> node = find(key);
+		if (node == null) {
+			throw new KeyNotFoundException();
+		}
+		return node.right == null ? null : node.right.key;
+	}
+
+	/**
+	 * Returns the number of levels in this tree, by walking it level by
+	 * level, so it takes O(n) time.
+	 *
+	 * @return the number of levels that contain keys in this tree
+	 */
+	@Override
+	public int getHeight() {
+		if (root == null) {
+			return 0;
+		}
+		int height = 0;
+		Queue<Node<K, V>> level = new ArrayDeque<>();
+		level.add(root);
+		// each pass of the loop takes one whole level off the queue
+		while (!level.isEmpty()) {
+			height++;
+			for (int i = level.size(); i > 0; i--) {
+				Node<K, V> node = level.poll();
+				if (node.left != null) {
+					level.add(node.left);
+				}
+				if (node.right != null) {
+					level.add(node.right);
+				}
+			}
+		}
+		return height;
+	}
+
+	/**
+	 * Returns the keys of the data structure in sorted order: L V R
+	 *
+	 * @return List of Keys in-order
+	 */
+	@Override
+	public List<K> getInOrderTraversal() {
+		List<K> inOrder = new ArrayList<K>(numKeys);
+		// without a stack: the parent links lead back up
+		Node<K, V> node = first(root);
+		while (node != null) {
+			inOrder.add(node.key);
+			node = successor(node);
+		}
+		return inOrder;
+	}
+
+	/**
+	 * Returns the keys of the data structure in pre-order traversal order: V L R
+	 *
+	 * @return List of Keys in pre-order
+	 */
+	@Override
+	public List<K> getPreOrderTraversal() {
+		List<K> preOrder = new ArrayList<K>(numKeys);
+		Deque<Node<K, V>> stack = new ArrayDeque<>();
+		if (root != null) {
+			stack.push(root);
+		}
+		while (!stack.isEmpty()) {
+			Node<K, V> node = stack.pop();
+			preOrder.add(node.key);
+			// right goes on first so left comes off first
+			if (node.right != null) {
+				stack.push(node.right);
+			}
+			if (node.left != null) {
+				stack.push(node.left);
+			}
+		}
+		return preOrder;
+	}
+
+	/**
+	 * Returns the keys of the data structure in post-order traversal order: L R V
+	 *
+	 * @return List of Keys in post-order
+	 */
+	@Override
+	public List<K> getPostOrderTraversal() {
+		// V R L order reversed is L R V
+		LinkedList<K> postOrder = new LinkedList<K>();
+		Deque<Node<K, V>> stack = new ArrayDeque<>();
+		if (root != null) {
+			stack.push(root);
+		}
+		while (!stack.isEmpty()) {
+			Node<K, V> node = stack.pop();
+			postOrder.addFirst(node.key);
+			if (node.left != null) {
+				stack.push(node.left);
+			}
+			if (node.right != null) {
+				stack.push(node.right);
+			}
+		}
+		return new ArrayList<K>(postOrder);
+	}
+
+	/**
+	 * Returns the keys of the data structure in level-order traversal order.
+	 *
+	 * @return List of Keys in level-order
+	 */
+	@Override
+	public List<K> getLevelOrderTraversal() {
+		List<K> levelOrder = new ArrayList<K>(numKeys);
+		Queue<Node<K, V>> queue = new ArrayDeque<>();
+		if (root != null) {
+			queue.add(root);
+		}
+		while (!queue.isEmpty()) {
+			Node<K, V> node = queue.poll();
+			levelOrder.add(node.key);
+			if (node.left != null) {
+				queue.add(node.left);
+			}
+			if (node.right != null) {
+				queue.add(node.right);
+			}
+		}
+		return levelOrder;
+	}
+
+	/**
+	 * Add the key,value pair to the data structure and increase the number of keys.
+	 * If key is null, throw IllegalNullKeyException;
+	 * If key is already in data structure, throw DuplicateKeyException();
+	 */
+	@Override
+	public void insert(K key, V value) throws IllegalNullKeyException, DuplicateKeyException {
+		if (key == null) {
+			throw new IllegalNullKeyException();
+		}
+		// walks down to the missing child where the key belongs
+		Node<K, V> parent = null;
+		Node<K, V> current = root;
+		int cmp = 0;
+		while (current != null) {
+			parent = current;
+			cmp = key.compareTo(current.key);
+			if (cmp < 0) {
+				current = current.left;
+			} else if (cmp > 0) {
+				current = current.right;
+			} else {
+				throw new DuplicateKeyException();
+			}
+		}
+		Node<K, V> node = new Node<K, V>(key, value, parent);
+		if (parent == null) {
+			root = node;
+		} else if (cmp < 0) {
+			parent.left = node;
+		} else {
+			parent.right = node;
+		}
+		fixAfterInsert(node);
+		numKeys++;
+	}
+
+	/**
+	 * Restores the red-black rules after a red node is added. While the
+	 * node's parent is red too, either the uncle is red and recoloring moves
+	 * the problem two levels up, or the uncle is black and one or two
+	 * rotations end it.
+	 * @param node node just added
+	 */
+	private void fixAfterInsert(Node<K, V> node) {
+		while (node != root && colorOf(node.parent) == RED) {
+			Node<K, V> parent = node.parent;
+			Node<K, V> grandparent = parent.parent;
+			if (parent == grandparent.left) {
+				Node<K, V> uncle = grandparent.right;
+				if (colorOf(uncle) == RED) {
+					parent.color = BLACK;
+					uncle.color = BLACK;
+					grandparent.color = RED;
+					node = grandparent;
+				} else {
+					if (node == parent.right) {
+						// turns the inner case into the outer one
+						node = parent;
+						rotateLeft(node);
+						parent = node.parent;
+					}
+					parent.color = BLACK;
+					grandparent.color = RED;
+					rotateRight(grandparent);
+				}
+			} else {
+				Node<K, V> uncle = grandparent.left;
+				if (colorOf(uncle) == RED) {
+					parent.color = BLACK;
+					uncle.color = BLACK;
+					grandparent.color = RED;
+					node = grandparent;
+				} else {
+					if (node == parent.left) {
+						node = parent;
+						rotateRight(node);
+						parent = node.parent;
+					}
+					parent.color = BLACK;
+					grandparent.color = RED;
+					rotateLeft(grandparent);
+				}
+			}
+		}
+		root.color = BLACK;
+	}
+
+	/**
+	 * If key is found, remove the key,value pair from the data structure and decrease num keys.
+	 * If key is null, throw IllegalNullKeyException
+	 * If key is not found, throw KeyNotFoundException().
+	 */
+	@Override
+	public boolean remove(K key) throws IllegalNullKeyException, KeyNotFoundException {
+		Node<K, V> node = find(key);
+		if (node == null) {
+			throw new KeyNotFoundException();
+		}
+		if (node.left != null && node.right != null) {
+			// the successor has at most one child, so it is unlinked instead
+			Node<K, V> successor = first(node.right);
+			node.key = successor.key;
+			node.value = successor.value;
+			node = successor;
+		}
+
+		Node<K, V> child = node.left != null ? node.left : node.right;
+		if (child != null) {
+			// a node with one child is black with a red child, so the child takes its place and color
+			replace(node, child);
+			child.color = BLACK;
+		} else if (node.parent == null) {
+			root = null;
+		} else {
+			// a black leaf leaves its path one black short, so fix before unlinking it
+			if (node.color == BLACK) {
+				fixAfterRemove(node);
+			}
+			replace(node, null);
+		}
+		numKeys--;
+		return true;
+	}
+
+	/**
+	 * Restores the black heights after a black node is taken off a path.
+	 * The node counts as "doubly black" until a red node absorbs the extra
+	 * black, a rotation at the sibling hands it over, or it reaches the root.
+	 * @param node node whose path is one black short
+	 */
+	private void fixAfterRemove(Node<K, V> node) {
+		while (node != root && colorOf(node) == BLACK) {
+			Node<K, V> parent = node.parent;
+			if (node == parent.left) {
+				Node<K, V> sibling = parent.right;
+				if (colorOf(sibling) == RED) {
+					sibling.color = BLACK;
+					parent.color = RED;
+					rotateLeft(parent);
+					sibling = parent.right;
+				}
+				if (colorOf(sibling.left) == BLACK && colorOf(sibling.right) == BLACK) {
+					sibling.color = RED;
+					node = parent;
+				} else {
+					if (colorOf(sibling.right) == BLACK) {
+						sibling.left.color = BLACK;
+						sibling.color = RED;
+						rotateRight(sibling);
+						sibling = parent.right;
+					}
+					sibling.color = parent.color;
+					parent.color = BLACK;
+					sibling.right.color = BLACK;
+					rotateLeft(parent);
+					node = root;
+				}
+			} else {
+				Node<K, V> sibling = parent.left;
+				if (colorOf(sibling) == RED) {
+					sibling.color = BLACK;
+					parent.color = RED;
+					rotateRight(parent);
+					sibling = parent.left;
+				}
+				if (colorOf(sibling.right) == BLACK && colorOf(sibling.left) == BLACK) {
+					sibling.color = RED;
+					node = parent;
+				} else {
+					if (colorOf(sibling.left) == BLACK) {
+						sibling.right.color = BLACK;
+						sibling.color = RED;
+						rotateLeft(sibling);
+						sibling = parent.left;
+					}
+					sibling.color = parent.color;
+					parent.color = BLACK;
+					sibling.left.color = BLACK;
+					rotateRight(parent);
+					node = root;
+				}
+			}
+		}
+		node.color = BLACK;
+	}
+
+	/**
+	 *  Returns the value associated with the specified key
+	 *
+	 * If key is null, throw IllegalNullKeyException
+	 * If key is not found, throw KeyNotFoundException().
+	 */
+	@Override
+	public V get(K key) throws IllegalNullKeyException, KeyNotFoundException {
+		Node<K, V> node = find(key);
+		if (node == null) {
+			throw new KeyNotFoundException();
+		}
+		return node.value;
+	}
+
+	/**
+	 * Returns true if the key is in the data structure
+	 * If key is null, throw IllegalNullKeyException
+	 */
+	@Override
+	public boolean contains(K key) throws IllegalNullKeyException {
+		return find(key) != null;
+	}
+
+	/**
+	 *  Returns the number of key,value pairs in the data structure
+	 */
+	@Override
+	public int numKeys() {
+		return numKeys;
+	}
+
+	/**
+	 * Gets the number of rotations done since the tree was created, to
+	 * compare how much rebalancing a workload costs against BALST
+	 * @return rotations
+	 */
+	public long getRotations() {
+		return rotations;
+	}
+
+	/**
+	 * Prints the tree out, right side up, with each key followed by R or B
+	 * for its color
+	 */
+	@Override
+	public void print() {
+		printHelper(root, 0, 10);
+	}
+
+	/**
+	 * Helper method to print the tree
+	 * @param node node to print from
+	 * @param numSpaces current spacing
+	 * @param height spacing added per level
+	 */
+	private void printHelper(Node<K, V> node, int numSpaces, int height) {
+		if (node == null) {
+			return;
+		}
+		numSpaces += height;
+		printHelper(node.right, numSpaces, height);
+		System.out.println();
+		for (int i = height; i < numSpaces; i++) {
+			System.out.print(' ');
+		}
+		System.out.print(node.key + (node.color == RED ? "R" : "B"));
+		System.out.println();
+		printHelper(node.left, numSpaces, height);
+	}
+
+	/**
+	 * Finds the node with a key in one walk down from the root
+	 * @param key key to find
+	 * @return node, or null if the key is not in the tree
+	 * @throws IllegalNullKeyException if key is null
+	 */
+	private Node<K, V> find(K key) throws IllegalNullKeyException {
+		if (key == null) {
+			throw new IllegalNullKeyException();
+		}
+		Node<K, V> current = root;
+		while (current != null) {
+			int cmp = key.compareTo(current.key);
+			if (cmp < 0) {
+				current = current.left;
+			} else if (cmp > 0) {
+				current = current.right;
+			} else {
+				return current;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Puts a node, or nothing, where another node hangs from its parent
+	 * @param node node to take out
+	 * @param replacement node to put in its place, or null
+	 */
+	private void replace(Node<K, V> node, Node<K, V> replacement) {
+		Node<K, V> parent = node.parent;
+		if (parent == null) {
+			root = replacement;
+		} else if (node == parent.left) {
+			parent.left = replacement;
+		} else {
+			parent.right = replacement;
+		}
+		if (replacement != null) {
+			replacement.parent = parent;
+		}
+		node.parent = null;
+	}
+
+	/**
+	 * Rotates a node down to the left, so its right child takes its place
+	 * @param node node with a right child
+	 */
+	private void rotateLeft(Node<K, V> node) {
+		Node<K, V> child = node.right;
+		node.right = child.left;
+		if (child.left != null) {
+			child.left.parent = node;
+		}
+		replace(node, child);
+		child.left = node;
+		node.parent = child;
+		rotations++;
+	}
+
+	/**
+	 * Rotates a node down to the right, so its left child takes its place
+	 * @param node node with a left child
+	 */
+	private void rotateRight(Node<K, V> node) {
+		Node<K, V> child = node.left;
+		node.left = child.right;
+		if (child.right != null) {
+			child.right.parent = node;
+		}
+		replace(node, child);
+		child.right = node;
+		node.parent = child;
+		rotations++;
+	}
+
+	/**
+	 * Gets the leftmost node of a subtree
+	 * @param node root of the subtree, or null
+	 * @return node with the smallest key, or null
+	 */
+	private Node<K, V> first(Node<K, V> node) {
+		if (node != null) {
+			while (node.left != null) {
+				node = node.left;
+			}
+		}
+		return node;
+	}
+
+	/**
+	 * Gets the node with the next larger key
+	 * @param node node in the tree
+	 * @return next node in order, or null if node has the largest key
+	 */
+	private Node<K, V> successor(Node<K, V> node) {
+		if (node.right != null) {
+			return first(node.right);
+		}
+		// goes up until coming from a left child
+		Node<K, V> parent = node.parent;
+		while (parent != null && node == parent.right) {
+			node = parent;
+			parent = parent.parent;
+		}
+		return parent;
+	}
+
+	/**
+	 * Gets the color of a node, counting a missing node as black
+	 * @param node node, or null
+	 * @return RED or BLACK
+	 */
+	private static boolean colorOf(Node<?, ?> node) {
+		return node == null ? BLACK : node.color;
+	}
+
+}
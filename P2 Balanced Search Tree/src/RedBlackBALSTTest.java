@@ -0,0 +1,17 @@
+/**
+ * Runs every test of BALSTTest against RedBlackBALST. The tests of what only
+ * BALST offers are in BALSTExtensionsTest and run once, against BALST.
+ */
+public class RedBlackBALSTTest extends BALSTTest {
+
+    @Override
+    protected BALSTADT<String, String> createInstance() {
+        return new RedBlackBALST<String, String>();
+    }
+
+    @Override
+    protected BALSTADT<Integer, String> createInstance2() {
+        return new RedBlackBALST<Integer, String>();
+    }
+
+}